@@ -0,0 +1,119 @@
+package com.draccoapp.basisnordestetest.api;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Mede p50/p99 das consultas de CEP com e sem hedge, com um primário que demora 400ms em uma de
+ * cada dez respostas. Os resultados saem no logcat com a tag HedgeBenchmark.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HedgedCepLatencyBenchmark {
+    private static final String TAG = "HedgeBenchmark";
+    private static final String CEP = "58038000";
+    private static final int LOOKUPS = 200;
+    private static final long HEDGE_DELAY_MILLIS = 50;
+
+    @Rule
+    public final MockWebServer primary = new MockWebServer();
+
+    @Rule
+    public final MockWebServer secondary = new MockWebServer();
+
+    private final OkHttpClient client = new OkHttpClient();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void hedgingCutsTailLatency() throws IOException {
+        AtomicInteger primaryRequests = new AtomicInteger();
+        primary.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                long delay = primaryRequests.incrementAndGet() % 10 == 0 ? 400 : 10;
+                return found().setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+            }
+        });
+        secondary.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return found().setHeadersDelay(10, TimeUnit.MILLISECONDS);
+            }
+        });
+
+        HedgedCepService single = new HedgedCepService(Collections.singletonList(viaCep(primary)),
+                HEDGE_DELAY_MILLIS, scheduler);
+        HedgedCepService hedged = new HedgedCepService(Arrays.asList(viaCep(primary), viaCep(secondary)),
+                HEDGE_DELAY_MILLIS, scheduler);
+        // Aquecimento das conexões e do JIT
+        measure(hedged, LOOKUPS / 10);
+
+        List<Long> singleLatencies = measure(single, LOOKUPS);
+        List<Long> hedgedLatencies = measure(hedged, LOOKUPS);
+
+        Log.i(TAG, "without hedge: p50=" + percentile(singleLatencies, 50)
+                + "ms p99=" + percentile(singleLatencies, 99) + "ms");
+        Log.i(TAG, "with hedge:    p50=" + percentile(hedgedLatencies, 50)
+                + "ms p99=" + percentile(hedgedLatencies, 99) + "ms");
+        assertEquals(LOOKUPS, hedgedLatencies.size());
+    }
+
+    private CepProvider viaCep(MockWebServer server) {
+        return new ViaCepProvider(new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(CepService.class));
+    }
+
+    private static MockResponse found() {
+        return new MockResponse().setBody("{\"cep\":\"58038-000\",\"localidade\":\"João Pessoa\",\"uf\":\"PB\"}");
+    }
+
+    private static List<Long> measure(HedgedCepService service, int lookups) throws IOException {
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < lookups; i++) {
+            long start = System.nanoTime();
+            service.getCepInfo(CEP).execute();
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        Collections.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
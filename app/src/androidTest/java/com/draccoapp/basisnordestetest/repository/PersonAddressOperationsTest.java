@@ -0,0 +1,125 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.Person;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Atualização e remoção de endereços pela chave primária em pessoas com centenas de endereços.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PersonAddressOperationsTest {
+    private static final String TAG = "AddressOperationsTest";
+    private static final int PERSONS = 5;
+    private static final int ADDRESSES_PER_PERSON = 500;
+
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Realm.init(context);
+        RealmConfiguration config = new RealmConfiguration.Builder()
+                .name("address-operations.realm")
+                .inMemory()
+                .allowWritesOnUiThread(true)
+                .build();
+        realm = Realm.getInstance(config);
+
+        realm.executeTransaction(r -> {
+            for (int p = 0; p < PERSONS; p++) {
+                Person person = r.createObject(Person.class, personId(p));
+                person.setPersonType("PHYSICAL");
+                person.setName("Pessoa " + p);
+                for (int a = 0; a < ADDRESSES_PER_PERSON; a++) {
+                    Address address = r.createObject(Address.class, addressId(p, a));
+                    address.setAddressType("RESIDENTIAL");
+                    address.setStreet("Rua " + a);
+                    person.getAddresses().add(address);
+                }
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        realm.close();
+    }
+
+    @Test
+    public void updateAddress_modifiesRowInPlace() {
+        Person person = realm.where(Person.class).equalTo("id", personId(2)).findFirst();
+        Address before = person.getAddresses().get(ADDRESSES_PER_PERSON - 1);
+
+        Address changes = realm.copyFromRealm(before);
+        changes.setStreet("Avenida Nova");
+
+        long start = System.nanoTime();
+        realm.executeTransaction(r ->
+                assertTrue(PersonRepository.updateAddress(r, personId(2), changes)));
+        Log.i(TAG, String.format("update with %d addresses: %.3fms",
+                ADDRESSES_PER_PERSON, (System.nanoTime() - start) / 1e6));
+
+        assertEquals("Avenida Nova", before.getStreet());
+        assertEquals(ADDRESSES_PER_PERSON, person.getAddresses().size());
+        assertEquals(PERSONS * ADDRESSES_PER_PERSON, realm.where(Address.class).count());
+    }
+
+    @Test
+    public void removeAddress_deletesRowAndListEntry() {
+        String removedId = addressId(3, 250);
+
+        long start = System.nanoTime();
+        realm.executeTransaction(r ->
+                assertTrue(PersonRepository.removeAddress(r, personId(3), removedId)));
+        Log.i(TAG, String.format("remove with %d addresses: %.3fms",
+                ADDRESSES_PER_PERSON, (System.nanoTime() - start) / 1e6));
+
+        Person person = realm.where(Person.class).equalTo("id", personId(3)).findFirst();
+        assertEquals(ADDRESSES_PER_PERSON - 1, person.getAddresses().size());
+        assertNull(realm.where(Address.class).equalTo("id", removedId).findFirst());
+        assertEquals(PERSONS * ADDRESSES_PER_PERSON - 1, realm.where(Address.class).count());
+    }
+
+    @Test
+    public void operations_ignoreAddressesOfOtherPersons() {
+        Address foreign = realm.copyFromRealm(
+                realm.where(Address.class).equalTo("id", addressId(1, 10)).findFirst());
+        foreign.setStreet("Não deveria mudar");
+
+        realm.executeTransaction(r -> {
+            assertFalse(PersonRepository.updateAddress(r, personId(0), foreign));
+            assertFalse(PersonRepository.removeAddress(r, personId(0), addressId(1, 10)));
+        });
+
+        Address stored = realm.where(Address.class).equalTo("id", addressId(1, 10)).findFirst();
+        assertEquals("Rua 10", stored.getStreet());
+        assertTrue(stored.isOwnedBy(personId(1)));
+    }
+
+    private static String personId(int p) {
+        return "person-" + p;
+    }
+
+    private static String addressId(int p, int a) {
+        return "address-" + p + "-" + a;
+    }
+}
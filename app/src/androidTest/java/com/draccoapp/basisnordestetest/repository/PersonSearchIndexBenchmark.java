@@ -0,0 +1,129 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.draccoapp.basisnordestetest.model.Person;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+import java.util.Set;
+
+import io.realm.Case;
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compara a latência da busca pelo índice de tokens com o contains(Case.INSENSITIVE) antigo
+ * para tamanhos crescentes de base. A latência do índice deve ficar praticamente estável.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PersonSearchIndexBenchmark {
+    private static final String TAG = "SearchBenchmark";
+    private static final int[] DATASET_SIZES = {1_000, 10_000, 50_000};
+    private static final String[] QUERIES = {"maria", "silva", "jo sa", "ltda", "comercio norte"};
+    private static final int ITERATIONS = 20;
+
+    private static final String[] FIRST_NAMES = {"Maria", "Jose", "Ana", "Joao", "Antonio", "Francisca",
+            "Carlos", "Paulo", "Pedro", "Lucas", "Luiz", "Marcos", "Luis", "Gabriel", "Rafael", "Daniel"};
+    private static final String[] LAST_NAMES = {"Silva", "Santos", "Oliveira", "Souza", "Rodrigues",
+            "Ferreira", "Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho"};
+    private static final String[] COMPANY_WORDS = {"Comercio", "Industria", "Servicos", "Norte", "Nordeste",
+            "Distribuidora", "Alimentos", "Transportes", "Construcoes", "Ltda", "Eireli", "ME"};
+
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Realm.init(context);
+        RealmConfiguration config = new RealmConfiguration.Builder()
+                .name("search-benchmark.realm")
+                .inMemory()
+                .allowWritesOnUiThread(true)
+                .build();
+        realm = Realm.getInstance(config);
+    }
+
+    @After
+    public void tearDown() {
+        realm.close();
+    }
+
+    @Test
+    public void indexedSearchStaysFlatAsDatasetGrows() {
+        Random random = new Random(42);
+        int inserted = 0;
+
+        for (int size : DATASET_SIZES) {
+            final int from = inserted;
+            realm.executeTransaction(r -> {
+                for (int i = from; i < size; i++) {
+                    Person person = randomPerson(random, i);
+                    r.insertOrUpdate(person);
+                    PersonSearchIndex.index(r, person);
+                }
+            });
+            inserted = size;
+
+            long indexedNanos = 0;
+            long scanNanos = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                for (String query : QUERIES) {
+                    long start = System.nanoTime();
+                    Set<String> ids = PersonSearchIndex.findPersonIds(realm, query);
+                    realm.where(Person.class).in("id", ids.toArray(new String[0])).findAll().size();
+                    indexedNanos += System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    realm.where(Person.class)
+                            .beginGroup()
+                            .contains("name", query, Case.INSENSITIVE)
+                            .or()
+                            .contains("companyName", query, Case.INSENSITIVE)
+                            .endGroup()
+                            .findAll()
+                            .size();
+                    scanNanos += System.nanoTime() - start;
+                }
+            }
+
+            int runs = ITERATIONS * QUERIES.length;
+            Log.i(TAG, String.format("n=%d indexed=%.3fms contains=%.3fms",
+                    size, indexedNanos / 1e6 / runs, scanNanos / 1e6 / runs));
+        }
+
+        Set<String> ids = PersonSearchIndex.findPersonIds(realm, "mar sil");
+        assertTrue(ids != null && !ids.isEmpty());
+    }
+
+    private static Person randomPerson(Random random, int index) {
+        Person person = new Person();
+        person.setId("person-" + index);
+        if (random.nextInt(4) == 0) {
+            person.setPersonType("LEGAL");
+            person.setCompanyName(pick(random, COMPANY_WORDS) + " " + pick(random, COMPANY_WORDS)
+                    + " " + pick(random, COMPANY_WORDS));
+            person.setName("");
+        } else {
+            person.setPersonType("PHYSICAL");
+            person.setName(pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES)
+                    + " " + pick(random, LAST_NAMES));
+        }
+        person.updateNormalizedFields();
+        return person;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
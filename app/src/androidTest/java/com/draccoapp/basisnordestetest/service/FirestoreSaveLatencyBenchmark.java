@@ -0,0 +1,184 @@
+package com.draccoapp.basisnordestetest.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.draccoapp.basisnordestetest.model.AddressType;
+import com.draccoapp.basisnordestetest.model.PersonType;
+import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compara, no Firestore Emulator, o salvamento em um único WriteBatch com o caminho antigo
+ * (documento da pessoa e depois um set() por endereço).
+ *
+ * Requer o emulador rodando na máquina host: firebase emulators:start --only firestore
+ */
+@RunWith(AndroidJUnit4.class)
+public class FirestoreSaveLatencyBenchmark {
+    private static final String TAG = "SaveLatencyBenchmark";
+    // Endereço da máquina host visto pelo emulador do Android
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+    private static final int[] ADDRESS_COUNTS = {1, 5, 20};
+    private static final int ITERATIONS = 15;
+
+    private static FirebaseFirestore db;
+    private static FirestoreService firestoreService;
+
+    @BeforeClass
+    public static void setUpClass() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = FirebaseFirestore.getInstance();
+        db.useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        firestoreService = new FirestoreService(context);
+    }
+
+    @Test
+    public void batchedSaveIsFasterThanSequentialSets() throws Exception {
+        for (int addressCount : ADDRESS_COUNTS) {
+            long batchedNanos = 0;
+            long sequentialNanos = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                PersonDTO person = newPerson(addressCount);
+
+                long start = System.nanoTime();
+                Tasks.await(saveBatched(person), 30, TimeUnit.SECONDS);
+                batchedNanos += System.nanoTime() - start;
+
+                person = newPerson(addressCount);
+                start = System.nanoTime();
+                saveSequential(person);
+                sequentialNanos += System.nanoTime() - start;
+            }
+            Log.i(TAG, String.format("addresses=%d batch=%.1fms sequential=%.1fms", addressCount,
+                    batchedNanos / 1e6 / ITERATIONS, sequentialNanos / 1e6 / ITERATIONS));
+        }
+    }
+
+    @Test
+    public void batchedSaveRemovesStaleAddresses() throws Exception {
+        PersonDTO person = newPerson(3);
+        Tasks.await(saveBatched(person), 30, TimeUnit.SECONDS);
+
+        String removedId = person.getAddresses().remove(0).getId();
+        Tasks.await(saveBatched(person, Collections.singletonList(removedId)), 30, TimeUnit.SECONDS);
+
+        QuerySnapshot addresses = Tasks.await(db.collection("persons").document(person.getId())
+                .collection("addresses").get(), 30, TimeUnit.SECONDS);
+        assertEquals(2, addresses.size());
+    }
+
+    private static Task<Void> saveBatched(PersonDTO person) {
+        return saveBatched(person, Collections.emptyList());
+    }
+
+    private static Task<Void> saveBatched(PersonDTO person, List<String> removedAddressIds) {
+        TaskCompletionSource<Void> result = new TaskCompletionSource<>();
+        firestoreService.savePerson(person, removedAddressIds, new FirestoreService.FirestoreCallback() {
+            @Override
+            public void onSuccess(String documentId) {
+                result.trySetResult(null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                result.trySetException(e);
+            }
+        });
+        return result.getTask();
+    }
+
+    // Caminho anterior, com os mesmos documentos que savePerson/saveAddresses gravavam: a pessoa
+    // inteira primeiro e, depois da confirmação, um set() por endereço
+    private static void saveSequential(PersonDTO person) throws Exception {
+        Map<String, Object> personData = new HashMap<>();
+        personData.put("id", person.getId());
+        personData.put("personType", person.getPersonType().name());
+        personData.put("name", person.getName());
+        personData.put("cpf", person.getCpf());
+        personData.put("companyName", person.getCompanyName());
+        personData.put("cnpj", person.getCnpj());
+        personData.put("phoneNumber", person.getPhoneNumber());
+        personData.put("email", person.getEmail());
+        personData.put("createdAt", person.getCreatedAt());
+        personData.put("latitude", person.getLatitude());
+        personData.put("longitude", person.getLongitude());
+        personData.put("deviceName", person.getDeviceName());
+        // O token FCM é privado do FirestoreService; no emulador ele costuma ser null nos dois caminhos
+        personData.put("createdByToken", null);
+        personData.put("hasAddresses", !person.getAddresses().isEmpty());
+        personData.put("addressCount", person.getAddresses().size());
+        Tasks.await(db.collection("persons").document(person.getId()).set(personData), 30, TimeUnit.SECONDS);
+
+        List<Task<Void>> writes = new ArrayList<>();
+        for (AddressDTO address : person.getAddresses()) {
+            Map<String, Object> addressData = new HashMap<>();
+            addressData.put("id", address.getId());
+            addressData.put("addressType", address.getAddressType().name());
+            addressData.put("street", address.getStreet());
+            addressData.put("number", address.getNumber());
+            addressData.put("complement", address.getComplement());
+            addressData.put("neighborhood", address.getNeighborhood());
+            addressData.put("zipCode", address.getZipCode());
+            addressData.put("city", address.getCity());
+            addressData.put("state", address.getState());
+            writes.add(db.collection("persons").document(person.getId())
+                    .collection("addresses").document(address.getId()).set(addressData));
+        }
+        Tasks.await(Tasks.whenAll(writes), 30, TimeUnit.SECONDS);
+    }
+
+    // Todos os campos preenchidos, para que o caminho em lote também grave o documento inteiro
+    private static PersonDTO newPerson(int addressCount) {
+        PersonDTO person = new PersonDTO();
+        person.setId(UUID.randomUUID().toString());
+        person.setPersonType(PersonType.PHYSICAL);
+        person.setName("Benchmark da Silva");
+        person.setCpf("52998224725");
+        person.setPhoneNumber("83987654321");
+        person.setEmail("benchmark@example.com");
+        person.setCreatedAt(System.currentTimeMillis());
+        person.setLatitude(-7.2307);
+        person.setLongitude(-35.8817);
+        person.setDeviceName("Benchmark Device");
+        List<AddressDTO> addresses = new ArrayList<>();
+        for (int i = 0; i < addressCount; i++) {
+            AddressDTO address = new AddressDTO();
+            address.setId(UUID.randomUUID().toString());
+            address.setAddressType(AddressType.RESIDENTIAL);
+            address.setStreet("Rua " + i);
+            address.setNumber(String.valueOf(100 + i));
+            address.setComplement("Apto " + i);
+            address.setNeighborhood("Centro");
+            address.setZipCode("58400000");
+            address.setCity("Campina Grande");
+            address.setState("PB");
+            addresses.add(address);
+        }
+        person.setAddresses(addresses);
+        return person;
+    }
+}
@@ -0,0 +1,112 @@
+package com.draccoapp.basisnordestetest.sync;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.draccoapp.basisnordestetest.model.mapper.AddressMapper;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.repository.RealmWriteExecutor;
+import com.draccoapp.basisnordestetest.service.FirestoreService;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.realm.Realm;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Seletor do modo ao vivo: a escolha é persistida e o listener só fica aberto com o modo ligado
+ * e o app em primeiro plano.
+ *
+ * Requer o emulador rodando na máquina host: firebase emulators:start --only firestore
+ */
+@RunWith(AndroidJUnit4.class)
+public class LiveSyncToggleTest {
+    // Endereço da máquina host visto pelo emulador do Android
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+
+    private static Context context;
+    private static FirestoreService firestoreService;
+
+    private LiveSync liveSync;
+
+    @BeforeClass
+    public static void setUpClass() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Realm.init(context);
+        try {
+            FirebaseFirestore.getInstance().useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        } catch (IllegalStateException e) {
+            // Outra classe de teste já configurou o emulador nesta instância
+        }
+        firestoreService = new FirestoreService(context);
+    }
+
+    @Before
+    public void setUp() {
+        context.getSharedPreferences("sync", Context.MODE_PRIVATE).edit().clear().commit();
+        liveSync = newLiveSync();
+    }
+
+    @After
+    public void tearDown() {
+        liveSync.stop();
+    }
+
+    @Test
+    public void disabledByDefault_startDoesNotListen() throws Exception {
+        assertFalse(liveSync.isEnabled());
+
+        liveSync.start();
+
+        assertFalse(liveSync.isListening());
+    }
+
+    @Test
+    public void enablingInForeground_listensUntilDisabled() throws Exception {
+        liveSync.start();
+
+        liveSync.setEnabled(true);
+        assertTrue(liveSync.isListening());
+
+        liveSync.setEnabled(false);
+        assertFalse(liveSync.isListening());
+    }
+
+    @Test
+    public void enablingInBackground_waitsForStart() throws Exception {
+        liveSync.setEnabled(true);
+        assertFalse(liveSync.isListening());
+
+        liveSync.start();
+        assertTrue(liveSync.isListening());
+
+        liveSync.stop();
+        assertFalse(liveSync.isListening());
+    }
+
+    @Test
+    public void choiceIsPersisted() throws Exception {
+        liveSync.setEnabled(true);
+
+        LiveSync restarted = newLiveSync();
+        assertTrue(restarted.isEnabled());
+        restarted.start();
+        assertTrue(restarted.isListening());
+        restarted.stop();
+    }
+
+    private static LiveSync newLiveSync() {
+        return new LiveSync(context, firestoreService, new PersonMapper(new AddressMapper()),
+                new RealmWriteExecutor(), new SyncScheduler(context));
+    }
+}
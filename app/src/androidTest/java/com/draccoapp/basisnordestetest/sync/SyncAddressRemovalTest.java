@@ -0,0 +1,203 @@
+package com.draccoapp.basisnordestetest.sync;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.PendingSync;
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.mapper.AddressMapper;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.service.FirestoreService;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Remoção de um único endereço pelo outbox: o SyncWorker deve apagar só o documento do endereço,
+ * mantendo a pessoa no Firestore.
+ *
+ * Requer o emulador rodando na máquina host: firebase emulators:start --only firestore
+ */
+@RunWith(AndroidJUnit4.class)
+public class SyncAddressRemovalTest {
+    // Endereço da máquina host visto pelo emulador do Android
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+
+    private static FirebaseFirestore db;
+    private static FirestoreService firestoreService;
+
+    private final PersonMapper personMapper = new PersonMapper(new AddressMapper());
+    private Realm realm;
+    private String personId;
+    private String removedId;
+    private String keptId;
+
+    @BeforeClass
+    public static void setUpClass() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = FirebaseFirestore.getInstance();
+        try {
+            db.useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        } catch (IllegalStateException e) {
+            // Outra classe de teste já configurou o emulador nesta instância
+        }
+        firestoreService = new FirestoreService(context);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Realm.init(context);
+        RealmConfiguration config = new RealmConfiguration.Builder()
+                .name("sync-address-removal.realm")
+                .inMemory()
+                .allowWritesOnUiThread(true)
+                .build();
+        realm = Realm.getInstance(config);
+
+        personId = UUID.randomUUID().toString();
+        removedId = UUID.randomUUID().toString();
+        keptId = UUID.randomUUID().toString();
+        realm.executeTransaction(r -> {
+            Person person = r.createObject(Person.class, personId);
+            person.setPersonType("PHYSICAL");
+            person.setName("Pessoa");
+            for (String addressId : new String[]{removedId, keptId}) {
+                Address address = r.createObject(Address.class, addressId);
+                address.setAddressType("RESIDENTIAL");
+                address.setStreet("Rua " + addressId);
+                person.getAddresses().add(address);
+            }
+        });
+
+        PersonDTO person = personMapper.fromRealm(realm.copyFromRealm(
+                realm.where(Person.class).equalTo("id", personId).findFirst()));
+        person.markAllDirty();
+        for (AddressDTO address : person.getAddresses()) {
+            address.markAllDirty();
+        }
+        TaskCompletionSource<Void> saved = new TaskCompletionSource<>();
+        firestoreService.savePerson(person, new ArrayList<>(), new FirestoreService.FirestoreCallback() {
+            @Override
+            public void onSuccess(String documentId) {
+                saved.trySetResult(null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                saved.trySetException(e);
+            }
+        });
+        Tasks.await(saved.getTask(), 30, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown() {
+        realm.close();
+    }
+
+    @Test
+    public void removingOneAddress_keepsPersonDocument() throws Exception {
+        realm.executeTransaction(r -> {
+            r.where(Address.class).equalTo("id", removedId).findFirst().deleteFromRealm();
+            SyncOutbox.enqueueAddressRemoval(r, personId, removedId);
+        });
+        assertEquals(PendingSync.UPSERT, pendingEntry().getOperation());
+
+        pushPending();
+
+        assertRemoteState();
+    }
+
+    @Test
+    public void legacyEntryWithEmptyOperation_keepsPersonDocument() throws Exception {
+        // Pendências registradas antes da correção ficaram com a operação vazia
+        realm.executeTransaction(r -> {
+            r.where(Address.class).equalTo("id", removedId).findFirst().deleteFromRealm();
+            PendingSync pending = r.createObject(PendingSync.class, personId);
+            pending.getRemovedAddressIds().add(removedId);
+            pending.setEnqueuedAt(System.currentTimeMillis());
+            pending.setVersion(1);
+        });
+        assertEquals("", pendingEntry().getOperation());
+
+        pushPending();
+
+        assertRemoteState();
+    }
+
+    @Test
+    public void newChange_requeuesDeadLetter() {
+        realm.executeTransaction(r -> {
+            SyncOutbox.enqueueUpsert(r, personId);
+            PendingSync pending = r.where(PendingSync.class).equalTo("personId", personId).findFirst();
+            pending.setAttempts(SyncWorker.MAX_ATTEMPTS);
+            pending.setDeadLetter(true);
+        });
+        assertEquals(1, SyncOutbox.findDeadLetters(realm).size());
+
+        realm.executeTransaction(r -> SyncOutbox.enqueueAddressRemoval(r, personId, removedId));
+
+        PendingSync pending = pendingEntry();
+        assertFalse(pending.isDeadLetter());
+        assertEquals(0, pending.getAttempts());
+        assertTrue(SyncOutbox.findDeadLetters(realm).isEmpty());
+    }
+
+    @Test
+    public void backoff_doublesUpToCap() {
+        assertEquals(TimeUnit.SECONDS.toMillis(30), SyncWorker.backoffMillis(1));
+        assertEquals(TimeUnit.SECONDS.toMillis(60), SyncWorker.backoffMillis(2));
+        assertEquals(TimeUnit.SECONDS.toMillis(120), SyncWorker.backoffMillis(3));
+        assertEquals(TimeUnit.HOURS.toMillis(6), SyncWorker.backoffMillis(SyncWorker.MAX_ATTEMPTS * 10));
+    }
+
+    private PendingSync pendingEntry() {
+        return realm.where(PendingSync.class).equalTo("personId", personId).findFirst();
+    }
+
+    private void pushPending() throws InterruptedException {
+        List<SyncWorker.SyncChange> changes = SyncWorker.snapshot(realm,
+                realm.where(PendingSync.class).findAll(), personMapper);
+        Map<String, Exception> failures = SyncWorker.push(firestoreService, changes);
+        assertTrue(failures.toString(), failures.isEmpty());
+    }
+
+    private void assertRemoteState() throws Exception {
+        DocumentSnapshot person = Tasks.await(db.collection("persons").document(personId).get(),
+                30, TimeUnit.SECONDS);
+        assertTrue(person.exists());
+
+        QuerySnapshot addresses = Tasks.await(db.collection("persons").document(personId)
+                .collection("addresses").get(), 30, TimeUnit.SECONDS);
+        assertEquals(1, addresses.size());
+        assertEquals(keptId, addresses.getDocuments().get(0).getId());
+    }
+}
@@ -0,0 +1,277 @@
+package com.draccoapp.basisnordestetest.ui.adapters;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.draccoapp.basisnordestetest.databinding.ItemPersonBinding;
+import com.draccoapp.basisnordestetest.model.AddressType;
+import com.draccoapp.basisnordestetest.model.PersonType;
+import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.mapper.AddressMapper;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.ui.activities.MainActivity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rola a lista de pessoas com a formatação feita no bind (como o PersonAdapter fazia antes) e com
+ * os textos pré-formatados pelo PersonMapper, contando pelo FrameMetrics os frames que estouraram
+ * o orçamento do display. Os resultados saem no logcat com a tag ScrollBenchmark.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PersonListScrollBenchmark {
+    private static final String TAG = "ScrollBenchmark";
+    private static final int PERSONS = 2_000;
+    private static final int SCROLL_FRAMES = 600;
+    // Deslocamento por frame, em dp; rápido o bastante para fazer o bind de várias linhas por frame
+    private static final int SCROLL_STEP_DP = 60;
+
+    @Test
+    public void precomputedDisplayDropsFewerFrames() throws Exception {
+        List<PersonDTO> persons = randomPersons(new Random(42));
+
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            // Aquecimento, para o JIT e o pool de views não pesarem na primeira medição
+            scroll(scenario, new LegacyAdapter(persons), SCROLL_FRAMES / 4);
+
+            Jank legacy = scroll(scenario, new LegacyAdapter(persons), SCROLL_FRAMES);
+
+            PersonAdapter adapter = new PersonAdapter(new PersonMapper(new AddressMapper()));
+            Jank precomputed = scroll(scenario, adapter, persons, SCROLL_FRAMES);
+
+            Log.i(TAG, "bind formatting: " + legacy);
+            Log.i(TAG, "precomputed display: " + precomputed);
+            assertTrue(legacy.frames > 0 && precomputed.frames > 0);
+        }
+    }
+
+    private static final class Jank {
+        final int frames;
+        final int janky;
+        final long worstNanos;
+
+        Jank(int frames, int janky, long worstNanos) {
+            this.frames = frames;
+            this.janky = janky;
+            this.worstNanos = worstNanos;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format("frames=%d janky=%d (%.1f%%) worst=%.1fms",
+                    frames, janky, frames == 0 ? 0 : 100.0 * janky / frames, worstNanos / 1e6);
+        }
+    }
+
+    private Jank scroll(ActivityScenario<MainActivity> scenario, PersonAdapter adapter, List<PersonDTO> persons,
+                        int frames) throws InterruptedException {
+        // A formatação roda em background; espera as linhas chegarem ao adapter antes de rolar
+        CountDownLatch loaded = new CountDownLatch(1);
+        scenario.onActivity(activity -> {
+            adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+                @Override
+                public void onChanged() {
+                    loaded.countDown();
+                }
+            });
+            adapter.updateList(persons);
+        });
+        assertTrue(loaded.await(30, TimeUnit.SECONDS));
+        return scroll(scenario, adapter, frames);
+    }
+
+    private Jank scroll(ActivityScenario<MainActivity> scenario, RecyclerView.Adapter<?> adapter, int frames)
+            throws InterruptedException {
+        HandlerThread metricsThread = new HandlerThread("frame-metrics");
+        metricsThread.start();
+        AtomicInteger counted = new AtomicInteger();
+        AtomicInteger janky = new AtomicInteger();
+        long[] worst = new long[1];
+        CountDownLatch done = new CountDownLatch(1);
+        Window[] window = new Window[1];
+        Window.OnFrameMetricsAvailableListener[] listener = new Window.OnFrameMetricsAvailableListener[1];
+
+        scenario.onActivity(activity -> {
+            RecyclerView recyclerView = new RecyclerView(activity);
+            recyclerView.setLayoutManager(new LinearLayoutManager(activity));
+            recyclerView.setAdapter(adapter);
+            activity.setContentView(recyclerView);
+
+            long budgetNanos = (long) (1e9 / activity.getWindowManager().getDefaultDisplay().getRefreshRate());
+            window[0] = activity.getWindow();
+            listener[0] = (w, metrics, dropCount) -> {
+                long total = metrics.getMetric(FrameMetrics.TOTAL_DURATION);
+                synchronized (worst) {
+                    worst[0] = Math.max(worst[0], total);
+                }
+                counted.incrementAndGet();
+                if (total > budgetNanos) {
+                    janky.incrementAndGet();
+                }
+            };
+            window[0].addOnFrameMetricsAvailableListener(listener[0], new Handler(metricsThread.getLooper()));
+
+            int step = (int) (SCROLL_STEP_DP * activity.getResources().getDisplayMetrics().density);
+            Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+                private int remaining = frames;
+
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    if (remaining-- == 0 || !recyclerView.canScrollVertically(1)) {
+                        done.countDown();
+                        return;
+                    }
+                    recyclerView.scrollBy(0, step);
+                    Choreographer.getInstance().postFrameCallback(this);
+                }
+            });
+        });
+
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        scenario.onActivity(activity -> window[0].removeOnFrameMetricsAvailableListener(listener[0]));
+        metricsThread.quitSafely();
+
+        synchronized (worst) {
+            return new Jank(counted.get(), janky.get(), worst[0]);
+        }
+    }
+
+    // Adapter com a formatação no bind, como o PersonAdapter antes da etapa de exibição
+    private static final class LegacyAdapter extends RecyclerView.Adapter<LegacyAdapter.Holder> {
+        private final List<PersonDTO> persons;
+
+        LegacyAdapter(List<PersonDTO> persons) {
+            this.persons = persons;
+        }
+
+        static final class Holder extends RecyclerView.ViewHolder {
+            final ItemPersonBinding binding;
+
+            Holder(ItemPersonBinding binding) {
+                super(binding.getRoot());
+                this.binding = binding;
+            }
+        }
+
+        @NonNull
+        @Override
+        public Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new Holder(ItemPersonBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false));
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull Holder holder, int position) {
+            PersonDTO person = persons.get(position);
+            ItemPersonBinding binding = holder.binding;
+            binding.textViewPersonType.setText(person.getPersonType().getDisplayName());
+            if (person.getPersonType() == PersonType.PHYSICAL) {
+                binding.textViewName.setText(person.getName());
+                binding.textViewDocument.setText("CPF: " + formatCpf(person.getCpf()));
+            } else {
+                binding.textViewName.setText(person.getCompanyName());
+                binding.textViewDocument.setText("CNPJ: " + formatCnpj(person.getCnpj()));
+            }
+            binding.textViewPhone.setText("Tel: " + formatPhone(person.getPhoneNumber()));
+            binding.textViewEmail.setText("Email: " + person.getEmail());
+
+            StringBuilder addressesText = new StringBuilder();
+            for (int i = 0; i < person.getAddresses().size(); i++) {
+                AddressDTO address = person.getAddresses().get(i);
+                if (i > 0) {
+                    addressesText.append("\n\n");
+                }
+                addressesText.append(address.getAddressType().getDisplayName()).append(": ")
+                        .append(address.getStreet()).append(", ").append(address.getNumber())
+                        .append(" - ").append(address.getNeighborhood())
+                        .append(", ").append(address.getCity()).append("/").append(address.getState());
+            }
+            binding.textViewAddresses.setText(addressesText.toString());
+
+            holder.itemView.setOnClickListener(v -> { });
+            binding.buttonEdit.setOnClickListener(v -> { });
+            binding.buttonDelete.setOnClickListener(v -> { });
+        }
+
+        @Override
+        public int getItemCount() {
+            return persons.size();
+        }
+
+        private static String formatCpf(String cpf) {
+            return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." +
+                    cpf.substring(6, 9) + "-" + cpf.substring(9);
+        }
+
+        private static String formatCnpj(String cnpj) {
+            return cnpj.substring(0, 2) + "." + cnpj.substring(2, 5) + "." +
+                    cnpj.substring(5, 8) + "/" + cnpj.substring(8, 12) + "-" + cnpj.substring(12);
+        }
+
+        private static String formatPhone(String phone) {
+            String numbers = phone.replaceAll("[^0-9]", "");
+            return "(" + numbers.substring(0, 2) + ") " + numbers.substring(2, 7) + "-" + numbers.substring(7);
+        }
+    }
+
+    private static List<PersonDTO> randomPersons(Random random) {
+        List<PersonDTO> persons = new ArrayList<>(PERSONS);
+        for (int i = 0; i < PERSONS; i++) {
+            PersonDTO person = new PersonDTO();
+            person.setId("person-" + i);
+            person.setPersonType(random.nextInt(4) == 0 ? PersonType.LEGAL : PersonType.PHYSICAL);
+            person.setName("Pessoa " + i);
+            person.setCompanyName("Empresa " + i + " Ltda");
+            person.setCpf(digits(random, 11));
+            person.setCnpj(digits(random, 14));
+            person.setPhoneNumber(digits(random, 11));
+            person.setEmail("pessoa" + i + "@exemplo.com.br");
+            int addresses = 1 + random.nextInt(3);
+            for (int j = 0; j < addresses; j++) {
+                AddressDTO address = new AddressDTO();
+                address.setAddressType(j == 0 ? AddressType.RESIDENTIAL : AddressType.COMMERCIAL);
+                address.setStreet("Rua " + random.nextInt(500));
+                address.setNumber(String.valueOf(random.nextInt(2000)));
+                address.setNeighborhood("Boa Viagem");
+                address.setCity("Recife");
+                address.setState("PE");
+                person.addAddress(address);
+            }
+            persons.add(person);
+        }
+        return persons;
+    }
+
+    private static String digits(Random random, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.draccoapp.basisnordestetest.util;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Mede no aparelho o custo do {@link TextFolder} contra a normalização com Normalizer e regex
+ * usada antes dele, em nomes acentuados e em nomes só com ASCII. Os resultados saem no logcat com
+ * a tag TextFolderBenchmark.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TextFolderBenchmark {
+    private static final String TAG = "TextFolderBenchmark";
+    private static final int ITERATIONS = 200_000;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final String[] ACCENTED = {
+            "João da Silva", "Maria Conceição", "ÁGUA LTDA", "José Antônio Araújo",
+            "Ânderson Gonçalves", "IRMÃOS PEÇANHA", "Cícero Romão Batista", "Açaí do Sertão ME"
+    };
+    private static final String[] ASCII = {
+            "maria silva", "comercio de alimentos", "Distribuidora Nordeste ME", "pedro henrique",
+            "JOAO PAULO", "transportes campina grande", "Ana Lima", "padaria bom pao"
+    };
+
+    @Test
+    public void foldVersusNormalizer() {
+        measure("accented", ACCENTED);
+        measure("ascii", ASCII);
+    }
+
+    private static void measure(String label, String[] names) {
+        long sink = 0;
+
+        // Aquecimento, para o JIT não pesar na primeira medição
+        for (int i = 0; i < ITERATIONS; i++) {
+            String name = names[i % names.length];
+            sink += TextFolder.fold(name).length();
+            sink += normalizerFold(name).length();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += TextFolder.fold(names[i % names.length]).length();
+        }
+        long folderNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += normalizerFold(names[i % names.length]).length();
+        }
+        long normalizerNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format(Locale.ROOT, "%s names: TextFolder %.1f ns/op, Normalizer+regex %.1f ns/op",
+                label, (double) folderNanos / ITERATIONS, (double) normalizerNanos / ITERATIONS));
+        // O total impede que os laços sejam descartados
+        assertTrue(sink > 0);
+        for (String name : names) {
+            assertEquals(name, normalizerFold(name), TextFolder.fold(name));
+        }
+    }
+
+    // Como antes do TextFolder: decomposição canônica, remoção das marcas com regex e minúsculas
+    private static String normalizerFold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,258 @@
+package com.draccoapp.basisnordestetest.util;
+
+import android.util.Log;
+import android.util.Patterns;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Mede no aparelho o custo das validações de documentos e contato, comparando com as versões
+ * anteriores. Os resultados saem no logcat com a tag ValidationBenchmark.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ValidationBenchmark {
+    private static final String TAG = "ValidationBenchmark";
+    private static final int ITERATIONS = 200_000;
+
+    private static final String[] FORMATTED = {
+            "529.982.247-25", "111.444.777-35", "123.456.789-09", "11.222.333/0001-81",
+            "(83) 99876-5432", "(83) 3221-4455"
+    };
+    private static final String[] RAW = {
+            "52998224725", "11144477735", "12345678909", "11222333000181", "83998765432", "8332214455"
+    };
+
+    @Test
+    public void singlePassVersusLegacy() {
+        measureDocuments("formatted", FORMATTED);
+        measureDocuments("raw", RAW);
+    }
+
+    private static void measureDocuments(String label, String[] inputs) {
+        long sink = 0;
+
+        // Aquecimento, para o JIT não pesar na primeira medição
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += validateAll(inputs[i % inputs.length]);
+            sink += legacyValidateAll(inputs[i % inputs.length]);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += validateAll(inputs[i % inputs.length]);
+        }
+        long singlePassNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += legacyValidateAll(inputs[i % inputs.length]);
+        }
+        long legacyNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format(Locale.ROOT, "%s documents: single pass %.1f ns/op, legacy %.1f ns/op",
+                label, (double) singlePassNanos / ITERATIONS, (double) legacyNanos / ITERATIONS));
+        // O total impede que os laços sejam descartados
+        assertTrue(sink > 0);
+        for (String input : inputs) {
+            assertEquals(input, legacyValidateAll(input), validateAll(input));
+        }
+    }
+
+    @Test
+    public void emailFastPathVersusPatterns() {
+        String[] samples = {"joao@exemplo.com", "maria.silva@empresa.com.br", "invalido@", "nome+tag@dominio.org"};
+        long sink = 0;
+
+        // Aquecimento
+        for (int i = 0; i < ITERATIONS; i++) {
+            String email = samples[i % samples.length];
+            sink += ValidationUtil.checkEmail(email, 0, email.length());
+            sink += Patterns.EMAIL_ADDRESS.matcher(email).matches() ? 1 : 0;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            String email = samples[i % samples.length];
+            sink += ValidationUtil.checkEmail(email, 0, email.length());
+        }
+        long fastNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += Patterns.EMAIL_ADDRESS.matcher(samples[i % samples.length]).matches() ? 1 : 0;
+        }
+        long regexNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format(Locale.ROOT, "email: fast path %.1f ns/op, Patterns %.1f ns/op",
+                (double) fastNanos / ITERATIONS, (double) regexNanos / ITERATIONS));
+        assertTrue(sink > 0);
+        for (String email : samples) {
+            assertEquals(email, Patterns.EMAIL_ADDRESS.matcher(email).matches(),
+                    ValidationUtil.checkEmail(email, 0, email.length()) == ValidationReason.VALID);
+        }
+    }
+
+    @Test
+    public void batchVersusOneByOne() {
+        int size = 1_000_000;
+        Random random = new Random(11);
+        StringBuilder column = new StringBuilder(size * 14);
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            column.append(formattedCpf(random));
+            offsets[i + 1] = column.length();
+        }
+        String text = column.toString();
+
+        // Aquecimento
+        for (int i = 0; i < 3; i++) {
+            BatchValidator.validate(BatchValidator.Kind.CPF, text, offsets);
+        }
+
+        long start = System.nanoTime();
+        BatchValidator.Result result = BatchValidator.validate(BatchValidator.Kind.CPF, text, offsets);
+        long batchNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int oneByOneValid = 0;
+        for (int i = 0; i < size; i++) {
+            if (ValidationUtil.isValidCpf(text.subSequence(offsets[i], offsets[i + 1]))) {
+                oneByOneValid++;
+            }
+        }
+        long oneByOneNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format(Locale.ROOT, "%d CPFs: batch %.1f ms, one by one %.1f ms",
+                size, batchNanos / 1e6, oneByOneNanos / 1e6));
+        assertEquals(oneByOneValid, result.validCount());
+    }
+
+    private static int validateAll(String input) {
+        return (ValidationUtil.isValidCpf(input) ? 1 : 0)
+                + (ValidationUtil.isValidCnpj(input) ? 2 : 0)
+                + (ValidationUtil.isValidPhone(input) ? 4 : 0);
+    }
+
+    // CPF formatado com dígitos verificadores corretos em nove de cada dez
+    private static String formattedCpf(Random random) {
+        int[] digits = new int[11];
+        for (int i = 0; i < 9; i++) {
+            digits[i] = random.nextInt(10);
+        }
+        digits[9] = checkDigit(digits, 9);
+        digits[10] = checkDigit(digits, 10);
+        if (random.nextInt(10) == 0) {
+            digits[10] = (digits[10] + 1) % 10;
+        }
+        return String.format(Locale.ROOT, "%d%d%d.%d%d%d.%d%d%d-%d%d", digits[0], digits[1], digits[2],
+                digits[3], digits[4], digits[5], digits[6], digits[7], digits[8], digits[9], digits[10]);
+    }
+
+    private static int checkDigit(int[] digits, int count) {
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += digits[i] * (count + 1 - i);
+        }
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    private static int legacyValidateAll(String input) {
+        return (legacyIsValidCpf(input) ? 1 : 0)
+                + (legacyIsValidCnpj(input) ? 2 : 0)
+                + (legacyIsValidPhone(input) ? 4 : 0);
+    }
+
+    // Implementações anteriores, com replaceAll e String, copiadas como referência
+
+    private static boolean legacyIsValidCpf(String cpf) {
+        if (cpf == null || cpf.isEmpty()) {
+            return false;
+        }
+        cpf = cpf.replaceAll("[^0-9]", "");
+        if (cpf.length() != 11) {
+            return false;
+        }
+        boolean allDigitsEqual = true;
+        for (int i = 1; i < cpf.length(); i++) {
+            if (cpf.charAt(i) != cpf.charAt(0)) {
+                allDigitsEqual = false;
+                break;
+            }
+        }
+        if (allDigitsEqual) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += (cpf.charAt(i) - '0') * (10 - i);
+        }
+        int remainder = sum % 11;
+        int digit1 = remainder < 2 ? 0 : 11 - remainder;
+        if (digit1 != (cpf.charAt(9) - '0')) {
+            return false;
+        }
+        sum = 0;
+        for (int i = 0; i < 10; i++) {
+            sum += (cpf.charAt(i) - '0') * (11 - i);
+        }
+        remainder = sum % 11;
+        int digit2 = remainder < 2 ? 0 : 11 - remainder;
+        return digit2 == (cpf.charAt(10) - '0');
+    }
+
+    private static boolean legacyIsValidCnpj(String cnpj) {
+        if (cnpj == null || cnpj.isEmpty()) {
+            return false;
+        }
+        cnpj = cnpj.replaceAll("[^0-9]", "");
+        if (cnpj.length() != 14) {
+            return false;
+        }
+        boolean allDigitsEqual = true;
+        for (int i = 1; i < cnpj.length(); i++) {
+            if (cnpj.charAt(i) != cnpj.charAt(0)) {
+                allDigitsEqual = false;
+                break;
+            }
+        }
+        if (allDigitsEqual) {
+            return false;
+        }
+        int[] multipliers1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (cnpj.charAt(i) - '0') * multipliers1[i];
+        }
+        int remainder = sum % 11;
+        int digit1 = remainder < 2 ? 0 : 11 - remainder;
+        if (digit1 != (cnpj.charAt(12) - '0')) {
+            return false;
+        }
+        int[] multipliers2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+        sum = 0;
+        for (int i = 0; i < 13; i++) {
+            sum += (cnpj.charAt(i) - '0') * multipliers2[i];
+        }
+        remainder = sum % 11;
+        int digit2 = remainder < 2 ? 0 : 11 - remainder;
+        return digit2 == (cnpj.charAt(13) - '0');
+    }
+
+    private static boolean legacyIsValidPhone(String phone) {
+        if (phone == null || phone.isEmpty()) {
+            return false;
+        }
+        phone = phone.replaceAll("[^0-9]", "");
+        return phone.length() == 10 || phone.length() == 11;
+    }
+}
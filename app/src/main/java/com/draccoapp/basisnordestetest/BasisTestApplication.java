@@ -6,6 +6,9 @@ import android.os.Looper;
 import android.util.Log;
 
 import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.repository.CepTableUpdateWorker;
+import com.draccoapp.basisnordestetest.sync.SyncWorker;
+import com.draccoapp.basisnordestetest.transfer.PersonExportWorker;
 
 import java.util.UUID;
 
@@ -24,12 +27,20 @@ public class BasisTestApplication extends Application {
         Realm.init(this);
         RealmConfiguration config = new RealmConfiguration.Builder()
                 .name("basistest.realm")
-                .schemaVersion(1)
-                .allowWritesOnUiThread(true)  // Permite escritas na UI thread
+                .schemaVersion(10)
+                .allowWritesOnUiThread(false)  // Escritas acontecem apenas no RealmWriteExecutor
                 .deleteRealmIfMigrationNeeded() // Apenas para desenvolvimento
                 .build();
         Realm.setDefaultConfiguration(config);
 
+        // Envia alterações que ficaram no outbox de execuções anteriores
+        SyncWorker.enqueue(this);
+
+        // Backup diário da base de pessoas
+        PersonExportWorker.scheduleNightlyBackup(this);
+
+        // Tabela de CEPs para consultas sem rede; desligado se o build não definir a URL
+        CepTableUpdateWorker.schedule(this);
     }
 
 }
\ No newline at end of file
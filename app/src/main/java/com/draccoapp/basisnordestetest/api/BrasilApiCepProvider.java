@@ -0,0 +1,35 @@
+package com.draccoapp.basisnordestetest.api;
+
+import com.draccoapp.basisnordestetest.model.response.BrasilApiCepResponse;
+import com.draccoapp.basisnordestetest.model.response.CepResponse;
+
+import java.net.HttpURLConnection;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+public class BrasilApiCepProvider extends RetrofitCepProvider<BrasilApiCepResponse> {
+    private final BrasilApiService service;
+
+    public BrasilApiCepProvider(BrasilApiService service) {
+        super("BrasilAPI");
+        this.service = service;
+    }
+
+    @Override
+    protected Call<BrasilApiCepResponse> newCall(String cep) {
+        return service.getCep(cep);
+    }
+
+    @Override
+    protected CepResponse convert(String cep, Response<BrasilApiCepResponse> response) {
+        // A BrasilAPI responde 404 para CEP inexistente
+        if (response.code() == HttpURLConnection.HTTP_NOT_FOUND) {
+            return CepResponse.notFound(cep);
+        }
+        if (!response.isSuccessful() || response.body() == null) {
+            return null;
+        }
+        return response.body().toCepResponse();
+    }
+}
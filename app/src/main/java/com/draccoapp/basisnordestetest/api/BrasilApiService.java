@@ -0,0 +1,12 @@
+package com.draccoapp.basisnordestetest.api;
+
+import com.draccoapp.basisnordestetest.model.response.BrasilApiCepResponse;
+
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+
+public interface BrasilApiService {
+    @GET("api/cep/v1/{cep}")
+    Call<BrasilApiCepResponse> getCep(@Path("cep") String cep);
+}
@@ -0,0 +1,32 @@
+package com.draccoapp.basisnordestetest.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Interceptor de rede que torna cacheáveis as respostas sem nenhuma instrução de cache. Respostas
+ * com Cache-Control, Expires ou Pragma são mantidas como o servidor mandou, inclusive no-store.
+ */
+public class CacheHeadersInterceptor implements Interceptor {
+    private final int maxAgeSeconds;
+
+    public CacheHeadersInterceptor(int maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        if (!"GET".equals(chain.request().method()) || !response.isSuccessful()
+                || response.header("Cache-Control") != null
+                || response.header("Expires") != null
+                || response.header("Pragma") != null) {
+            return response;
+        }
+        return response.newBuilder()
+                .header("Cache-Control", "public, max-age=" + maxAgeSeconds)
+                .build();
+    }
+}
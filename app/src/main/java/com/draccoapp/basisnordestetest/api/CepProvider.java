@@ -0,0 +1,35 @@
+package com.draccoapp.basisnordestetest.api;
+
+import com.draccoapp.basisnordestetest.model.response.CepResponse;
+
+import okhttp3.Request;
+
+/**
+ * Uma fonte de consulta de CEP usada pelo {@link HedgedCepService}.
+ */
+public interface CepProvider {
+
+    interface Callback {
+        // Resposta definitiva, inclusive CEP inexistente (CepResponse.isError())
+        void onResult(CepResponse response);
+        // Falha de rede ou do provedor; outro provedor pode responder
+        void onFailure(Throwable error);
+    }
+
+    interface Lookup {
+        void cancel();
+    }
+
+    String getName();
+
+    /**
+     * Inicia a consulta. O callback não é chamado depois de {@link Lookup#cancel()}.
+     * @param cep Apenas os 8 dígitos
+     */
+    Lookup lookup(String cep, Callback callback);
+
+    /**
+     * Requisição HTTP que {@link #lookup(String, Callback)} faria para o CEP, sem executá-la.
+     */
+    Request request(String cep);
+}
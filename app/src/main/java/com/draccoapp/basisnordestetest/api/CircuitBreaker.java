@@ -0,0 +1,79 @@
+package com.draccoapp.basisnordestetest.api;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Disjuntor de um provedor: depois de {@code failureThreshold} falhas seguidas, o provedor deixa
+ * de ser chamado por {@code openMillis}. Passado esse tempo, uma única chamada de teste é
+ * liberada; se der certo o disjuntor fecha, se falhar abre de novo.
+ */
+public class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return true se o provedor pode ser chamado agora. No estado aberto, libera a chamada de
+     * teste quando o tempo de espera acaba.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt >= openMillis) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // Chamada de teste já em andamento
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /**
+     * A chamada liberada foi cancelada antes de responder; não conta como sucesso nem falha.
+     */
+    public synchronized void onCancelled() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+            // Libera outra chamada de teste na próxima consulta
+            openedAt = clock.getAsLong() - openMillis;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,290 @@
+package com.draccoapp.basisnordestetest.api;
+
+import com.draccoapp.basisnordestetest.model.response.CepResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * {@link CepService} que consulta uma lista de provedores em ordem de preferência.
+ *
+ * A consulta começa no primeiro provedor disponível. Se ele não responder em
+ * {@code hedgeDelayMillis}, o próximo é consultado em paralelo; se falhar antes disso, o próximo é
+ * consultado na hora. A primeira resposta definitiva vence e as demais consultas são canceladas.
+ * Cada provedor tem um {@link CircuitBreaker}, e provedores com o disjuntor aberto são pulados; se
+ * todos estiverem abertos, o primeiro ainda é tentado.
+ *
+ * Os callbacks chegam na thread do provedor que respondeu (a main thread, com Retrofit no Android).
+ */
+public class HedgedCepService implements CepService {
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final long OPEN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final List<CepProvider> providers;
+    private final List<CircuitBreaker> breakers = new ArrayList<>();
+    private final long hedgeDelayMillis;
+    private final ScheduledExecutorService scheduler;
+
+    public HedgedCepService(List<CepProvider> providers, long hedgeDelayMillis, ScheduledExecutorService scheduler) {
+        this(providers, hedgeDelayMillis, scheduler, FAILURE_THRESHOLD, OPEN_MILLIS);
+    }
+
+    HedgedCepService(List<CepProvider> providers, long hedgeDelayMillis, ScheduledExecutorService scheduler,
+                     int failureThreshold, long openMillis) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one CEP provider is required");
+        }
+        this.providers = new ArrayList<>(providers);
+        for (int i = 0; i < providers.size(); i++) {
+            breakers.add(new CircuitBreaker(failureThreshold, openMillis));
+        }
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Call<CepResponse> getCepInfo(String cep) {
+        return new HedgedCall(cep);
+    }
+
+    CircuitBreaker getBreaker(int providerIndex) {
+        return breakers.get(providerIndex);
+    }
+
+    private static class Attempt {
+        final int providerIndex;
+        CepProvider.Lookup lookup;
+
+        Attempt(int providerIndex) {
+            this.providerIndex = providerIndex;
+        }
+    }
+
+    private final class HedgedCall implements Call<CepResponse> {
+        private final String cep;
+
+        // Protegidos por this
+        private Callback<CepResponse> callback;
+        private boolean executed;
+        private boolean canceled;
+        private boolean done;
+        private int nextProvider;
+        private int started;
+        // Provedor da primeira tentativa, ou -1 antes de enqueue()
+        private int firstProvider = -1;
+        private final List<Attempt> running = new ArrayList<>();
+        private ScheduledFuture<?> hedge;
+
+        HedgedCall(String cep) {
+            this.cep = cep;
+        }
+
+        @Override
+        public void enqueue(Callback<CepResponse> callback) {
+            Throwable failure = null;
+            synchronized (this) {
+                if (executed) {
+                    throw new IllegalStateException("Already executed");
+                }
+                executed = true;
+                this.callback = callback;
+                if (canceled) {
+                    failure = new IOException("Canceled");
+                } else if (!startNext() && running.isEmpty()) {
+                    done = true;
+                    failure = new IOException("No CEP provider available");
+                }
+            }
+            if (failure != null) {
+                callback.onFailure(this, failure);
+            }
+        }
+
+        @Override
+        public Response<CepResponse> execute() throws IOException {
+            CompletableFuture<Response<CepResponse>> result = new CompletableFuture<>();
+            enqueue(new Callback<CepResponse>() {
+                @Override
+                public void onResponse(Call<CepResponse> call, Response<CepResponse> response) {
+                    result.complete(response);
+                }
+
+                @Override
+                public void onFailure(Call<CepResponse> call, Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+        }
+
+        // Inicia o próximo provedor disponível e agenda o seguinte como hedge
+        private boolean startNext() {
+            if (hedge != null) {
+                hedge.cancel(false);
+                hedge = null;
+            }
+            int index = -1;
+            while (nextProvider < providers.size()) {
+                int candidate = nextProvider++;
+                if (breakers.get(candidate).allowRequest()) {
+                    index = candidate;
+                    break;
+                }
+            }
+            if (index < 0 && started == 0) {
+                // Todos os disjuntores abertos; ainda tenta o provedor preferido
+                index = 0;
+            }
+            if (index < 0) {
+                return false;
+            }
+
+            if (started++ == 0) {
+                firstProvider = index;
+            }
+            Attempt attempt = new Attempt(index);
+            running.add(attempt);
+            attempt.lookup = providers.get(index).lookup(cep, new CepProvider.Callback() {
+                @Override
+                public void onResult(CepResponse response) {
+                    HedgedCall.this.onResult(attempt, response);
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    HedgedCall.this.onFailure(attempt, error);
+                }
+            });
+            if (!done && nextProvider < providers.size()) {
+                hedge = scheduler.schedule(this::onHedgeDelay, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+            }
+            return true;
+        }
+
+        private synchronized void onHedgeDelay() {
+            if (!done && !canceled) {
+                startNext();
+            }
+        }
+
+        private void onResult(Attempt winner, CepResponse response) {
+            breakers.get(winner.providerIndex).onSuccess();
+            List<Attempt> losers;
+            synchronized (this) {
+                if (done || canceled) {
+                    return;
+                }
+                done = true;
+                losers = stopRunning(winner);
+            }
+            cancelAll(losers);
+            callback.onResponse(this, Response.success(response));
+        }
+
+        private void onFailure(Attempt attempt, Throwable error) {
+            breakers.get(attempt.providerIndex).onFailure();
+            synchronized (this) {
+                if (done || canceled) {
+                    return;
+                }
+                running.remove(attempt);
+                // Sem esperar o hedge: o próximo provedor é consultado na hora
+                if (startNext() || !running.isEmpty()) {
+                    return;
+                }
+                done = true;
+            }
+            callback.onFailure(this, error);
+        }
+
+        private List<Attempt> stopRunning(Attempt except) {
+            if (hedge != null) {
+                hedge.cancel(false);
+                hedge = null;
+            }
+            List<Attempt> stopped = new ArrayList<>(running);
+            stopped.remove(except);
+            running.clear();
+            return stopped;
+        }
+
+        private void cancelAll(List<Attempt> attempts) {
+            for (Attempt attempt : attempts) {
+                if (attempt.lookup != null) {
+                    attempt.lookup.cancel();
+                }
+                breakers.get(attempt.providerIndex).onCancelled();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            List<Attempt> stopped;
+            Callback<CepResponse> pending;
+            synchronized (this) {
+                if (canceled || done) {
+                    canceled = true;
+                    return;
+                }
+                canceled = true;
+                stopped = stopRunning(null);
+                pending = callback;
+            }
+            cancelAll(stopped);
+            // Como no Retrofit, uma chamada enfileirada e cancelada termina em onFailure
+            if (pending != null) {
+                pending.onFailure(this, new IOException("Canceled"));
+            }
+        }
+
+        @Override
+        public synchronized boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public synchronized boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<CepResponse> clone() {
+            return new HedgedCall(cep);
+        }
+
+        /**
+         * Uma consulta pode virar várias requisições, uma por provedor; devolve a da primeira
+         * tentativa, ou a do provedor preferido se a chamada ainda não começou.
+         */
+        @Override
+        public synchronized Request request() {
+            return providers.get(firstProvider >= 0 ? firstProvider : 0).request(cep);
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.draccoapp.basisnordestetest.api;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Monta o OkHttpClient compartilhado pelas APIs REST do app.
+ *
+ * O cache em disco segue os cabeçalhos do servidor; respostas sem instrução de cache ficam
+ * guardadas por {@link #DEFAULT_MAX_AGE_SECONDS} e, sem rede, uma resposta vencida ainda serve por
+ * até {@link #MAX_STALE_SECONDS}. O pool mantém conexões abertas entre consultas seguidas, e o
+ * HTTP/2 é negociado quando o servidor aceita.
+ */
+public class HttpClientFactory {
+    static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+    static final int DEFAULT_MAX_AGE_SECONDS = (int) TimeUnit.DAYS.toSeconds(7);
+    static final int MAX_STALE_SECONDS = (int) TimeUnit.DAYS.toSeconds(30);
+
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+    private static final long READ_TIMEOUT_SECONDS = 15;
+    private static final long CALL_TIMEOUT_SECONDS = 30;
+
+    private HttpClientFactory() {
+    }
+
+    /**
+     * @param cacheDir Diretório exclusivo do cache HTTP
+     */
+    public static OkHttpClient create(File cacheDir, HttpMetricsInterceptor metrics) {
+        return new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir, CACHE_SIZE_BYTES))
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .writeTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .callTimeout(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                // As métricas vêm primeiro para ver também as respostas servidas pelo fallback offline
+                .addInterceptor(metrics)
+                .addInterceptor(new OfflineCacheInterceptor(MAX_STALE_SECONDS))
+                .addNetworkInterceptor(new CacheHeadersInterceptor(DEFAULT_MAX_AGE_SECONDS))
+                .build();
+    }
+}
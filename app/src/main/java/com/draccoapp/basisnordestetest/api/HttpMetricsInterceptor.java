@@ -0,0 +1,208 @@
+package com.draccoapp.basisnordestetest.api;
+
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Mede cada requisição: latência até os cabeçalhos da resposta, bytes do corpo lidos e se a
+ * resposta veio do cache HTTP. Registrado como primeiro interceptor de aplicação, vê o resultado
+ * final, inclusive respostas do cache.
+ *
+ * Uma requisição é registrada quando o corpo é lido até o fim ou fechado.
+ */
+@Singleton
+public class HttpMetricsInterceptor implements Interceptor {
+
+    public interface Listener {
+        void onRequestFinished(Record record);
+    }
+
+    public static class Record {
+        public final String url;
+        public final int code;
+        public final long latencyMillis;
+        public final long bytes;
+        public final boolean fromCache; // Sem nenhuma ida à rede
+
+        Record(String url, int code, long latencyMillis, long bytes, boolean fromCache) {
+            this.url = url;
+            this.code = code;
+            this.latencyMillis = latencyMillis;
+            this.bytes = bytes;
+            this.fromCache = fromCache;
+        }
+
+        @Override
+        public String toString() {
+            return code + " " + url + " " + latencyMillis + "ms " + bytes + "B" + (fromCache ? " (cache)" : "");
+        }
+    }
+
+    /**
+     * Contadores acumulados desde a abertura do app.
+     */
+    public static class Stats {
+        public final long requests;
+        public final long cacheHits;
+        public final long failures;
+        public final long totalLatencyMillis;
+        public final long totalBytes;
+
+        Stats(long requests, long cacheHits, long failures, long totalLatencyMillis, long totalBytes) {
+            this.requests = requests;
+            this.cacheHits = cacheHits;
+            this.failures = failures;
+            this.totalLatencyMillis = totalLatencyMillis;
+            this.totalBytes = totalBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "requests=" + requests + " cacheHits=" + cacheHits + " failures=" + failures
+                    + " latencyMs=" + totalLatencyMillis + " bytes=" + totalBytes;
+        }
+    }
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalLatencyMillis = new AtomicLong();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    @Nullable
+    private volatile Listener listener;
+
+    @Inject
+    public HttpMetricsInterceptor() {
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    public Stats getStats() {
+        return new Stats(requests.get(), cacheHits.get(), failures.get(),
+                totalLatencyMillis.get(), totalBytes.get());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            throw e;
+        }
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        boolean fromCache = response.networkResponse() == null;
+        ResponseBody body = response.body();
+        if (body == null) {
+            record(new Record(request.url().toString(), response.code(), latencyMillis, 0, fromCache));
+            return response;
+        }
+        CountingSource counting = new CountingSource(body.source(),
+                request.url().toString(), response.code(), latencyMillis, fromCache);
+        return response.newBuilder()
+                .body(new CountingBody(body, Okio.buffer(counting)))
+                .build();
+    }
+
+    private void record(Record record) {
+        requests.incrementAndGet();
+        if (record.fromCache) {
+            cacheHits.incrementAndGet();
+        }
+        totalLatencyMillis.addAndGet(record.latencyMillis);
+        totalBytes.addAndGet(record.bytes);
+        Listener current = listener;
+        if (current != null) {
+            current.onRequestFinished(record);
+        }
+    }
+
+    private class CountingSource extends ForwardingSource {
+        private final String url;
+        private final int code;
+        private final long latencyMillis;
+        private final boolean fromCache;
+        private long bytes;
+        private boolean recorded;
+
+        CountingSource(BufferedSource delegate, String url, int code, long latencyMillis, boolean fromCache) {
+            super(delegate);
+            this.url = url;
+            this.code = code;
+            this.latencyMillis = latencyMillis;
+            this.fromCache = fromCache;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read == -1) {
+                finish();
+            } else {
+                bytes += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            super.close();
+        }
+
+        private void finish() {
+            if (!recorded) {
+                recorded = true;
+                record(new Record(url, code, latencyMillis, bytes, fromCache));
+            }
+        }
+    }
+
+    private static class CountingBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        CountingBody(ResponseBody delegate, BufferedSource source) {
+            this.delegate = delegate;
+            this.source = source;
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
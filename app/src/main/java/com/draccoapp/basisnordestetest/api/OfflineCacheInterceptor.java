@@ -0,0 +1,46 @@
+package com.draccoapp.basisnordestetest.api;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Se a rede falhar, repete a requisição aceitando só o cache, mesmo com a resposta vencida há até
+ * maxStaleSeconds. Sem nada no cache, a falha original é repassada.
+ */
+public class OfflineCacheInterceptor implements Interceptor {
+    private final int maxStaleSeconds;
+
+    public OfflineCacheInterceptor(int maxStaleSeconds) {
+        this.maxStaleSeconds = maxStaleSeconds;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        try {
+            return chain.proceed(request);
+        } catch (IOException e) {
+            if (!"GET".equals(request.method()) || chain.call().isCanceled()) {
+                throw e;
+            }
+            Response cached = chain.proceed(request.newBuilder()
+                    .cacheControl(new CacheControl.Builder()
+                            .onlyIfCached()
+                            .maxStale(maxStaleSeconds, TimeUnit.SECONDS)
+                            .build())
+                    .build());
+            // O OkHttp responde 504 quando only-if-cached não encontra nada
+            if (cached.code() == HttpURLConnection.HTTP_GATEWAY_TIMEOUT) {
+                cached.close();
+                throw e;
+            }
+            return cached;
+        }
+    }
+}
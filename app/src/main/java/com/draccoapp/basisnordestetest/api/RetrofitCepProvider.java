@@ -0,0 +1,66 @@
+package com.draccoapp.basisnordestetest.api;
+
+import androidx.annotation.Nullable;
+
+import com.draccoapp.basisnordestetest.model.response.CepResponse;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Provedor sobre uma API Retrofit. As subclasses criam a chamada e convertem a resposta.
+ */
+public abstract class RetrofitCepProvider<T> implements CepProvider {
+    private final String name;
+
+    protected RetrofitCepProvider(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    protected abstract Call<T> newCall(String cep);
+
+    /**
+     * @return A resposta convertida, ou null se a resposta não é definitiva (ex.: erro 5xx)
+     */
+    @Nullable
+    protected abstract CepResponse convert(String cep, Response<T> response);
+
+    @Override
+    public Lookup lookup(String cep, Callback callback) {
+        Call<T> call = newCall(cep);
+        call.enqueue(new retrofit2.Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                if (call.isCanceled()) {
+                    return;
+                }
+                CepResponse result = convert(cep, response);
+                if (result != null) {
+                    callback.onResult(result);
+                } else {
+                    callback.onFailure(new IllegalStateException(
+                            name + " CEP lookup failed with HTTP " + response.code()));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                if (!call.isCanceled()) {
+                    callback.onFailure(t);
+                }
+            }
+        });
+        return call::cancel;
+    }
+
+    @Override
+    public Request request(String cep) {
+        return newCall(cep).request();
+    }
+}
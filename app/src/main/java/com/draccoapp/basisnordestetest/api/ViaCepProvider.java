@@ -0,0 +1,29 @@
+package com.draccoapp.basisnordestetest.api;
+
+import com.draccoapp.basisnordestetest.model.response.CepResponse;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+public class ViaCepProvider extends RetrofitCepProvider<CepResponse> {
+    private final CepService service;
+
+    /**
+     * @param service Interface Retrofit apontando para o ViaCEP
+     */
+    public ViaCepProvider(CepService service) {
+        super("ViaCEP");
+        this.service = service;
+    }
+
+    @Override
+    protected Call<CepResponse> newCall(String cep) {
+        return service.getCepInfo(cep);
+    }
+
+    @Override
+    protected CepResponse convert(String cep, Response<CepResponse> response) {
+        // CEP inexistente vem como 200 com "erro": true
+        return response.isSuccessful() ? response.body() : null;
+    }
+}
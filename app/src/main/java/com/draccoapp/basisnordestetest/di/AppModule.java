@@ -1,14 +1,27 @@
 package com.draccoapp.basisnordestetest.di;
 
 import android.content.Context;
+import android.util.Log;
 
+import com.draccoapp.basisnordestetest.api.BrasilApiCepProvider;
+import com.draccoapp.basisnordestetest.api.BrasilApiService;
 import com.draccoapp.basisnordestetest.api.CepService;
+import com.draccoapp.basisnordestetest.api.HedgedCepService;
+import com.draccoapp.basisnordestetest.api.HttpClientFactory;
+import com.draccoapp.basisnordestetest.api.HttpMetricsInterceptor;
+import com.draccoapp.basisnordestetest.api.ViaCepProvider;
 import com.draccoapp.basisnordestetest.repository.PersonRepository;
+import com.draccoapp.basisnordestetest.repository.RealmWriteExecutor;
 import com.draccoapp.basisnordestetest.service.FirestoreService;
 import com.draccoapp.basisnordestetest.service.LocationService;
+import com.draccoapp.basisnordestetest.sync.SyncScheduler;
 import com.draccoapp.basisnordestetest.util.LocationUtil;
 import com.draccoapp.basisnordestetest.util.NotificationUtil;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
@@ -17,6 +30,7 @@ import dagger.hilt.InstallIn;
 import dagger.hilt.android.qualifiers.ApplicationContext;
 import dagger.hilt.components.SingletonComponent;
 import io.realm.Realm;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -25,6 +39,9 @@ import retrofit2.converter.gson.GsonConverterFactory;
 public class AppModule {
 
     private static final String CEP_BASE_URL = "https://viacep.com.br/ws/";
+    private static final String BRASIL_API_BASE_URL = "https://brasilapi.com.br/";
+    // Próximo do p95 do ViaCEP; acima disso a BrasilAPI é consultada em paralelo
+    private static final long CEP_HEDGE_DELAY_MS = 800;
 
     @Provides
     @Singleton
@@ -46,8 +63,9 @@ public class AppModule {
 
     @Provides
     @Singleton
-    public PersonRepository providePersonRepository(Realm realm, FirestoreService firestoreService) {
-        return new PersonRepository(realm, firestoreService);
+    public PersonRepository providePersonRepository(Realm realm, RealmWriteExecutor writeExecutor,
+                                                    SyncScheduler syncScheduler) {
+        return new PersonRepository(realm, writeExecutor, syncScheduler);
     }
 
     @Provides
@@ -64,17 +82,35 @@ public class AppModule {
 
     @Provides
     @Singleton
-    public Retrofit provideRetrofit() {
+    public OkHttpClient provideOkHttpClient(@ApplicationContext Context context, HttpMetricsInterceptor metrics) {
+        metrics.setListener(record -> Log.d("Http", record.toString()));
+        return HttpClientFactory.create(new File(context.getCacheDir(), "http"), metrics);
+    }
+
+    @Provides
+    @Singleton
+    public Retrofit provideRetrofit(OkHttpClient client) {
         return new Retrofit.Builder()
                 .baseUrl(CEP_BASE_URL)
+                .client(client)
                 .addConverterFactory(GsonConverterFactory.create())
                 .build();
     }
 
     @Provides
     @Singleton
-    public CepService provideCepService(Retrofit retrofit) {
-        return retrofit.create(CepService.class);
+    public CepService provideCepService(Retrofit retrofit, OkHttpClient client) {
+        BrasilApiService brasilApi = new Retrofit.Builder()
+                .baseUrl(BRASIL_API_BASE_URL)
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(BrasilApiService.class);
+        return new HedgedCepService(
+                Arrays.asList(new ViaCepProvider(retrofit.create(CepService.class)),
+                        new BrasilApiCepProvider(brasilApi)),
+                CEP_HEDGE_DELAY_MS,
+                Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "cep-hedge")));
     }
 
 }
@@ -1,6 +1,8 @@
 package com.draccoapp.basisnordestetest.model;
 
 import io.realm.RealmObject;
+import io.realm.RealmResults;
+import io.realm.annotations.LinkingObjects;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.RealmClass;
 import io.realm.annotations.Required;
@@ -20,6 +22,10 @@ public class Address extends RealmObject {
     private String city;
     private String state;
 
+    // Backlink para a pessoa dona do endereço, mantido pelo Realm a partir de Person.addresses
+    @LinkingObjects("addresses")
+    private final RealmResults<Person> owners = null;
+
     // Required empty constructor
     public Address() {
     }
@@ -96,4 +102,15 @@ public class Address extends RealmObject {
     public void setState(String state) {
         this.state = state;
     }
+
+    public RealmResults<Person> getOwners() {
+        return owners;
+    }
+
+    /**
+     * Verifica pelo backlink se o endereço pertence à pessoa informada. Só funciona em objetos gerenciados.
+     */
+    public boolean isOwnedBy(String personId) {
+        return owners != null && owners.where().equalTo("id", personId).count() > 0;
+    }
 }
@@ -0,0 +1,91 @@
+package com.draccoapp.basisnordestetest.model;
+
+import io.realm.RealmObject;
+import io.realm.annotations.PrimaryKey;
+
+/**
+ * Resposta do ViaCEP guardada localmente. CEPs inexistentes também são guardados
+ * (found = false), para que consultas repetidas a eles não voltem à rede.
+ */
+public class CachedCep extends RealmObject {
+    @PrimaryKey
+    private String cep; // Apenas os 8 dígitos
+
+    private boolean found;
+    private String street;
+    private String complement;
+    private String neighborhood;
+    private String city;
+    private String state;
+
+    private long fetchedAt;
+
+    // Required empty constructor
+    public CachedCep() {
+    }
+
+    public CachedCep(String cep) {
+        this.cep = cep;
+    }
+
+    // Getters and Setters
+    public String getCep() {
+        return cep;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public void setStreet(String street) {
+        this.street = street;
+    }
+
+    public String getComplement() {
+        return complement;
+    }
+
+    public void setComplement(String complement) {
+        this.complement = complement;
+    }
+
+    public String getNeighborhood() {
+        return neighborhood;
+    }
+
+    public void setNeighborhood(String neighborhood) {
+        this.neighborhood = neighborhood;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(long fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+}
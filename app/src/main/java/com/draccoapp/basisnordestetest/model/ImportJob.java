@@ -0,0 +1,90 @@
+package com.draccoapp.basisnordestetest.model;
+
+import io.realm.RealmObject;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+/**
+ * Ponto de retomada de uma importação. É gravado na mesma transação que cada lote de
+ * pessoas, então, após a morte do processo, a importação continua exatamente do primeiro
+ * registro ainda não confirmado.
+ */
+public class ImportJob extends RealmObject {
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @PrimaryKey
+    private String id;
+
+    @Required
+    private String status;
+
+    private long recordsProcessed; // Registros confirmados (importados + rejeitados)
+    private long imported;
+    private long rejected;
+    private long errorFileLength; // Tamanho do arquivo de erros no último lote confirmado
+    private long updatedAt;
+
+    // Required empty constructor
+    public ImportJob() {
+    }
+
+    public ImportJob(String id) {
+        this.id = id;
+        this.status = STATUS_RUNNING;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getRecordsProcessed() {
+        return recordsProcessed;
+    }
+
+    public void setRecordsProcessed(long recordsProcessed) {
+        this.recordsProcessed = recordsProcessed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getErrorFileLength() {
+        return errorFileLength;
+    }
+
+    public void setErrorFileLength(long errorFileLength) {
+        this.errorFileLength = errorFileLength;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
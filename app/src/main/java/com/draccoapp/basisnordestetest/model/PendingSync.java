@@ -0,0 +1,138 @@
+package com.draccoapp.basisnordestetest.model;
+
+import io.realm.RealmList;
+import io.realm.RealmObject;
+import io.realm.annotations.Index;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+/**
+ * Operação pendente de envio ao Firestore (outbox). Há no máximo uma por pessoa: novas
+ * alterações da mesma pessoa são combinadas na operação existente, e o envio sempre usa o
+ * estado atual da pessoa no Realm.
+ */
+public class PendingSync extends RealmObject {
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    @PrimaryKey
+    private String personId;
+
+    @Required
+    private String operation; // UPSERT ou DELETE
+
+    // Endereços que precisam ser excluídos do Firestore
+    @Required
+    private RealmList<String> removedAddressIds;
+
+    // Envia o documento inteiro (pessoa nova ou alteração sem campos conhecidos)
+    private boolean fullSync;
+
+    // Campos da pessoa e endereços alterados; usados quando fullSync é false
+    @Required
+    private RealmList<String> changedFields;
+    @Required
+    private RealmList<String> changedAddressIds;
+
+    // Incrementada a cada alteração combinada; o worker só remove a operação se ela não mudou durante o envio
+    private long version;
+
+    @Index
+    private long enqueuedAt;
+    private int attempts;
+    private String lastError;
+    // Depois de uma falha, o envio só é tentado de novo a partir deste instante (backoff)
+    @Index
+    private long nextAttemptAt;
+    // Falhou vezes demais ou foi rejeitada pelo servidor; fica fora da fila até a pessoa mudar de novo
+    @Index
+    private boolean deadLetter;
+
+    // Required empty constructor
+    public PendingSync() {
+        this.removedAddressIds = new RealmList<>();
+        this.changedFields = new RealmList<>();
+        this.changedAddressIds = new RealmList<>();
+    }
+
+    // Getters and Setters
+    public String getPersonId() {
+        return personId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public RealmList<String> getRemovedAddressIds() {
+        return removedAddressIds;
+    }
+
+    public boolean isFullSync() {
+        return fullSync;
+    }
+
+    public void setFullSync(boolean fullSync) {
+        this.fullSync = fullSync;
+    }
+
+    public RealmList<String> getChangedFields() {
+        return changedFields;
+    }
+
+    public RealmList<String> getChangedAddressIds() {
+        return changedAddressIds;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public void setEnqueuedAt(long enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(long nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public boolean isDeadLetter() {
+        return deadLetter;
+    }
+
+    public void setDeadLetter(boolean deadLetter) {
+        this.deadLetter = deadLetter;
+    }
+}
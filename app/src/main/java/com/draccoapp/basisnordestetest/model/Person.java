@@ -1,7 +1,10 @@
 package com.draccoapp.basisnordestetest.model;
 
+import com.draccoapp.basisnordestetest.util.TextFolder;
+
 import io.realm.RealmList;
 import io.realm.RealmObject;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.RealmClass;
 import io.realm.annotations.Required;
@@ -25,6 +28,10 @@ public class Person extends RealmObject {
     private double longitude;
     private String deviceName;
 
+    // Nome exibido normalizado (sem acento, minúsculo), usado na ordenação; a busca usa PersonSearchToken
+    @Index
+    private String sortName; // name para PHYSICAL, companyName para LEGAL
+
     // Required empty constructor
     public Person() {
         this.addresses = new RealmList<>();
@@ -134,4 +141,17 @@ public class Person extends RealmObject {
     public void setDeviceName(String deviceName) {
         this.deviceName = deviceName;
     }
-}
\ No newline at end of file
+
+    public String getSortName() {
+        return sortName;
+    }
+
+    /**
+     * Recalcula o sortName a partir de name e companyName.
+     * Deve ser chamado sempre que esses campos ou o tipo de pessoa mudarem.
+     */
+    public void updateNormalizedFields() {
+        String displayName = TextFolder.fold(PersonType.LEGAL.name().equals(personType) ? companyName : name);
+        sortName = displayName != null ? displayName : "";
+    }
+}
@@ -0,0 +1,58 @@
+package com.draccoapp.basisnordestetest.model;
+
+import io.realm.RealmObject;
+import io.realm.annotations.Index;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+/**
+ * Entrada do índice de busca: um token normalizado (ou prefixo de token) associado a uma pessoa.
+ * Mantido pelo PersonSearchIndex na mesma transação que grava ou remove a pessoa.
+ */
+public class PersonSearchToken extends RealmObject {
+    @PrimaryKey
+    private String key; // prefix + ":" + personId
+
+    @Index
+    @Required
+    private String prefix;
+
+    @Index
+    @Required
+    private String personId;
+
+    // Required empty constructor
+    public PersonSearchToken() {
+    }
+
+    public PersonSearchToken(String prefix, String personId) {
+        this.key = prefix + ":" + personId;
+        this.prefix = prefix;
+        this.personId = personId;
+    }
+
+    // Getters and Setters
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getPersonId() {
+        return personId;
+    }
+
+    public void setPersonId(String personId) {
+        this.personId = personId;
+    }
+}
@@ -0,0 +1,64 @@
+package com.draccoapp.basisnordestetest.model;
+
+import io.realm.RealmObject;
+import io.realm.annotations.PrimaryKey;
+
+/**
+ * Marca d'água do recebimento incremental de uma coleção do Firestore: o updatedAt e o id do
+ * último documento aplicado no Realm. É gravada na mesma transação que o lote recebido, então
+ * o próximo recebimento continua exatamente depois do último documento confirmado.
+ */
+public class SyncState extends RealmObject {
+    public static final String PERSONS = "persons";
+
+    @PrimaryKey
+    private String collection;
+
+    // Timestamp do servidor com precisão total (segundos + nanos), para que o cursor não repita documentos
+    private long watermarkSeconds;
+    private int watermarkNanos;
+    private String watermarkDocumentId; // null antes do primeiro recebimento
+
+    private long lastPullAt;
+
+    // Required empty constructor
+    public SyncState() {
+    }
+
+    // Getters and Setters
+    public String getCollection() {
+        return collection;
+    }
+
+    public long getWatermarkSeconds() {
+        return watermarkSeconds;
+    }
+
+    public void setWatermarkSeconds(long watermarkSeconds) {
+        this.watermarkSeconds = watermarkSeconds;
+    }
+
+    public int getWatermarkNanos() {
+        return watermarkNanos;
+    }
+
+    public void setWatermarkNanos(int watermarkNanos) {
+        this.watermarkNanos = watermarkNanos;
+    }
+
+    public String getWatermarkDocumentId() {
+        return watermarkDocumentId;
+    }
+
+    public void setWatermarkDocumentId(String watermarkDocumentId) {
+        this.watermarkDocumentId = watermarkDocumentId;
+    }
+
+    public long getLastPullAt() {
+        return lastPullAt;
+    }
+
+    public void setLastPullAt(long lastPullAt) {
+        this.lastPullAt = lastPullAt;
+    }
+}
@@ -2,7 +2,23 @@ package com.draccoapp.basisnordestetest.model.dto;
 
 import com.draccoapp.basisnordestetest.model.AddressType;
 
-public class AddressDTO {
+public class AddressDTO extends TrackedDTO {
+    // Nomes dos campos no documento do Firestore
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_ADDRESS_TYPE = "addressType";
+    public static final String FIELD_STREET = "street";
+    public static final String FIELD_NUMBER = "number";
+    public static final String FIELD_COMPLEMENT = "complement";
+    public static final String FIELD_NEIGHBORHOOD = "neighborhood";
+    public static final String FIELD_ZIP_CODE = "zipCode";
+    public static final String FIELD_CITY = "city";
+    public static final String FIELD_STATE = "state";
+
+    private static final String[] TRACKED_FIELDS = {
+            FIELD_ID, FIELD_ADDRESS_TYPE, FIELD_STREET, FIELD_NUMBER, FIELD_COMPLEMENT,
+            FIELD_NEIGHBORHOOD, FIELD_ZIP_CODE, FIELD_CITY, FIELD_STATE
+    };
+
     private String id;
     private AddressType addressType; // Agora usando o enum
     private String street;
@@ -24,6 +40,7 @@ public class AddressDTO {
     }
 
     public void setId(String id) {
+        track(FIELD_ID, this.id, id);
         this.id = id;
     }
 
@@ -32,6 +49,7 @@ public class AddressDTO {
     }
 
     public void setAddressType(AddressType addressType) {
+        track(FIELD_ADDRESS_TYPE, this.addressType, addressType);
         this.addressType = addressType;
     }
 
@@ -42,7 +60,7 @@ public class AddressDTO {
 
     // Para compatibilidade com códigos existentes
     public void setAddressType(String addressType) {
-        this.addressType = AddressType.fromString(addressType);
+        setAddressType(AddressType.fromString(addressType));
     }
 
     public String getStreet() {
@@ -50,6 +68,7 @@ public class AddressDTO {
     }
 
     public void setStreet(String street) {
+        track(FIELD_STREET, this.street, street);
         this.street = street;
     }
 
@@ -58,6 +77,7 @@ public class AddressDTO {
     }
 
     public void setNumber(String number) {
+        track(FIELD_NUMBER, this.number, number);
         this.number = number;
     }
 
@@ -66,6 +86,7 @@ public class AddressDTO {
     }
 
     public void setComplement(String complement) {
+        track(FIELD_COMPLEMENT, this.complement, complement);
         this.complement = complement;
     }
 
@@ -74,6 +95,7 @@ public class AddressDTO {
     }
 
     public void setNeighborhood(String neighborhood) {
+        track(FIELD_NEIGHBORHOOD, this.neighborhood, neighborhood);
         this.neighborhood = neighborhood;
     }
 
@@ -82,6 +104,7 @@ public class AddressDTO {
     }
 
     public void setZipCode(String zipCode) {
+        track(FIELD_ZIP_CODE, this.zipCode, zipCode);
         this.zipCode = zipCode;
     }
 
@@ -90,6 +113,7 @@ public class AddressDTO {
     }
 
     public void setCity(String city) {
+        track(FIELD_CITY, this.city, city);
         this.city = city;
     }
 
@@ -98,6 +122,12 @@ public class AddressDTO {
     }
 
     public void setState(String state) {
+        track(FIELD_STATE, this.state, state);
         this.state = state;
     }
+
+    @Override
+    protected String[] trackedFields() {
+        return TRACKED_FIELDS;
+    }
 }
@@ -5,7 +5,27 @@ import com.draccoapp.basisnordestetest.model.PersonType;
 import java.util.ArrayList;
 import java.util.List;
 
-public class PersonDTO {
+public class PersonDTO extends TrackedDTO {
+    // Nomes dos campos no documento do Firestore
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_PERSON_TYPE = "personType";
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_CPF = "cpf";
+    public static final String FIELD_COMPANY_NAME = "companyName";
+    public static final String FIELD_CNPJ = "cnpj";
+    public static final String FIELD_PHONE_NUMBER = "phoneNumber";
+    public static final String FIELD_EMAIL = "email";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_LATITUDE = "latitude";
+    public static final String FIELD_LONGITUDE = "longitude";
+    public static final String FIELD_DEVICE_NAME = "deviceName";
+
+    private static final String[] TRACKED_FIELDS = {
+            FIELD_ID, FIELD_PERSON_TYPE, FIELD_NAME, FIELD_CPF, FIELD_COMPANY_NAME, FIELD_CNPJ,
+            FIELD_PHONE_NUMBER, FIELD_EMAIL, FIELD_CREATED_AT, FIELD_LATITUDE, FIELD_LONGITUDE,
+            FIELD_DEVICE_NAME
+    };
+
     private String id;
     private PersonType personType; // Agora usando o enum
     private String name;
@@ -39,6 +59,7 @@ public class PersonDTO {
     }
 
     public void setId(String id) {
+        track(FIELD_ID, this.id, id);
         this.id = id;
     }
 
@@ -47,6 +68,7 @@ public class PersonDTO {
     }
 
     public void setPersonType(PersonType personType) {
+        track(FIELD_PERSON_TYPE, this.personType, personType);
         this.personType = personType;
     }
 
@@ -57,7 +79,7 @@ public class PersonDTO {
 
     // Para compatibilidade com códigos existentes
     public void setPersonType(String personType) {
-        this.personType = PersonType.fromString(personType);
+        setPersonType(PersonType.fromString(personType));
     }
 
     public String getName() {
@@ -65,6 +87,7 @@ public class PersonDTO {
     }
 
     public void setName(String name) {
+        track(FIELD_NAME, this.name, name);
         this.name = name;
     }
 
@@ -73,6 +96,7 @@ public class PersonDTO {
     }
 
     public void setCpf(String cpf) {
+        track(FIELD_CPF, this.cpf, cpf);
         this.cpf = cpf;
     }
 
@@ -81,6 +105,7 @@ public class PersonDTO {
     }
 
     public void setCompanyName(String companyName) {
+        track(FIELD_COMPANY_NAME, this.companyName, companyName);
         this.companyName = companyName;
     }
 
@@ -89,6 +114,7 @@ public class PersonDTO {
     }
 
     public void setCnpj(String cnpj) {
+        track(FIELD_CNPJ, this.cnpj, cnpj);
         this.cnpj = cnpj;
     }
 
@@ -97,6 +123,7 @@ public class PersonDTO {
     }
 
     public void setPhoneNumber(String phoneNumber) {
+        track(FIELD_PHONE_NUMBER, this.phoneNumber, phoneNumber);
         this.phoneNumber = phoneNumber;
     }
 
@@ -105,6 +132,7 @@ public class PersonDTO {
     }
 
     public void setEmail(String email) {
+        track(FIELD_EMAIL, this.email, email);
         this.email = email;
     }
 
@@ -125,6 +153,7 @@ public class PersonDTO {
     }
 
     public void setCreatedAt(long createdAt) {
+        track(FIELD_CREATED_AT, this.createdAt, createdAt);
         this.createdAt = createdAt;
     }
 
@@ -133,6 +162,7 @@ public class PersonDTO {
     }
 
     public void setLatitude(double latitude) {
+        track(FIELD_LATITUDE, this.latitude, latitude);
         this.latitude = latitude;
     }
 
@@ -141,6 +171,7 @@ public class PersonDTO {
     }
 
     public void setLongitude(double longitude) {
+        track(FIELD_LONGITUDE, this.longitude, longitude);
         this.longitude = longitude;
     }
 
@@ -149,6 +180,12 @@ public class PersonDTO {
     }
 
     public void setDeviceName(String deviceName) {
+        track(FIELD_DEVICE_NAME, this.deviceName, deviceName);
         this.deviceName = deviceName;
     }
-}
\ No newline at end of file
+
+    @Override
+    protected String[] trackedFields() {
+        return TRACKED_FIELDS;
+    }
+}
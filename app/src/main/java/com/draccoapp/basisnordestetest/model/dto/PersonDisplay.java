@@ -0,0 +1,88 @@
+package com.draccoapp.basisnordestetest.model.dto;
+
+/**
+ * Textos de uma pessoa prontos para a lista, gerados por
+ * {@link com.draccoapp.basisnordestetest.model.mapper.PersonMapper#toDisplay(PersonDTO)}.
+ *
+ * A formatação de documento, telefone e endereços é feita uma vez por mudança nos dados, fora da
+ * main thread; durante a rolagem o bind só repassa estas strings para as views.
+ */
+public final class PersonDisplay {
+    private final PersonDTO person;
+    private final boolean legal;
+    private final String typeLabel;
+    private final String title;
+    // null quando não há contato a exibir
+    private final String contact;
+    private final String document;
+    private final String phone;
+    private final String email;
+    private final String addresses;
+
+    public PersonDisplay(PersonDTO person, boolean legal, String typeLabel, String title, String contact,
+                         String document, String phone, String email, String addresses) {
+        this.person = person;
+        this.legal = legal;
+        this.typeLabel = typeLabel;
+        this.title = title;
+        this.contact = contact;
+        this.document = document;
+        this.phone = phone;
+        this.email = email;
+        this.addresses = addresses;
+    }
+
+    public PersonDTO getPerson() {
+        return person;
+    }
+
+    public String getId() {
+        return person.getId();
+    }
+
+    public boolean isLegal() {
+        return legal;
+    }
+
+    public String getTypeLabel() {
+        return typeLabel;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContact() {
+        return contact;
+    }
+
+    public String getDocument() {
+        return document;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * @return true se as duas linhas exibem exatamente o mesmo conteúdo
+     */
+    public boolean sameContentAs(PersonDisplay other) {
+        return legal == other.legal
+                && typeLabel.equals(other.typeLabel)
+                && title.equals(other.title)
+                && (contact == null ? other.contact == null : contact.equals(other.contact))
+                && document.equals(other.document)
+                && phone.equals(other.phone)
+                && email.equals(other.email)
+                && addresses.equals(other.addresses);
+    }
+}
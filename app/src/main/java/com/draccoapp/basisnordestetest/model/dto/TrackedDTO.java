@@ -0,0 +1,59 @@
+package com.draccoapp.basisnordestetest.model.dto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Base dos DTOs que registram quais campos mudaram desde a carga, para que o envio ao
+ * Firestore mande apenas esses campos. Os nomes dos campos são os mesmos dos documentos.
+ */
+public abstract class TrackedDTO {
+    private final Set<String> dirtyFields = new LinkedHashSet<>();
+
+    /**
+     * Nomes de todos os campos rastreados.
+     */
+    protected abstract String[] trackedFields();
+
+    // Marca o campo só se o valor realmente mudou; o formulário reatribui todos os campos ao salvar
+    protected void track(String field, Object current, Object value) {
+        if (!sameValue(current, value)) {
+            dirtyFields.add(field);
+        }
+    }
+
+    public Set<String> getDirtyFields() {
+        return Collections.unmodifiableSet(dirtyFields);
+    }
+
+    public boolean isDirty() {
+        return !dirtyFields.isEmpty();
+    }
+
+    public void markDirty(Collection<String> fields) {
+        dirtyFields.addAll(fields);
+    }
+
+    public void markAllDirty() {
+        dirtyFields.addAll(Arrays.asList(trackedFields()));
+    }
+
+    /**
+     * Considera o estado atual como o carregado. Chamado pelos mappers após preencher o DTO.
+     */
+    public void markClean() {
+        dirtyFields.clear();
+    }
+
+    // null e "" são equivalentes: os campos de texto do formulário devolvem "" para valores nulos
+    private static boolean sameValue(Object current, Object value) {
+        if (current instanceof String || value instanceof String) {
+            return Objects.equals(current == null ? "" : current, value == null ? "" : value);
+        }
+        return Objects.equals(current, value);
+    }
+}
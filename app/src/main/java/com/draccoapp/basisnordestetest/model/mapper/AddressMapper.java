@@ -33,6 +33,7 @@ public class AddressMapper {
         dto.setCity(address.getCity());
         dto.setState(address.getState());
 
+        dto.markClean();
         return dto;
     }
 
@@ -1,13 +1,18 @@
 package com.draccoapp.basisnordestetest.model.mapper;
 
 import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.AddressType;
 import com.draccoapp.basisnordestetest.model.Person;
 import com.draccoapp.basisnordestetest.model.PersonType;
 import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
 import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDisplay;
+import com.draccoapp.basisnordestetest.util.InputMask;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -17,6 +22,9 @@ import io.realm.RealmList;
 @Singleton
 public class PersonMapper {
 
+    // Menor quantidade de dígitos do telefone com DDD
+    private static final int MIN_PHONE_DIGITS = 10;
+
     private final AddressMapper addressMapper;
 
     @Inject
@@ -47,6 +55,8 @@ public class PersonMapper {
             dto.setAddresses(addressMapper.fromRealm(person.getAddresses()));
         }
 
+        // O DTO recém-carregado não tem alterações a enviar
+        dto.markClean();
         return dto;
     }
 
@@ -77,6 +87,7 @@ public class PersonMapper {
         person.setLatitude(dto.getLatitude());
         person.setLongitude(dto.getLongitude());
         person.setDeviceName(dto.getDeviceName());
+        person.updateNormalizedFields();
 
         // Mapear endereços
         if (dto.getAddresses() != null) {
@@ -89,4 +100,117 @@ public class PersonMapper {
 
         return person;
     }
+
+    /**
+     * Gera os textos de exibição da pessoa na lista. Formata documento, telefone e endereços de uma
+     * vez; deve ser chamado fora da main thread, a cada mudança nos dados, e não a cada bind.
+     */
+    public PersonDisplay toDisplay(PersonDTO dto) {
+        PersonType personType = dto.getPersonType() != null ? dto.getPersonType() : PersonType.PHYSICAL;
+        boolean legal = personType == PersonType.LEGAL;
+        String name = orEmpty(dto.getName());
+
+        String title;
+        String contact = null;
+        String document;
+        if (legal) {
+            title = orEmpty(dto.getCompanyName());
+            if (!name.isEmpty()) {
+                contact = "Contato: " + name;
+            }
+            document = "CNPJ: " + formatComplete(InputMask.CNPJ, InputMask.CNPJ.getMaxDigits(), dto.getCnpj());
+        } else {
+            title = name;
+            document = "CPF: " + formatComplete(InputMask.CPF, InputMask.CPF.getMaxDigits(), dto.getCpf());
+        }
+
+        return new PersonDisplay(dto, legal, personType.getDisplayName(), title, contact, document,
+                "Tel: " + formatComplete(InputMask.PHONE, MIN_PHONE_DIGITS, dto.getPhoneNumber()),
+                "Email: " + orEmpty(dto.getEmail()),
+                formatAddresses(dto.getAddresses()));
+    }
+
+    /**
+     * Gera os textos de exibição de uma lista, reaproveitando os de previous cujo DTO é a mesma
+     * instância; só as pessoas novas ou alteradas são formatadas de novo.
+     */
+    public List<PersonDisplay> toDisplay(List<PersonDTO> dtos, List<PersonDisplay> previous) {
+        Map<PersonDTO, PersonDisplay> reusable = new IdentityHashMap<>(previous.size());
+        for (PersonDisplay display : previous) {
+            reusable.put(display.getPerson(), display);
+        }
+
+        List<PersonDisplay> displays = new ArrayList<>(dtos.size());
+        for (PersonDTO dto : dtos) {
+            PersonDisplay display = reusable.get(dto);
+            displays.add(display != null ? display : toDisplay(dto));
+        }
+        return displays;
+    }
+
+    // Aplica a máscara só quando o valor tem a quantidade de dígitos esperada; senão exibe como está
+    private static String formatComplete(InputMask mask, int minDigits, String value) {
+        if (value == null) {
+            return "";
+        }
+        int digits = InputMask.countDigits(value, value.length());
+        return digits >= minDigits && digits <= mask.getMaxDigits() ? mask.format(value) : value;
+    }
+
+    private static String formatAddresses(List<AddressDTO> addresses) {
+        if (addresses == null || addresses.isEmpty()) {
+            return "Nenhum endereço cadastrado";
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < addresses.size(); i++) {
+            AddressDTO address = addresses.get(i);
+            if (i > 0) {
+                text.append("\n\n");
+            }
+
+            // Tipo de endereço
+            AddressType addressType = address.getAddressType();
+            if (addressType != null) {
+                text.append(addressType.getDisplayName()).append(": ");
+            }
+
+            // Rua e número
+            String street = address.getStreet();
+            String number = address.getNumber();
+            if (!isEmpty(street)) {
+                text.append(street);
+                if (!isEmpty(number)) {
+                    text.append(", ").append(number);
+                }
+            }
+
+            // Bairro
+            String neighborhood = address.getNeighborhood();
+            if (!isEmpty(neighborhood)) {
+                text.append(" - ").append(neighborhood);
+            }
+
+            // Cidade e estado
+            String city = address.getCity();
+            String state = address.getState();
+            if (!isEmpty(city)) {
+                text.append(", ").append(city);
+                if (!isEmpty(state)) {
+                    text.append("/").append(state);
+                }
+            } else if (!isEmpty(state)) {
+                text.append(", ").append(state);
+            }
+        }
+        return text.toString();
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
 }
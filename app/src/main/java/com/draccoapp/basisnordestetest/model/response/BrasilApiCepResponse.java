@@ -0,0 +1,27 @@
+package com.draccoapp.basisnordestetest.model.response;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Resposta do endpoint de CEP da BrasilAPI, usado como provedor alternativo ao ViaCEP.
+ */
+public class BrasilApiCepResponse {
+    @SerializedName("cep")
+    private String cep;
+
+    @SerializedName("street")
+    private String street;
+
+    @SerializedName("neighborhood")
+    private String neighborhood;
+
+    @SerializedName("city")
+    private String city;
+
+    @SerializedName("state")
+    private String state;
+
+    public CepResponse toCepResponse() {
+        return new CepResponse(cep, street, null, neighborhood, city, state);
+    }
+}
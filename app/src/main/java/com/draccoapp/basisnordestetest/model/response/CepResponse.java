@@ -24,6 +24,31 @@ public class CepResponse {
     @SerializedName("erro")
     private boolean error;
 
+    // Usado pelo Gson
+    public CepResponse() {
+    }
+
+    public CepResponse(String cep, String street, String complement, String neighborhood,
+                       String city, String state) {
+        this.cep = cep;
+        this.street = street;
+        this.complement = complement;
+        this.neighborhood = neighborhood;
+        this.city = city;
+        this.state = state;
+    }
+
+    /**
+     * Resposta equivalente ao "erro": true do ViaCEP, para provedores que sinalizam CEP inexistente
+     * de outra forma.
+     */
+    public static CepResponse notFound(String cep) {
+        CepResponse response = new CepResponse();
+        response.cep = cep;
+        response.error = true;
+        return response;
+    }
+
     public String getCep() {
         return cep;
     }
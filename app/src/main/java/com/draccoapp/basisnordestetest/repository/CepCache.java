@@ -0,0 +1,166 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import com.draccoapp.basisnordestetest.model.CachedCep;
+import com.draccoapp.basisnordestetest.model.response.CepResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.realm.Realm;
+
+/**
+ * Cache de consultas de CEP em dois níveis: um LRU em memória e a tabela {@link CachedCep} no
+ * Realm, que sobrevive ao fechamento do app. As entradas expiram após um TTL, mais curto para
+ * CEPs não encontrados. As leituras são síncronas e podem ser feitas de qualquer thread.
+ */
+@Singleton
+public class CepCache {
+    private static final int MEMORY_ENTRIES = 256;
+    // Faixas de CEP raramente mudam; um CEP não encontrado pode passar a existir
+    static final long FOUND_TTL_MS = TimeUnit.DAYS.toMillis(30);
+    static final long NOT_FOUND_TTL_MS = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Resultado guardado para um CEP. response é null se o CEP não existe.
+     */
+    public static class Entry {
+        @Nullable
+        public final CepResponse response;
+        final long fetchedAt;
+
+        Entry(@Nullable CepResponse response, long fetchedAt) {
+            this.response = response;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public boolean isFound() {
+            return response != null;
+        }
+
+        boolean isExpired(long now) {
+            return now - fetchedAt > (isFound() ? FOUND_TTL_MS : NOT_FOUND_TTL_MS);
+        }
+    }
+
+    /**
+     * Contadores acumulados desde a abertura do app.
+     */
+    public static class Stats {
+        public final long memoryHits;
+        public final long diskHits;
+        public final long misses;
+        public final long networkMillis; // Tempo total das consultas à rede
+
+        Stats(long memoryHits, long diskHits, long misses, long networkMillis) {
+            this.memoryHits = memoryHits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.networkMillis = networkMillis;
+        }
+
+        public double hitRate() {
+            long total = memoryHits + diskHits + misses;
+            return total == 0 ? 0 : (double) (memoryHits + diskHits) / total;
+        }
+
+        /**
+         * Latência economizada estimada: cada acerto evitou uma consulta de duração média.
+         */
+        public long estimatedSavedMillis() {
+            return misses == 0 ? 0 : (memoryHits + diskHits) * networkMillis / misses;
+        }
+
+        @Override
+        public String toString() {
+            return "memoryHits=" + memoryHits + " diskHits=" + diskHits + " misses=" + misses
+                    + " hitRate=" + String.format("%.2f", hitRate())
+                    + " savedMs=" + estimatedSavedMillis();
+        }
+    }
+
+    private final RealmWriteExecutor writeExecutor;
+    private final LruCache<String, Entry> memory = new LruCache<>(MEMORY_ENTRIES);
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong networkMillis = new AtomicLong();
+
+    @Inject
+    public CepCache(RealmWriteExecutor writeExecutor) {
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * Procura o CEP na memória e depois no Realm. Um acerto no Realm é promovido à memória.
+     * @param cep Apenas os 8 dígitos
+     * @return A entrada válida, ou null se não houver ou se estiver expirada (conta como falta)
+     */
+    @Nullable
+    public Entry get(String cep) {
+        long now = System.currentTimeMillis();
+        Entry entry = memory.get(cep);
+        if (entry != null && !entry.isExpired(now)) {
+            memoryHits.incrementAndGet();
+            return entry;
+        }
+
+        try (Realm realm = Realm.getDefaultInstance()) {
+            CachedCep cached = realm.where(CachedCep.class).equalTo("cep", cep).findFirst();
+            if (cached != null) {
+                entry = toEntry(cached);
+                if (!entry.isExpired(now)) {
+                    memory.put(cep, entry);
+                    diskHits.incrementAndGet();
+                    return entry;
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Guarda a resposta da rede nos dois níveis. A gravação no Realm é assíncrona.
+     * @param response Resposta do ViaCEP, ou null se o CEP não existe
+     * @param elapsedMillis Duração da consulta à rede, para as estatísticas
+     */
+    public void put(String cep, @Nullable CepResponse response, long elapsedMillis) {
+        long now = System.currentTimeMillis();
+        networkMillis.addAndGet(elapsedMillis);
+        memory.put(cep, new Entry(response, now));
+
+        writeExecutor.execute(realm -> {
+            CachedCep cached = new CachedCep(cep);
+            cached.setFound(response != null);
+            if (response != null) {
+                cached.setStreet(response.getStreet());
+                cached.setComplement(response.getComplement());
+                cached.setNeighborhood(response.getNeighborhood());
+                cached.setCity(response.getCity());
+                cached.setState(response.getState());
+            }
+            cached.setFetchedAt(now);
+            realm.insertOrUpdate(cached);
+        }, null);
+    }
+
+    public Stats getStats() {
+        return new Stats(memoryHits.get(), diskHits.get(), misses.get(), networkMillis.get());
+    }
+
+    private static Entry toEntry(CachedCep cached) {
+        CepResponse response = cached.isFound()
+                ? new CepResponse(cached.getCep(), cached.getStreet(), cached.getComplement(),
+                        cached.getNeighborhood(), cached.getCity(), cached.getState())
+                : null;
+        return new Entry(response, cached.getFetchedAt());
+    }
+}
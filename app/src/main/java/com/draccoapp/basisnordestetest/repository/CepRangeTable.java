@@ -0,0 +1,177 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tabela compacta de faixas de CEP para consulta offline, lida com memory-map.
+ *
+ * Formato (big-endian), gerado pelo CepRangeTableWriter do projeto tools/ceptable:
+ * <pre>
+ * cabeçalho   magic "CEPT" | versão | quantidade de faixas | quantidade de strings   (4 x int)
+ * faixas      início | fim | cidade | logradouro (-1 se não houver) | UF | reservado  (4 x int + 2 x short)
+ * offsets     quantidade de strings + 1 ints, relativos ao início das strings
+ * strings     dicionário UTF-8; cada cidade e logradouro aparece uma única vez
+ * </pre>
+ * Cidade e logradouro são índices no dicionário; a UF vai no próprio registro, como as duas
+ * letras ASCII. As faixas são ordenadas pelo início e não se sobrepõem, então a consulta é uma busca
+ * binária direto no arquivo mapeado, sem carregá-lo no heap.
+ */
+public final class CepRangeTable implements Closeable {
+    static final int MAGIC = 0x43455054; // "CEPT"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RANGE_SIZE = 20;
+    static final int NO_STREET = -1;
+
+    /**
+     * Localidade da faixa que contém o CEP. street é null para faixas que cobrem uma cidade
+     * inteira ou vários logradouros.
+     */
+    public static final class Match {
+        public final String city;
+        public final String state;
+        @Nullable
+        public final String street;
+
+        Match(String city, String state, @Nullable String street) {
+            this.city = city;
+            this.state = state;
+            this.street = street;
+        }
+
+        public boolean hasStreet() {
+            return street != null && !street.isEmpty();
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int rangeCount;
+    private final int offsetsStart;
+    private final int stringsStart;
+    // Strings já decodificadas; corridas entre threads apenas decodificam a mesma string duas vezes
+    private final String[] strings;
+
+    private CepRangeTable(RandomAccessFile file, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a CEP range table");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported CEP range table version " + buffer.getInt(4));
+        }
+        rangeCount = buffer.getInt(8);
+        int stringCount = buffer.getInt(12);
+        offsetsStart = HEADER_SIZE + rangeCount * RANGE_SIZE;
+        stringsStart = offsetsStart + (stringCount + 1) * 4;
+        if (stringsStart > buffer.capacity()
+                || stringsStart + buffer.getInt(offsetsStart + stringCount * 4) > buffer.capacity()) {
+            throw new IOException("Truncated CEP range table");
+        }
+        strings = new String[stringCount];
+    }
+
+    /**
+     * Mapeia a tabela em memória. O arquivo fica aberto até {@link #close()}.
+     */
+    public static CepRangeTable open(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "r");
+        try {
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+            return new CepRangeTable(file, buffer);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return rangeCount;
+    }
+
+    /**
+     * @param cep CEP com 8 dígitos, como inteiro
+     * @return A localidade da faixa que contém o CEP, ou null se nenhuma faixa o contém
+     */
+    @Nullable
+    public Match find(int cep) {
+        // Última faixa com início <= cep
+        int low = 0;
+        int high = rangeCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(HEADER_SIZE + mid * RANGE_SIZE) <= cep) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0) {
+            return null;
+        }
+        int record = HEADER_SIZE + found * RANGE_SIZE;
+        if (cep > buffer.getInt(record + 4)) {
+            return null;
+        }
+        int street = buffer.getInt(record + 12);
+        return new Match(
+                string(buffer.getInt(record + 8)),
+                state(buffer.getShort(record + 16)),
+                street == NO_STREET ? null : string(street));
+    }
+
+    /**
+     * @param cep Apenas os dígitos; qualquer outro formato não é encontrado
+     */
+    @Nullable
+    public Match find(String cep) {
+        if (cep.length() != 8) {
+            return null;
+        }
+        int value = 0;
+        for (int i = 0; i < cep.length(); i++) {
+            char c = cep.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return find(value);
+    }
+
+    private static String state(short packed) {
+        return new String(new char[]{(char) ((packed >> 8) & 0x7f), (char) (packed & 0x7f)});
+    }
+
+    private String string(int index) {
+        String value = strings[index];
+        if (value == null) {
+            int start = buffer.getInt(offsetsStart + index * 4);
+            int end = buffer.getInt(offsetsStart + (index + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            ByteBuffer view = buffer.duplicate();
+            view.position(stringsStart + start);
+            view.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -1,29 +1,210 @@
 package com.draccoapp.basisnordestetest.repository;
 
+import android.os.SystemClock;
+import android.util.Log;
+
 import com.draccoapp.basisnordestetest.api.CepService;
 import com.draccoapp.basisnordestetest.model.response.CepResponse;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import retrofit2.Call;
 import retrofit2.Callback;
+import retrofit2.Response;
 
 @Singleton
 public class CepRepository {
+    private static final String TAG = "CepRepository";
+    private static final int CEP_LENGTH = 8;
+
+    // Consulta já respondida; cancelar não tem efeito
+    private static final Request COMPLETED = () -> { };
 
     private final CepService cepService;
+    private final CepCache cache;
+    private final OfflineCepResolver offlineResolver;
+
+    // Consultas à rede em andamento, por CEP normalizado
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+
+    public interface CepCallback {
+        void onSuccess(CepResponse response);
+        // CEP inexistente ou em formato inválido
+        void onNotFound();
+        void onFailure(Throwable error);
+    }
+
+    /**
+     * Consulta feita por um chamador. Depois de {@link #cancel()} o callback não é mais chamado.
+     */
+    public interface Request {
+        void cancel();
+    }
 
     @Inject
-    public CepRepository(CepService cepService) {
+    public CepRepository(CepService cepService, CepCache cache, OfflineCepResolver offlineResolver) {
         this.cepService = cepService;
+        this.cache = cache;
+        this.offlineResolver = offlineResolver;
     }
 
-    public void getCepInfo(String cep, Callback<CepResponse> callback) {
+    /**
+     * Consulta o CEP. Respostas em cache, inclusive de CEPs inexistentes, e CEPs que a tabela
+     * offline resolve até o logradouro são entregues de forma síncrona, sem acesso à rede; as
+     * demais chegam na main thread. Se a tabela offline só conhece a cidade, a rede é usada para
+     * completar o logradouro e, sem rede, a resposta traz apenas cidade e UF.
+     *
+     * Chamadas para o mesmo CEP enquanto a consulta à rede está em andamento compartilham a mesma
+     * requisição. A requisição só é cancelada quando todos os chamadores cancelam.
+     */
+    public Request getCepInfo(String cep, CepCallback callback) {
         // Remove caracteres não numéricos
-        cep = cep.replaceAll("[^0-9]", "");
+        final String digits = cep.replaceAll("[^0-9]", "");
+        if (digits.length() != CEP_LENGTH) {
+            callback.onNotFound();
+            return COMPLETED;
+        }
+
+        CepCache.Entry cached = cache.get(digits);
+        if (cached != null) {
+            deliver(cached, callback);
+            return COMPLETED;
+        }
+
+        final CepRangeTable.Match offline = offlineResolver.find(digits);
+        if (offline != null && offline.hasStreet()) {
+            callback.onSuccess(toResponse(digits, offline));
+            return COMPLETED;
+        }
+
+        final Waiter waiter = new Waiter(callback);
+        final InFlight lookup;
+        synchronized (inFlight) {
+            InFlight existing = inFlight.get(digits);
+            if (existing != null) {
+                existing.waiters.add(waiter);
+                Log.d(TAG, "Joined in-flight lookup for " + digits + " (" + existing.waiters.size() + " callers)");
+                return () -> cancel(existing, waiter);
+            }
+            lookup = new InFlight(digits, cepService.getCepInfo(digits));
+            lookup.waiters.add(waiter);
+            inFlight.put(digits, lookup);
+        }
+
+        final long start = SystemClock.elapsedRealtime();
+        lookup.call.enqueue(new Callback<CepResponse>() {
+            @Override
+            public void onResponse(Call<CepResponse> call, Response<CepResponse> response) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    if (offline != null) {
+                        complete(lookup, c -> c.onSuccess(toResponse(digits, offline)));
+                        return;
+                    }
+                    IllegalStateException error =
+                            new IllegalStateException("CEP lookup failed with HTTP " + response.code());
+                    complete(lookup, c -> c.onFailure(error));
+                    return;
+                }
+                CepResponse body = response.body();
+                // O ViaCEP responde 200 com "erro": true para CEPs inexistentes
+                cache.put(digits, body.isError() ? null : body, SystemClock.elapsedRealtime() - start);
+                Log.d(TAG, "CEP cache " + cache.getStats());
+                if (body.isError()) {
+                    complete(lookup, CepCallback::onNotFound);
+                } else {
+                    complete(lookup, c -> c.onSuccess(body));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<CepResponse> call, Throwable t) {
+                if (call.isCanceled()) {
+                    // Todos os chamadores desistiram
+                    return;
+                }
+                Log.w(TAG, "CEP lookup failed for " + digits, t);
+                if (offline != null) {
+                    complete(lookup, c -> c.onSuccess(toResponse(digits, offline)));
+                } else {
+                    complete(lookup, c -> c.onFailure(t));
+                }
+            }
+        });
+        return () -> cancel(lookup, waiter);
+    }
+
+    public CepCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+
+    // Tira o chamador da consulta; a requisição é cancelada quando não resta nenhum
+    private void cancel(InFlight lookup, Waiter waiter) {
+        synchronized (inFlight) {
+            if (!lookup.waiters.remove(waiter) || !lookup.waiters.isEmpty()) {
+                return;
+            }
+            if (inFlight.get(lookup.cep) == lookup) {
+                inFlight.remove(lookup.cep);
+            }
+        }
+        lookup.call.cancel();
+    }
+
+    // Encerra a consulta e entrega o resultado a todos os chamadores que não cancelaram
+    private void complete(InFlight lookup, Consumer<CepCallback> result) {
+        List<Waiter> waiters;
+        synchronized (inFlight) {
+            if (inFlight.get(lookup.cep) == lookup) {
+                inFlight.remove(lookup.cep);
+            }
+            waiters = new ArrayList<>(lookup.waiters);
+            lookup.waiters.clear();
+        }
+        for (Waiter waiter : waiters) {
+            result.accept(waiter.callback);
+        }
+    }
+
+    // Resposta montada só com a tabela offline; não vai para o cache, para que a próxima
+    // consulta com rede ainda possa completar o endereço
+    private static CepResponse toResponse(String digits, CepRangeTable.Match match) {
+        return new CepResponse(digits.substring(0, 5) + "-" + digits.substring(5),
+                match.street, null, null, match.city, match.state);
+    }
+
+    private static void deliver(CepCache.Entry entry, CepCallback callback) {
+        if (entry.isFound()) {
+            callback.onSuccess(entry.response);
+        } else {
+            callback.onNotFound();
+        }
+    }
+
+    private static class InFlight {
+        final String cep;
+        final Call<CepResponse> call;
+        // Protegidos pela trava do mapa inFlight
+        final List<Waiter> waiters = new ArrayList<>();
+
+        InFlight(String cep, Call<CepResponse> call) {
+            this.cep = cep;
+            this.call = call;
+        }
+    }
+
+    // Um objeto por chamada de getCepInfo, para que o mesmo callback possa entrar duas vezes
+    private static class Waiter {
+        final CepCallback callback;
 
-        Call<CepResponse> call = cepService.getCepInfo(cep);
-        call.enqueue(callback);
+        Waiter(CepCallback callback) {
+            this.callback = callback;
+        }
     }
 }
@@ -0,0 +1,17 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.components.SingletonComponent;
+import okhttp3.OkHttpClient;
+
+/**
+ * Acesso às dependências do Hilt a partir do {@link CepTableUpdateWorker}, que é criado pelo WorkManager.
+ */
+@EntryPoint
+@InstallIn(SingletonComponent.class)
+public interface CepTableEntryPoint {
+    OkHttpClient okHttpClient();
+
+    OfflineCepResolver offlineCepResolver();
+}
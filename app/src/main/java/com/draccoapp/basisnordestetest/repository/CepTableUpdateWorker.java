@@ -0,0 +1,109 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.draccoapp.basisnordestetest.BuildConfig;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import dagger.hilt.android.EntryPointAccessors;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Baixa a tabela de faixas de CEP publicada em {@link BuildConfig#CEP_TABLE_URL} e a entrega ao
+ * {@link OfflineCepResolver}. Roda uma vez por semana, com rede não tarifada.
+ *
+ * Sem URL configurada as atualizações ficam desligadas: nada é agendado e o resolver offline usa
+ * a base que vem no asset do APK.
+ */
+public class CepTableUpdateWorker extends Worker {
+    private static final String TAG = "CepTableUpdateWorker";
+    private static final String WORK_NAME = "cep-table-update";
+    private static final long INTERVAL_DAYS = 7;
+    // A tabela tem alguns MB; o limite padrão do cliente compartilhado é pensado para consultas
+    private static final long DOWNLOAD_TIMEOUT_MINUTES = 5;
+
+    public CepTableUpdateWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Agenda a atualização periódica, ou a cancela se não houver URL configurada.
+     */
+    public static void schedule(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context);
+        if (TextUtils.isEmpty(BuildConfig.CEP_TABLE_URL)) {
+            Log.d(TAG, "No CEP table URL configured, offline table updates disabled");
+            workManager.cancelUniqueWork(WORK_NAME);
+            return;
+        }
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresStorageNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(CepTableUpdateWorker.class,
+                INTERVAL_DAYS, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .addTag(TAG)
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        CepTableEntryPoint entryPoint = EntryPointAccessors.fromApplication(getApplicationContext(),
+                CepTableEntryPoint.class);
+        // Sem cache HTTP: a tabela ocuparia o cache das consultas e já fica guardada pelo resolver
+        OkHttpClient client = entryPoint.okHttpClient().newBuilder()
+                .cache(null)
+                .callTimeout(DOWNLOAD_TIMEOUT_MINUTES, TimeUnit.MINUTES)
+                .build();
+
+        File downloaded = new File(getApplicationContext().getFilesDir(),
+                OfflineCepResolver.TABLE_NAME + ".download");
+        Request request = new Request.Builder().url(BuildConfig.CEP_TABLE_URL).build();
+        try (Response response = client.newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                Log.w(TAG, "CEP table download failed with HTTP " + response.code());
+                return response.code() >= 500 ? Result.retry() : Result.failure();
+            }
+            try (InputStream in = body.byteStream();
+                 OutputStream out = new FileOutputStream(downloaded)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Error downloading CEP table", e);
+            downloaded.delete();
+            return Result.retry();
+        }
+
+        // O resolver valida o arquivo antes de trocar a tabela em uso
+        entryPoint.offlineCepResolver().install(downloaded);
+        return Result.success();
+    }
+}
@@ -0,0 +1,132 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Resolve CEPs sem rede pela {@link CepRangeTable}. A tabela vem do asset {@link #TABLE_NAME}, a
+ * base gerada por tools/ceptable que vai no APK, ou da versão completa baixada pelo
+ * {@link CepTableUpdateWorker} e instalada com {@link #install(File)}.
+ *
+ * Assets são comprimidos e não podem ser mapeados direto, então o asset é copiado uma vez para o
+ * armazenamento interno. A cópia e a abertura rodam em segundo plano; até terminarem, ou se não
+ * houver tabela, {@link #find(String)} não encontra nada e a consulta segue pela rede.
+ */
+@Singleton
+public class OfflineCepResolver {
+    private static final String TAG = "OfflineCepResolver";
+    static final String TABLE_NAME = "cep_ranges.bin";
+
+    private final Context context;
+    private final File tableFile;
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "cep-table"));
+
+    private volatile CepRangeTable table;
+
+    @Inject
+    public OfflineCepResolver(@ApplicationContext Context context) {
+        this.context = context;
+        this.tableFile = new File(context.getFilesDir(), TABLE_NAME);
+        executor.execute(this::load);
+    }
+
+    /**
+     * @param cep Apenas os 8 dígitos
+     * @return A localidade do CEP, ou null se a tabela não o cobre ou ainda não foi carregada
+     */
+    @Nullable
+    public CepRangeTable.Match find(String cep) {
+        CepRangeTable current = table;
+        return current != null ? current.find(cep) : null;
+    }
+
+    public boolean isAvailable() {
+        return table != null;
+    }
+
+    /**
+     * Substitui a tabela por uma versão baixada. O arquivo é validado antes de substituir a atual
+     * e é movido para o armazenamento interno.
+     */
+    public void install(File downloaded) {
+        executor.execute(() -> {
+            try {
+                CepRangeTable.open(downloaded).close();
+            } catch (IOException e) {
+                Log.w(TAG, "Ignoring invalid CEP table " + downloaded, e);
+                downloaded.delete();
+                return;
+            }
+            CepRangeTable previous = table;
+            table = null;
+            closeQuietly(previous);
+            if (!downloaded.renameTo(tableFile)) {
+                Log.w(TAG, "Could not install CEP table " + downloaded);
+            }
+            load();
+        });
+    }
+
+    private void load() {
+        try {
+            if (!tableFile.exists() && !copyAsset()) {
+                Log.d(TAG, "No offline CEP table available");
+                return;
+            }
+            table = CepRangeTable.open(tableFile);
+            Log.d(TAG, "Offline CEP table loaded with " + table.size() + " ranges");
+        } catch (IOException e) {
+            Log.w(TAG, "Error loading offline CEP table", e);
+            tableFile.delete();
+        }
+    }
+
+    // Copia para um temporário e renomeia, para não deixar uma tabela pela metade
+    private boolean copyAsset() throws IOException {
+        File temp = new File(tableFile.getPath() + ".tmp");
+        try (InputStream in = context.getAssets().open(TABLE_NAME);
+             OutputStream out = new FileOutputStream(temp)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (FileNotFoundException e) {
+            // O APK não traz a tabela
+            return false;
+        }
+        if (!temp.renameTo(tableFile)) {
+            temp.delete();
+            throw new IOException("Could not move CEP table to " + tableFile);
+        }
+        return true;
+    }
+
+    private static void closeQuietly(@Nullable CepRangeTable table) {
+        if (table == null) {
+            return;
+        }
+        try {
+            table.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Error closing CEP table", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import androidx.annotation.Nullable;
+
+import com.draccoapp.basisnordestetest.model.Person;
+
+import java.util.List;
+
+/**
+ * Janela de tamanho fixo da tabela de pessoas, ordenada por (sortName, id).
+ * A chave da próxima página é o par (sortName, id) do último item da janela.
+ */
+public class PersonPage {
+
+    private final List<Person> items;
+    @Nullable
+    private final Key nextKey;
+
+    public PersonPage(List<Person> items, @Nullable Key nextKey) {
+        this.items = items;
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * Itens desvinculados do Realm.
+     */
+    public List<Person> getItems() {
+        return items;
+    }
+
+    /**
+     * Chave para carregar a próxima página, ou null se esta for a última.
+     */
+    @Nullable
+    public Key getNextKey() {
+        return nextKey;
+    }
+
+    public boolean isLastPage() {
+        return nextKey == null;
+    }
+
+    /**
+     * Cursor de paginação baseado no último (sortName, id) visto.
+     */
+    public static class Key {
+        @Nullable
+        private final String sortName;
+        private final String id;
+
+        public Key(@Nullable String sortName, String id) {
+            this.sortName = sortName;
+            this.id = id;
+        }
+
+        public static Key of(Person person) {
+            return new Key(person.getSortName(), person.getId());
+        }
+
+        @Nullable
+        public String getSortName() {
+            return sortName;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+}
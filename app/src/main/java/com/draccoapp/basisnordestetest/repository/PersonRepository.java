@@ -1,72 +1,119 @@
 package com.draccoapp.basisnordestetest.repository;
 
+import androidx.annotation.Nullable;
+
 import com.draccoapp.basisnordestetest.model.Address;
 import com.draccoapp.basisnordestetest.model.Person;
-import com.draccoapp.basisnordestetest.service.FirestoreService;
+import com.draccoapp.basisnordestetest.sync.SyncOutbox;
+import com.draccoapp.basisnordestetest.sync.SyncScheduler;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import io.realm.Case;
 import io.realm.Realm;
-import io.realm.RealmList;
+import io.realm.RealmQuery;
 import io.realm.RealmResults;
 import io.realm.Sort;
 
 @Singleton
 public class PersonRepository {
 
+    // Instância da main thread, usada apenas para leituras
     private final Realm realm;
-    private final FirestoreService firestoreService;
+    // Todas as escritas passam pela thread dedicada do executor
+    private final RealmWriteExecutor writeExecutor;
+    // O envio ao Firestore é feito pelo outbox, gravado na mesma transação de cada alteração
+    private final SyncScheduler syncScheduler;
 
     @Inject
-    public PersonRepository(Realm realm, FirestoreService firestoreService) {
+    public PersonRepository(Realm realm, RealmWriteExecutor writeExecutor, SyncScheduler syncScheduler) {
         this.realm = realm;
-        this.firestoreService = firestoreService;
+        this.writeExecutor = writeExecutor;
+        this.syncScheduler = syncScheduler;
     }
 
+    // Ordenação estável usada pela lista e pela paginação: (sortName, id).
+    // sortName é normalizado, então a ordenação é uma comparação simples de strings indexadas.
+    private static final String[] PAGE_SORT_FIELDS = {"sortName", "id"};
+    private static final Sort[] PAGE_SORT_ORDER = {Sort.ASCENDING, Sort.ASCENDING};
+
     public RealmResults<Person> getAllPersons() {
         return realm.where(Person.class)
-                .sort("name", Sort.ASCENDING)
+                .sort(PAGE_SORT_FIELDS, PAGE_SORT_ORDER)
                 .findAll();
     }
 
-    // Método adicional que retorna cópias desvinculadas do Realm
-    public List<Person> getAllPersonsDetached() {
-        RealmResults<Person> results = realm.where(Person.class)
-                .sort("name", Sort.ASCENDING)
+    /**
+     * Retorna uma janela de até pageSize pessoas posteriores à chave informada,
+     * na mesma ordem de {@link #getAllPersons()}. Apenas os itens da janela são copiados do Realm.
+     * @param after Chave do último item da página anterior, ou null para a primeira página
+     * @param pageSize Quantidade máxima de itens da página
+     */
+    public PersonPage getPersonsPage(@Nullable PersonPage.Key after, int pageSize) {
+        RealmQuery<Person> query = realm.where(Person.class);
+        if (after != null) {
+            if (after.getSortName() == null) {
+                // Nomes nulos vêm primeiro na ordenação
+                query.rawPredicate("(sortName == nil AND id > $0) OR sortName != nil", after.getId());
+            } else {
+                query.rawPredicate("sortName > $0 OR (sortName == $0 AND id > $1)", after.getSortName(), after.getId());
+            }
+        }
+
+        RealmResults<Person> window = query
+                .sort(PAGE_SORT_FIELDS, PAGE_SORT_ORDER)
+                .limit(pageSize)
                 .findAll();
-        return realm.copyFromRealm(results);
+
+        List<Person> items = realm.copyFromRealm(window);
+        PersonPage.Key nextKey = items.size() < pageSize || items.isEmpty()
+                ? null
+                : PersonPage.Key.of(items.get(items.size() - 1));
+        return new PersonPage(items, nextKey);
     }
 
     public RealmResults<Person> getPersonsByName(String query) {
-        // Melhorar a pesquisa para ser case-insensitive e pesquisar em ambos os campos
-        return realm.where(Person.class)
-                .beginGroup()
-                .contains("name", query, Case.INSENSITIVE)
-                .or()
-                .contains("companyName", query, Case.INSENSITIVE)
-                .endGroup()
-                .sort("name", Sort.ASCENDING)
+        return queryByName(realm, query);
+    }
+
+    /**
+     * Executa a busca em uma instância do Realm da thread chamadora e devolve cópias desvinculadas.
+     * Usado pela busca em background, que não pode tocar a instância da main thread.
+     */
+    public List<Person> searchPersonsDetached(Realm threadRealm, String query) {
+        return threadRealm.copyFromRealm(queryByName(threadRealm, query));
+    }
+
+    private RealmResults<Person> queryByName(Realm realm, String query) {
+        // Busca por prefixo de palavra no índice de tokens, sem varrer a tabela de pessoas
+        Set<String> ids = PersonSearchIndex.findPersonIds(realm, query);
+        RealmQuery<Person> personQuery = realm.where(Person.class);
+        if (ids == null) {
+            // Consulta sem termos pesquisáveis retorna a lista completa
+            return personQuery.sort(PAGE_SORT_FIELDS, PAGE_SORT_ORDER).findAll();
+        }
+        if (ids.isEmpty()) {
+            return personQuery.alwaysFalse().findAll();
+        }
+        return personQuery
+                .in("id", ids.toArray(new String[0]))
+                .sort(PAGE_SORT_FIELDS, PAGE_SORT_ORDER)
                 .findAll();
     }
 
     // Método adicional que retorna cópias desvinculadas do Realm
     public List<Person> getPersonsByNameDetached(String query) {
-        RealmResults<Person> results = realm.where(Person.class)
-                .beginGroup()
-                .contains("name", query, Case.INSENSITIVE)
-                .or()
-                .contains("companyName", query, Case.INSENSITIVE)
-                .endGroup()
-                .sort("name", Sort.ASCENDING)
-                .findAll();
-        return realm.copyFromRealm(results);
+        return realm.copyFromRealm(getPersonsByName(query));
     }
 
     public Person getPerson(String id) {
@@ -80,170 +127,238 @@ public class PersonRepository {
     }
 
     public void savePerson(final Person person, final Callback callback) {
-        try {
-            realm.executeTransaction(new Realm.Transaction() {
-                @Override
-                public void execute(Realm realm) {
-                    // Garantir que os IDs dos endereços estão definidos
-                    if (person.getAddresses() != null) {
-                        for (Address address : person.getAddresses()) {
-                            if (address.getId() == null || address.getId().isEmpty()) {
-                                address.setId(UUID.randomUUID().toString());
-                            }
+        savePerson(person, null, null, callback);
+    }
+
+    /**
+     * Salva a pessoa informando o que mudou desde a carga, para que o envio ao Firestore mande
+     * apenas esses campos e endereços. Pessoas novas são sempre enviadas inteiras.
+     * @param changedFields Campos alterados (nomes de {@link com.draccoapp.basisnordestetest.model.dto.PersonDTO}),
+     *                      ou null se não se sabe o que mudou
+     * @param changedAddressIds Endereços criados ou alterados; ignorado se changedFields for null
+     */
+    public void savePerson(final Person person, @Nullable final Collection<String> changedFields,
+                           @Nullable final Collection<String> changedAddressIds, final Callback callback) {
+        writeExecutor.execute(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                // Garantir que os IDs dos endereços estão definidos
+                if (person.getAddresses() != null) {
+                    for (Address address : person.getAddresses()) {
+                        if (address.getId() == null || address.getId().isEmpty()) {
+                            address.setId(UUID.randomUUID().toString());
                         }
                     }
-
-                    realm.insertOrUpdate(person);
                 }
-            });
 
-            // Não precisamos mais salvar no Firebase aqui, pois isso é feito no ViewModel
-            callback.onResult(true);
+                Person existing = realm.where(Person.class).equalTo("id", person.getId()).findFirst();
+                boolean isNew = existing == null;
+                if (!isNew) {
+                    removeMissingAddresses(realm, existing, person);
+                }
+                person.updateNormalizedFields();
+                realm.insertOrUpdate(person);
+                PersonSearchIndex.index(realm, person);
+                if (isNew || changedFields == null) {
+                    SyncOutbox.enqueueUpsert(realm, person.getId());
+                } else {
+                    SyncOutbox.enqueueChanges(realm, person.getId(), changedFields,
+                            changedAddressIds != null ? changedAddressIds : Collections.<String>emptyList());
+                }
+            }
+        }, toSyncCallback(callback));
+    }
 
-        } catch (Exception e) {
-            callback.onResult(false);
+    // Endereços que saíram da lista ficariam órfãos no Realm e esquecidos no Firestore
+    private static void removeMissingAddresses(Realm realm, Person existing, Person person) {
+        Set<String> keep = new HashSet<>();
+        for (Address address : person.getAddresses()) {
+            keep.add(address.getId());
+        }
+        for (int i = existing.getAddresses().size() - 1; i >= 0; i--) {
+            Address address = existing.getAddresses().get(i);
+            if (!keep.contains(address.getId())) {
+                SyncOutbox.enqueueAddressRemoval(realm, person.getId(), address.getId());
+                address.deleteFromRealm();
+            }
         }
     }
 
     public void addAddressToPerson(final String personId, final Address address, final Callback callback) {
-        try {
-            realm.executeTransaction(new Realm.Transaction() {
-                @Override
-                public void execute(Realm realm) {
-                    Person person = realm.where(Person.class).equalTo("id", personId).findFirst();
-                    if (person != null) {
-                        // Garantir que o ID do endereço está definido
-                        if (address.getId() == null || address.getId().isEmpty()) {
-                            address.setId(UUID.randomUUID().toString());
-                        }
-
-                        person.getAddresses().add(address);
+        final boolean[] applied = {false};
+        writeExecutor.execute(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                Person person = realm.where(Person.class).equalTo("id", personId).findFirst();
+                applied[0] = person != null;
+                if (person != null) {
+                    // Garantir que o ID do endereço está definido
+                    if (address.getId() == null || address.getId().isEmpty()) {
+                        address.setId(UUID.randomUUID().toString());
                     }
+
+                    person.getAddresses().add(address);
+                    SyncOutbox.enqueueChanges(realm, personId, Collections.<String>emptyList(),
+                            Collections.singletonList(address.getId()));
                 }
-            });
-            callback.onResult(true);
-        } catch (Exception e) {
-            callback.onResult(false);
-        }
+            }
+        }, toSyncCallback(callback, applied));
     }
 
+    /**
+     * Atualiza um endereço da pessoa. Se o endereço não existir ou for de outra pessoa, nada é
+     * alterado e o callback recebe false.
+     */
     public void updateAddress(final String personId, final Address address, final Callback callback) {
-        try {
-            realm.executeTransaction(new Realm.Transaction() {
-                @Override
-                public void execute(Realm realm) {
-                    Person person = realm.where(Person.class).equalTo("id", personId).findFirst();
-                    if (person != null) {
-                        RealmList<Address> addresses = person.getAddresses();
-                        for (int i = 0; i < addresses.size(); i++) {
-                            if (addresses.get(i).getId().equals(address.getId())) {
-                                addresses.set(i, address);
-                                break;
-                            }
-                        }
-                    }
+        final boolean[] applied = {false};
+        writeExecutor.execute(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                applied[0] = updateAddress(realm, personId, address);
+                if (applied[0]) {
+                    SyncOutbox.enqueueChanges(realm, personId, Collections.<String>emptyList(),
+                            Collections.singletonList(address.getId()));
                 }
-            });
-            callback.onResult(true);
-        } catch (Exception e) {
-            callback.onResult(false);
-        }
+            }
+        }, toSyncCallback(callback, applied));
     }
 
+    /**
+     * Remove um endereço da pessoa. Se o endereço não existir ou for de outra pessoa, nada é
+     * alterado e o callback recebe false.
+     */
     public void removeAddress(final String personId, final String addressId, final Callback callback) {
-        try {
-            realm.executeTransaction(new Realm.Transaction() {
-                @Override
-                public void execute(Realm realm) {
-                    Person person = realm.where(Person.class).equalTo("id", personId).findFirst();
-                    if (person != null) {
-                        RealmList<Address> addresses = person.getAddresses();
-                        for (int i = 0; i < addresses.size(); i++) {
-                            if (addresses.get(i).getId().equals(addressId)) {
-                                addresses.remove(i);
-                                break;
-                            }
-                        }
-                    }
+        final boolean[] applied = {false};
+        writeExecutor.execute(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                applied[0] = removeAddress(realm, personId, addressId);
+                if (applied[0]) {
+                    SyncOutbox.enqueueAddressRemoval(realm, personId, addressId);
                 }
-            });
-            callback.onResult(true);
-        } catch (Exception e) {
-            callback.onResult(false);
+            }
+        }, toSyncCallback(callback, applied));
+    }
+
+    /**
+     * Atualiza o endereço no lugar, localizado pela chave primária. O objeto gerenciado continua o
+     * mesmo, então a lista da pessoa não muda e nenhum registro fica órfão.
+     * Deve ser chamado dentro de uma transação.
+     *
+     * @return false se o endereço não existir ou não pertencer à pessoa
+     */
+    static boolean updateAddress(Realm realm, String personId, Address address) {
+        Address managed = realm.where(Address.class).equalTo("id", address.getId()).findFirst();
+        if (managed == null || !managed.isOwnedBy(personId)) {
+            return false;
+        }
+        realm.insertOrUpdate(address);
+        return true;
+    }
+
+    /**
+     * Exclui o registro do endereço; o Realm o remove também da lista da pessoa.
+     * Deve ser chamado dentro de uma transação.
+     *
+     * @return false se o endereço não existir ou não pertencer à pessoa
+     */
+    static boolean removeAddress(Realm realm, String personId, String addressId) {
+        Address managed = realm.where(Address.class).equalTo("id", addressId).findFirst();
+        if (managed == null || !managed.isOwnedBy(personId)) {
+            return false;
         }
+        managed.deleteFromRealm();
+        return true;
     }
 
     public void deletePerson(final String id, final Callback callback) {
-        try {
-            realm.executeTransaction(new Realm.Transaction() {
-                @Override
-                public void execute(Realm realm) {
-                    Person person = realm.where(Person.class).equalTo("id", id).findFirst();
-                    if (person != null) {
-                        // Remover todos os endereços associados
-                        person.getAddresses().deleteAllFromRealm();
-                        // Remover a pessoa
-                        person.deleteFromRealm();
+        writeExecutor.execute(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                Person person = realm.where(Person.class).equalTo("id", id).findFirst();
+                List<String> addressIds = new ArrayList<>();
+                if (person != null) {
+                    for (Address address : person.getAddresses()) {
+                        addressIds.add(address.getId());
                     }
+                    // Remover todos os endereços associados
+                    person.getAddresses().deleteAllFromRealm();
+                    // Remover a pessoa
+                    person.deleteFromRealm();
                 }
-            });
+                PersonSearchIndex.remove(realm, id);
+                SyncOutbox.enqueueDelete(realm, id, addressIds);
+            }
+        }, toSyncCallback(callback));
+    }
 
-            // Excluir do Firestore
-            firestoreService.deletePerson(id, new FirestoreService.FirestoreCallback() {
-                @Override
-                public void onSuccess(String documentId) {
-                    callback.onResult(true);
+    // Método para operações em lote
+    /**
+     * Exclui várias pessoas em uma única transação, com uma consulta {@code in("id", ids)} em vez de
+     * uma busca por id. As exclusões no Firestore são registradas no outbox na mesma transação e
+     * enviadas em lote pelo SyncWorker.
+     *
+     * A exclusão é local primeiro: o callback informa apenas a transação no Realm, em que todos os
+     * ids são excluídos juntos ou nenhum é. Falhas no Firestore não voltam por aqui; ficam no
+     * outbox, com novas tentativas, até virarem pendências descartadas
+     * ({@link com.draccoapp.basisnordestetest.sync.SyncOutbox#findDeadLetters(Realm)}).
+     */
+    public void deleteMultiplePersons(final List<String> ids, final Callback callback) {
+        final String[] idArray = ids.toArray(new String[0]);
+
+        writeExecutor.execute(new Realm.Transaction() {
+            @Override
+            public void execute(Realm realm) {
+                RealmResults<Person> persons = realm.where(Person.class).in("id", idArray).findAll();
+                Map<String, List<String>> addressIdsByPerson = new HashMap<>();
+                for (Person person : persons) {
+                    List<String> addressIds = new ArrayList<>();
+                    for (Address address : person.getAddresses()) {
+                        addressIds.add(address.getId());
+                    }
+                    addressIdsByPerson.put(person.getId(), addressIds);
+                    // Remover todos os endereços associados
+                    person.getAddresses().deleteAllFromRealm();
                 }
+                persons.deleteAllFromRealm();
+                PersonSearchIndex.removeAll(realm, idArray);
 
-                @Override
-                public void onFailure(Exception e) {
-                    // Mesmo com falha no Firestore, consideramos excluído no Realm
-                    callback.onResult(true);
+                // Ids sem registro local também são excluídos do Firestore
+                for (String id : idArray) {
+                    List<String> addressIds = addressIdsByPerson.get(id);
+                    SyncOutbox.enqueueDelete(realm, id, addressIds != null ? addressIds : new ArrayList<>());
                 }
-            });
+            }
+        }, toSyncCallback(callback));
+    }
 
-        } catch (Exception e) {
-            callback.onResult(false);
-        }
+    // Solicita o envio do outbox depois que a transação que o alimentou for confirmada
+    private RealmWriteExecutor.Callback toSyncCallback(final Callback callback) {
+        return toSyncCallback(callback, null);
     }
 
-    // Método para operações em lote
-    public void deleteMultiplePersons(final List<String> ids, final Callback callback) {
-        try {
-            realm.executeTransaction(new Realm.Transaction() {
-                @Override
-                public void execute(Realm realm) {
-                    for (String id : ids) {
-                        Person person = realm.where(Person.class).equalTo("id", id).findFirst();
-                        if (person != null) {
-                            // Remover todos os endereços associados
-                            person.getAddresses().deleteAllFromRealm();
-                            // Remover a pessoa
-                            person.deleteFromRealm();
-                        }
-                    }
+    /**
+     * Como {@link #toSyncCallback(Callback)}, mas informa false quando a transação terminou sem
+     * aplicar nada (applied[0] == false), por exemplo um endereço que não existe mais.
+     * applied é escrito na thread de escrita; a main thread só o lê depois do commit.
+     */
+    private RealmWriteExecutor.Callback toSyncCallback(final Callback callback, @Nullable final boolean[] applied) {
+        return new RealmWriteExecutor.Callback() {
+            @Override
+            public void onSuccess() {
+                if (applied != null && !applied[0]) {
+                    callback.onResult(false);
+                    return;
                 }
-            });
-
-            // Excluir do Firestore
-            for (String id : ids) {
-                firestoreService.deletePerson(id, new FirestoreService.FirestoreCallback() {
-                    @Override
-                    public void onSuccess(String documentId) {
-                        // Não fazemos nada aqui, pois o callback final será chamado após o loop
-                    }
-
-                    @Override
-                    public void onFailure(Exception e) {
-                        // Não fazemos nada aqui, pois o callback final será chamado após o loop
-                    }
-                });
+                syncScheduler.requestSync();
+                callback.onResult(true);
             }
 
-            callback.onResult(true);
-        } catch (Exception e) {
-            callback.onResult(false);
-        }
+            @Override
+            public void onError(Throwable error) {
+                callback.onResult(false);
+            }
+        };
     }
 
     public void close() {
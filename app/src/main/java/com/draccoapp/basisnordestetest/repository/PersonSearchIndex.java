@@ -0,0 +1,226 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.model.PersonSearchToken;
+import com.draccoapp.basisnordestetest.util.TextFolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.realm.Realm;
+import io.realm.RealmResults;
+
+/**
+ * Índice invertido de busca por nome, razão social e documento.
+ *
+ * Cada palavra normalizada gera uma linha por prefixo na tabela {@link PersonSearchToken},
+ * de modo que a busca vira uma consulta por igualdade em um campo indexado, em vez de um
+ * contains() sobre a tabela inteira. Os métodos de escrita devem ser chamados dentro da
+ * mesma transação que grava ou remove a pessoa.
+ */
+public final class PersonSearchIndex {
+
+    // Prefixos maiores que isso raramente são digitados; consultas mais longas são truncadas
+    static final int MAX_PREFIX_LENGTH = 24;
+
+    private PersonSearchIndex() {
+    }
+
+    /**
+     * (Re)indexa a pessoa. Deve ser chamado dentro de uma transação.
+     */
+    public static void index(Realm realm, Person person) {
+        remove(realm, person.getId());
+
+        List<PersonSearchToken> tokens = new ArrayList<>();
+        addTokens(person, new HashSet<>(), tokens);
+        realm.insert(tokens);
+    }
+
+    /**
+     * (Re)indexa várias pessoas com uma única remoção e uma única inserção em lote.
+     * Deve ser chamado dentro de uma transação.
+     */
+    public static void indexAll(Realm realm, Collection<Person> persons) {
+        String[] ids = new String[persons.size()];
+        int i = 0;
+        for (Person person : persons) {
+            ids[i++] = person.getId();
+        }
+        removeAll(realm, ids);
+
+        Set<String> prefixes = new HashSet<>();
+        List<PersonSearchToken> tokens = new ArrayList<>();
+        for (Person person : persons) {
+            addTokens(person, prefixes, tokens);
+        }
+        realm.insert(tokens);
+    }
+
+    private static void addTokens(Person person, Set<String> prefixes, List<PersonSearchToken> tokens) {
+        prefixes.clear();
+        addPrefixes(person.getName(), prefixes);
+        addPrefixes(person.getCompanyName(), prefixes);
+        addPrefixes(person.getCpf(), prefixes);
+        addPrefixes(person.getCnpj(), prefixes);
+        for (String prefix : prefixes) {
+            tokens.add(new PersonSearchToken(prefix, person.getId()));
+        }
+    }
+
+    /**
+     * Remove as entradas da pessoa. Deve ser chamado dentro de uma transação.
+     */
+    public static void remove(Realm realm, String personId) {
+        realm.where(PersonSearchToken.class)
+                .equalTo("personId", personId)
+                .findAll()
+                .deleteAllFromRealm();
+    }
+
+    /**
+     * Remove as entradas de várias pessoas com uma única consulta. Deve ser chamado dentro de uma transação.
+     */
+    public static void removeAll(Realm realm, String[] personIds) {
+        if (personIds.length == 0) {
+            return;
+        }
+        realm.where(PersonSearchToken.class)
+                .in("personId", personIds)
+                .findAll()
+                .deleteAllFromRealm();
+    }
+
+    /**
+     * Retorna os ids das pessoas que possuem todos os termos da consulta como prefixo de alguma palavra.
+     * @return Conjunto de ids, ou null se a consulta não tiver termos pesquisáveis
+     */
+    public static Set<String> findPersonIds(Realm realm, String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        // Começar pelo termo mais seletivo reduz o tamanho da interseção
+        String rarest = terms.get(0);
+        long rarestCount = Long.MAX_VALUE;
+        for (String term : terms) {
+            long count = realm.where(PersonSearchToken.class).equalTo("prefix", term).count();
+            if (count == 0) {
+                return new HashSet<>();
+            }
+            if (count < rarestCount) {
+                rarestCount = count;
+                rarest = term;
+            }
+        }
+
+        Set<String> ids = collectPersonIds(realm.where(PersonSearchToken.class)
+                .equalTo("prefix", rarest)
+                .findAll());
+
+        for (String term : terms) {
+            if (term.equals(rarest) || ids.isEmpty()) {
+                continue;
+            }
+            ids = collectPersonIds(realm.where(PersonSearchToken.class)
+                    .equalTo("prefix", term)
+                    .in("personId", ids.toArray(new String[0]))
+                    .findAll());
+        }
+        return ids;
+    }
+
+    /**
+     * Divide o texto em palavras normalizadas (sem acento, minúsculas, apenas letras e dígitos).
+     * Separadores de documentos ('.', '-', '/') entre dígitos são descartados, de modo que
+     * "123.456.789-09" e "12345678909" geram o mesmo termo.
+     */
+    public static List<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return new ArrayList<>(terms);
+        }
+
+        String normalized = normalize(text);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (!isDocumentSeparator(normalized, i)) {
+                addTerm(term, terms);
+            }
+        }
+        addTerm(term, terms);
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Verifica em memória se todos os termos são prefixo de alguma palavra dos campos informados,
+     * com a mesma semântica da consulta ao índice. Usado para refinar resultados já carregados.
+     */
+    public static boolean matches(List<String> terms, String... fields) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String field : fields) {
+                if (field == null) {
+                    continue;
+                }
+                for (String word : tokenize(field)) {
+                    if (word.startsWith(term)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (found) {
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDocumentSeparator(String text, int index) {
+        char c = text.charAt(index);
+        return (c == '.' || c == '-' || c == '/')
+                && index > 0 && index < text.length() - 1
+                && Character.isDigit(text.charAt(index - 1))
+                && Character.isDigit(text.charAt(index + 1));
+    }
+
+    private static void addTerm(StringBuilder term, Set<String> terms) {
+        if (term.length() == 0) {
+            return;
+        }
+        terms.add(term.length() > MAX_PREFIX_LENGTH ? term.substring(0, MAX_PREFIX_LENGTH) : term.toString());
+        term.setLength(0);
+    }
+
+    static String normalize(String text) {
+        return TextFolder.fold(text);
+    }
+
+    private static void addPrefixes(String text, Collection<String> out) {
+        for (String term : tokenize(text)) {
+            for (int length = 1; length <= term.length(); length++) {
+                out.add(term.substring(0, length));
+            }
+        }
+    }
+
+    private static Set<String> collectPersonIds(RealmResults<PersonSearchToken> tokens) {
+        Set<String> ids = new HashSet<>(tokens.size());
+        for (PersonSearchToken token : tokens) {
+            ids.add(token.getPersonId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,112 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.realm.Realm;
+
+/**
+ * Executor de escrita único do Realm.
+ *
+ * Todas as transações são serializadas em uma thread dedicada, que mantém a sua própria
+ * instância do Realm. Os callbacks são sempre entregues na main thread, de modo que a UI
+ * nunca precisa escrever no banco.
+ */
+@Singleton
+public class RealmWriteExecutor {
+    private static final String TAG = "RealmWriteExecutor";
+    private static final String THREAD_NAME = "realm-writer";
+
+    private final ExecutorService executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private volatile Thread writerThread;
+    // Acessado apenas pela thread de escrita
+    private Realm writerRealm;
+
+    public interface Callback {
+        void onSuccess();
+        void onError(Throwable error);
+    }
+
+    @Inject
+    public RealmWriteExecutor() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, THREAD_NAME);
+            writerThread = thread;
+            return thread;
+        });
+    }
+
+    /**
+     * Executa a transação de forma assíncrona na thread de escrita.
+     * @param transaction Transação a ser executada
+     * @param callback Callback opcional, chamado na main thread
+     */
+    public void execute(final Realm.Transaction transaction, @Nullable final Callback callback) {
+        executor.execute(() -> {
+            try {
+                getWriterRealm().executeTransaction(transaction);
+                if (callback != null) {
+                    mainHandler.post(callback::onSuccess);
+                }
+            } catch (Throwable t) {
+                Log.e(TAG, "Error executing Realm transaction", t);
+                if (callback != null) {
+                    mainHandler.post(() -> callback.onError(t));
+                }
+            }
+        });
+    }
+
+    /**
+     * Executa a transação na thread de escrita e aguarda a sua conclusão.
+     * Destinado a workers e outras threads de background; nunca deve ser chamado na main thread.
+     */
+    public void executeAndWait(final Realm.Transaction transaction) throws ExecutionException, InterruptedException {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("executeAndWait cannot be called on the main thread");
+        }
+
+        // Chamadas aninhadas a partir da própria thread de escrita executam diretamente
+        if (Thread.currentThread() == writerThread) {
+            getWriterRealm().executeTransaction(transaction);
+            return;
+        }
+
+        Future<?> future = executor.submit(() -> getWriterRealm().executeTransaction(transaction));
+        future.get();
+    }
+
+    private Realm getWriterRealm() {
+        if (writerRealm == null || writerRealm.isClosed()) {
+            writerRealm = Realm.getDefaultInstance();
+        }
+        return writerRealm;
+    }
+
+    public void shutdown() {
+        executor.execute(() -> {
+            if (writerRealm != null && !writerRealm.isClosed()) {
+                writerRealm.close();
+            }
+            writerRealm = null;
+        });
+        executor.shutdown();
+    }
+}
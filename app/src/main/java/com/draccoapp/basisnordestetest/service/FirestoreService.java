@@ -5,18 +5,38 @@ import android.content.Intent;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
 import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.messaging.FirebaseMessaging;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -26,6 +46,11 @@ public class FirestoreService {
     private static final String TAG = "FirestoreService";
     private static final String COLLECTION_PERSONS = "persons";
     private static final String COLLECTION_TOKENS = "tokens";
+    private static final String COLLECTION_ADDRESSES = "addresses";
+    // Limite de operações por WriteBatch imposto pelo Firestore
+    static final int MAX_BATCH_OPERATIONS = 500;
+    // Timestamp do servidor gravado em toda escrita da pessoa; base do recebimento incremental
+    static final String FIELD_UPDATED_AT = "updatedAt";
 
     private final FirebaseFirestore db;
     private String currentUserToken;
@@ -36,6 +61,46 @@ public class FirestoreService {
         void onFailure(Exception e);
     }
 
+    public interface PersonChangesCallback {
+        void onSuccess(PersonChanges changes);
+        void onFailure(Exception e);
+    }
+
+    public interface AddressesCallback {
+        /**
+         * @param addressesByPerson endereços indexados pelo id da pessoa
+         */
+        void onSuccess(Map<String, List<AddressDTO>> addressesByPerson);
+        void onFailure(Exception e);
+    }
+
+    /**
+     * Pessoas alteradas e excluídas no Firestore, com o cursor (updatedAt, id) da alteração mais
+     * recente entre elas.
+     */
+    public static class PersonChanges {
+        public final List<PersonDTO> persons;
+        public final List<String> removedIds;
+        // Cursor da alteração mais recente; null se não houver pessoas alteradas
+        public final Timestamp lastUpdatedAt;
+        public final String lastDocumentId;
+
+        PersonChanges(List<PersonDTO> persons, List<String> removedIds,
+                      Timestamp lastUpdatedAt, String lastDocumentId) {
+            this.persons = persons;
+            this.removedIds = removedIds;
+            this.lastUpdatedAt = lastUpdatedAt;
+            this.lastDocumentId = lastDocumentId;
+        }
+    }
+
+    public interface BatchDeleteCallback {
+        /**
+         * @param failures falhas por id de pessoa; vazio se todos os lotes foram confirmados
+         */
+        void onComplete(Map<String, Exception> failures);
+    }
+
     @Inject
     public FirestoreService(Context applicationContext) {
         this.applicationContext = applicationContext;
@@ -88,114 +153,398 @@ public class FirestoreService {
                 });
     }
 
-    public void savePerson(PersonDTO person, FirestoreCallback callback) {
+    /**
+     * Envia as alterações da pessoa em um único WriteBatch: tudo é confirmado em uma ida ao
+     * servidor, ou nada é. Apenas os campos marcados como alterados no DTO são gravados, com
+     * {@link SetOptions#merge()}, e endereços sem alteração não são reenviados. Se as operações
+     * passarem do limite de um lote, os lotes são confirmados em sequência e o documento da
+     * pessoa vai no último, de modo que ele só aparece atualizado depois dos endereços.
+     * O callback é chamado exatamente uma vez.
+     *
+     * @param removedAddressIds Endereços que não existem mais e devem ser excluídos
+     */
+    public void savePerson(PersonDTO person, List<String> removedAddressIds, FirestoreCallback callback) {
+        String personId = person.getId();
+        DocumentReference personRef = db.collection(COLLECTION_PERSONS).document(personId);
+        BatchChunker chunker = new BatchChunker();
+
+        boolean addressesChanged = !removedAddressIds.isEmpty();
+        List<AddressDTO> addresses = person.getAddresses();
+        if (addresses != null) {
+            for (AddressDTO address : addresses) {
+                if (!address.isDirty()) {
+                    continue;
+                }
+                addressesChanged = true;
+                chunker.batchFor(personId).set(
+                        personRef.collection(COLLECTION_ADDRESSES).document(address.getId()),
+                        toAddressData(address));
+            }
+        }
+        for (String addressId : removedAddressIds) {
+            chunker.batchFor(personId).delete(personRef.collection(COLLECTION_ADDRESSES).document(addressId));
+        }
+        Map<String, Object> personData = toPersonData(person, addressesChanged);
+        if (!personData.isEmpty()) {
+            personData.put(FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+            chunker.batchFor(personId).set(personRef, personData, SetOptions.merge());
+        }
+
+        if (chunker.batches.isEmpty()) {
+            callback.onSuccess(personId);
+            return;
+        }
+        commitInOrder(chunker.batches).addOnCompleteListener(new OnCompleteListener<Void>() {
+            @Override
+            public void onComplete(@NonNull Task<Void> task) {
+                if (task.isSuccessful()) {
+                    Log.d(TAG, "Person saved to Firestore with ID: " + personId);
+                    callback.onSuccess(personId);
+                } else {
+                    Log.w(TAG, "Error saving person to Firestore", task.getException());
+                    callback.onFailure(task.getException());
+                }
+            }
+        });
+    }
+
+    // Apenas os campos alterados; o resumo dos endereços acompanha qualquer mudança neles
+    private Map<String, Object> toPersonData(PersonDTO person, boolean addressesChanged) {
+        Set<String> dirtyFields = person.getDirtyFields();
         Map<String, Object> personData = new HashMap<>();
-        personData.put("id", person.getId());
-        personData.put("personType", person.getPersonType().name());
-        personData.put("name", person.getName());
-        personData.put("cpf", person.getCpf());
-        personData.put("companyName", person.getCompanyName());
-        personData.put("cnpj", person.getCnpj());
-        personData.put("phoneNumber", person.getPhoneNumber());
-        personData.put("email", person.getEmail());
-        personData.put("createdAt", person.getCreatedAt());
-        personData.put("latitude", person.getLatitude());
-        personData.put("longitude", person.getLongitude());
-        personData.put("deviceName", person.getDeviceName());
-        personData.put("createdByToken", currentUserToken);
-
-        // Adicionar endereços como subcoleção ou array
-        if (person.getAddresses() != null && !person.getAddresses().isEmpty()) {
-            personData.put("hasAddresses", true);
-            personData.put("addressCount", person.getAddresses().size());
-        } else {
-            personData.put("hasAddresses", false);
-            personData.put("addressCount", 0);
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_ID, person.getId());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_PERSON_TYPE, person.getPersonType().name());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_NAME, person.getName());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_CPF, person.getCpf());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_COMPANY_NAME, person.getCompanyName());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_CNPJ, person.getCnpj());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_PHONE_NUMBER, person.getPhoneNumber());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_EMAIL, person.getEmail());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_CREATED_AT, person.getCreatedAt());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_LATITUDE, person.getLatitude());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_LONGITUDE, person.getLongitude());
+        putIfDirty(personData, dirtyFields, PersonDTO.FIELD_DEVICE_NAME, person.getDeviceName());
+        if (dirtyFields.contains(PersonDTO.FIELD_CREATED_AT)) {
+            // Registrado junto com a criação do documento
+            personData.put("createdByToken", currentUserToken);
         }
 
-        db.collection(COLLECTION_PERSONS)
-                .document(person.getId())
-                .set(personData)
-                .addOnSuccessListener(new OnSuccessListener<Void>() {
-                    @Override
-                    public void onSuccess(Void aVoid) {
-                        Log.d(TAG, "Person saved to Firestore with ID: " + person.getId());
+        // Endereços ficam na subcoleção; o documento da pessoa guarda apenas o resumo
+        if (addressesChanged || dirtyFields.contains(PersonDTO.FIELD_ID)) {
+            int addressCount = person.getAddresses() != null ? person.getAddresses().size() : 0;
+            personData.put("hasAddresses", addressCount > 0);
+            personData.put("addressCount", addressCount);
+        }
+        return personData;
+    }
 
-                        // Se houver endereços, salvá-los como subcoleção
-                        if (person.getAddresses() != null && !person.getAddresses().isEmpty()) {
-                            saveAddresses(person, callback);
-                        } else {
-                            callback.onSuccess(person.getId());
-                        }
+    private static void putIfDirty(Map<String, Object> data, Set<String> dirtyFields, String field, Object value) {
+        if (dirtyFields.contains(field)) {
+            data.put(field, value);
+        }
+    }
+
+    // Endereços alterados são gravados inteiros: o documento é pequeno e o set dispensa merge
+    private static Map<String, Object> toAddressData(AddressDTO address) {
+        Map<String, Object> addressData = new HashMap<>();
+        addressData.put(AddressDTO.FIELD_ID, address.getId());
+        addressData.put(AddressDTO.FIELD_ADDRESS_TYPE, address.getAddressType().name());
+        addressData.put(AddressDTO.FIELD_STREET, address.getStreet());
+        addressData.put(AddressDTO.FIELD_NUMBER, address.getNumber());
+        addressData.put(AddressDTO.FIELD_COMPLEMENT, address.getComplement());
+        addressData.put(AddressDTO.FIELD_NEIGHBORHOOD, address.getNeighborhood());
+        addressData.put(AddressDTO.FIELD_ZIP_CODE, address.getZipCode());
+        addressData.put(AddressDTO.FIELD_CITY, address.getCity());
+        addressData.put(AddressDTO.FIELD_STATE, address.getState());
+        return addressData;
+    }
+
+    /**
+     * Busca, direto do servidor, até limit pessoas alteradas depois do cursor informado, junto
+     * com os seus endereços. O callback é chamado uma única vez, na main thread.
+     * Documentos sem updatedAt (gravados antes do campo existir) não são retornados.
+     *
+     * @param afterUpdatedAt updatedAt do último documento já recebido, ou null para começar do início
+     * @param afterDocumentId id do último documento já recebido; ignorado se afterUpdatedAt for null
+     */
+    public void fetchPersonsUpdatedAfter(@Nullable Timestamp afterUpdatedAt, @Nullable String afterDocumentId,
+                                         int limit, PersonChangesCallback callback) {
+        Query query = db.collection(COLLECTION_PERSONS);
+        if (afterUpdatedAt != null) {
+            // >= e não >: as pessoas de um mesmo commit têm o mesmo updatedAt, e o cursor desempata pelo id
+            query = query.whereGreaterThanOrEqualTo(FIELD_UPDATED_AT, afterUpdatedAt);
+        }
+        query = query.orderBy(FIELD_UPDATED_AT).orderBy(FieldPath.documentId()).limit(limit);
+        if (afterUpdatedAt != null) {
+            query = query.startAfter(afterUpdatedAt, afterDocumentId);
+        }
+
+        query.get(Source.SERVER)
+                .onSuccessTask(page -> {
+                    List<String> personIds = new ArrayList<>(page.size());
+                    for (DocumentSnapshot document : page.getDocuments()) {
+                        personIds.add(document.getId());
                     }
+                    return queryAddresses(personIds)
+                            .onSuccessTask(addresses -> Tasks.forResult(toPersonChanges(page, addresses)));
                 })
-                .addOnFailureListener(new OnFailureListener() {
+                .addOnCompleteListener(new OnCompleteListener<PersonChanges>() {
                     @Override
-                    public void onFailure(@NonNull Exception e) {
-                        Log.w(TAG, "Error saving person to Firestore", e);
-                        callback.onFailure(e);
+                    public void onComplete(@NonNull Task<PersonChanges> task) {
+                        if (task.isSuccessful()) {
+                            callback.onSuccess(task.getResult());
+                        } else {
+                            Log.w(TAG, "Error fetching person changes from Firestore", task.getException());
+                            callback.onFailure(task.getException());
+                        }
                     }
                 });
     }
 
-    private void saveAddresses(PersonDTO person, FirestoreCallback callback) {
-        final int[] addressesSaved = {0};
-        final int totalAddresses = person.getAddresses().size();
-
-        for (int i = 0; i < person.getAddresses().size(); i++) {
-            Map<String, Object> addressData = new HashMap<>();
-            addressData.put("id", person.getAddresses().get(i).getId());
-            addressData.put("addressType", person.getAddresses().get(i).getAddressType().name());
-            addressData.put("street", person.getAddresses().get(i).getStreet());
-            addressData.put("number", person.getAddresses().get(i).getNumber());
-            addressData.put("complement", person.getAddresses().get(i).getComplement());
-            addressData.put("neighborhood", person.getAddresses().get(i).getNeighborhood());
-            addressData.put("zipCode", person.getAddresses().get(i).getZipCode());
-            addressData.put("city", person.getAddresses().get(i).getCity());
-            addressData.put("state", person.getAddresses().get(i).getState());
-
-            db.collection(COLLECTION_PERSONS)
-                    .document(person.getId())
-                    .collection("addresses")
-                    .document(person.getAddresses().get(i).getId())
-                    .set(addressData)
-                    .addOnSuccessListener(new OnSuccessListener<Void>() {
-                        @Override
-                        public void onSuccess(Void aVoid) {
-                            addressesSaved[0]++;
-                            if (addressesSaved[0] == totalAddresses) {
-                                callback.onSuccess(person.getId());
-                            }
+    /**
+     * Escuta em tempo real as pessoas com updatedAt a partir do informado. Cada evento traz só o
+     * que mudou desde o anterior (DocumentChange), sem os endereços, e é entregue no executor
+     * informado. Como updatedAt só cresce, um documento só sai da consulta quando é excluído.
+     * Documentos com escritas locais pendentes são ignorados: são alterações deste aparelho que
+     * voltam quando o servidor as confirmar.
+     *
+     * @param fromUpdatedAt updatedAt mínimo, ou null para todas as pessoas com updatedAt
+     */
+    public ListenerRegistration listenPersonChanges(@Nullable Timestamp fromUpdatedAt, Executor executor,
+                                                    PersonChangesCallback callback) {
+        Timestamp from = fromUpdatedAt != null ? fromUpdatedAt : new Timestamp(0, 0);
+        return db.collection(COLLECTION_PERSONS)
+                .whereGreaterThanOrEqualTo(FIELD_UPDATED_AT, from)
+                .addSnapshotListener(executor, MetadataChanges.EXCLUDE, (snapshot, error) -> {
+                    if (error != null) {
+                        Log.w(TAG, "Person listener failed", error);
+                        callback.onFailure(error);
+                        return;
+                    }
+                    List<PersonDTO> persons = new ArrayList<>();
+                    List<String> removedIds = new ArrayList<>();
+                    Timestamp lastUpdatedAt = null;
+                    String lastDocumentId = null;
+                    for (DocumentChange change : snapshot.getDocumentChanges()) {
+                        DocumentSnapshot document = change.getDocument();
+                        if (change.getType() == DocumentChange.Type.REMOVED) {
+                            removedIds.add(document.getId());
+                            continue;
                         }
-                    })
-                    .addOnFailureListener(new OnFailureListener() {
-                        @Override
-                        public void onFailure(@NonNull Exception e) {
-                            Log.w(TAG, "Error saving address to Firestore", e);
-                            callback.onFailure(e);
+                        Timestamp updatedAt = document.getTimestamp(FIELD_UPDATED_AT);
+                        if (document.getMetadata().hasPendingWrites() || updatedAt == null) {
+                            continue;
                         }
-                    });
+                        PersonDTO person = toPersonDTO(document);
+                        person.markClean();
+                        persons.add(person);
+                        if (lastUpdatedAt == null || isAfter(updatedAt, document.getId(), lastUpdatedAt, lastDocumentId)) {
+                            lastUpdatedAt = updatedAt;
+                            lastDocumentId = document.getId();
+                        }
+                    }
+                    if (!persons.isEmpty() || !removedIds.isEmpty()) {
+                        callback.onSuccess(new PersonChanges(persons, removedIds, lastUpdatedAt, lastDocumentId));
+                    }
+                });
+    }
+
+    /**
+     * Busca, direto do servidor, os endereços das pessoas informadas, com uma consulta por pessoa
+     * em paralelo. O callback é chamado uma única vez, na main thread.
+     */
+    public void fetchAddresses(List<String> personIds, AddressesCallback callback) {
+        queryAddresses(personIds).addOnCompleteListener(new OnCompleteListener<List<QuerySnapshot>>() {
+            @Override
+            public void onComplete(@NonNull Task<List<QuerySnapshot>> task) {
+                if (!task.isSuccessful()) {
+                    Log.w(TAG, "Error fetching addresses from Firestore", task.getException());
+                    callback.onFailure(task.getException());
+                    return;
+                }
+                List<QuerySnapshot> results = task.getResult();
+                Map<String, List<AddressDTO>> addressesByPerson = new HashMap<>();
+                for (int i = 0; i < personIds.size(); i++) {
+                    addressesByPerson.put(personIds.get(i), toAddressList(results.get(i)));
+                }
+                callback.onSuccess(addressesByPerson);
+            }
+        });
+    }
+
+    // Os resultados vêm na mesma ordem dos ids
+    private Task<List<QuerySnapshot>> queryAddresses(List<String> personIds) {
+        List<Task<QuerySnapshot>> queries = new ArrayList<>(personIds.size());
+        for (String personId : personIds) {
+            queries.add(db.collection(COLLECTION_PERSONS).document(personId)
+                    .collection(COLLECTION_ADDRESSES).get(Source.SERVER));
         }
+        return Tasks.whenAllSuccess(queries);
     }
 
-    public void deletePerson(String personId, FirestoreCallback callback) {
-        db.collection(COLLECTION_PERSONS)
-                .document(personId)
-                .delete()
-                .addOnSuccessListener(new OnSuccessListener<Void>() {
-                    @Override
-                    public void onSuccess(Void aVoid) {
-                        Log.d(TAG, "Person deleted from Firestore with ID: " + personId);
-                        callback.onSuccess(personId);
+    /**
+     * Compara cursores pela ordem (updatedAt, id) usada nas consultas de alterações.
+     * @return true se (updatedAt, documentId) vem depois de (otherUpdatedAt, otherDocumentId)
+     */
+    public static boolean isAfter(Timestamp updatedAt, String documentId,
+                                  Timestamp otherUpdatedAt, String otherDocumentId) {
+        int byTime = updatedAt.compareTo(otherUpdatedAt);
+        return byTime > 0 || (byTime == 0 && documentId.compareTo(otherDocumentId) > 0);
+    }
+
+    private static PersonChanges toPersonChanges(QuerySnapshot page, List<QuerySnapshot> addresses) {
+        List<DocumentSnapshot> documents = page.getDocuments();
+        List<PersonDTO> persons = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            PersonDTO person = toPersonDTO(documents.get(i));
+            person.setAddresses(toAddressList(addresses.get(i)));
+            person.markClean();
+            persons.add(person);
+        }
+        if (documents.isEmpty()) {
+            return new PersonChanges(persons, new ArrayList<>(), null, null);
+        }
+        DocumentSnapshot last = documents.get(documents.size() - 1);
+        return new PersonChanges(persons, new ArrayList<>(), last.getTimestamp(FIELD_UPDATED_AT), last.getId());
+    }
+
+    private static PersonDTO toPersonDTO(DocumentSnapshot document) {
+        PersonDTO person = new PersonDTO();
+        person.setId(document.getId());
+        person.setPersonType(document.getString(PersonDTO.FIELD_PERSON_TYPE));
+        person.setName(document.getString(PersonDTO.FIELD_NAME));
+        person.setCpf(document.getString(PersonDTO.FIELD_CPF));
+        person.setCompanyName(document.getString(PersonDTO.FIELD_COMPANY_NAME));
+        person.setCnpj(document.getString(PersonDTO.FIELD_CNPJ));
+        person.setPhoneNumber(document.getString(PersonDTO.FIELD_PHONE_NUMBER));
+        person.setEmail(document.getString(PersonDTO.FIELD_EMAIL));
+        person.setDeviceName(document.getString(PersonDTO.FIELD_DEVICE_NAME));
+        Long createdAt = document.getLong(PersonDTO.FIELD_CREATED_AT);
+        person.setCreatedAt(createdAt != null ? createdAt : 0L);
+        Double latitude = document.getDouble(PersonDTO.FIELD_LATITUDE);
+        person.setLatitude(latitude != null ? latitude : 0.0);
+        Double longitude = document.getDouble(PersonDTO.FIELD_LONGITUDE);
+        person.setLongitude(longitude != null ? longitude : 0.0);
+        return person;
+    }
+
+    private static List<AddressDTO> toAddressList(QuerySnapshot addresses) {
+        List<AddressDTO> addressList = new ArrayList<>(addresses.size());
+        for (DocumentSnapshot document : addresses.getDocuments()) {
+            addressList.add(toAddressDTO(document));
+        }
+        return addressList;
+    }
+
+    private static AddressDTO toAddressDTO(DocumentSnapshot document) {
+        AddressDTO address = new AddressDTO();
+        address.setId(document.getId());
+        address.setAddressType(document.getString(AddressDTO.FIELD_ADDRESS_TYPE));
+        address.setStreet(document.getString(AddressDTO.FIELD_STREET));
+        address.setNumber(document.getString(AddressDTO.FIELD_NUMBER));
+        address.setComplement(document.getString(AddressDTO.FIELD_COMPLEMENT));
+        address.setNeighborhood(document.getString(AddressDTO.FIELD_NEIGHBORHOOD));
+        address.setZipCode(document.getString(AddressDTO.FIELD_ZIP_CODE));
+        address.setCity(document.getString(AddressDTO.FIELD_CITY));
+        address.setState(document.getString(AddressDTO.FIELD_STATE));
+        address.markClean();
+        return address;
+    }
+
+    // Confirma os lotes um após o outro, parando no primeiro que falhar
+    private static Task<Void> commitInOrder(List<WriteBatch> batches) {
+        Task<Void> task = batches.get(0).commit();
+        for (int i = 1; i < batches.size(); i++) {
+            final WriteBatch next = batches.get(i);
+            task = task.onSuccessTask(ignored -> next.commit());
+        }
+        return task;
+    }
+
+    /**
+     * Exclui várias pessoas e os documentos da subcoleção de endereços usando WriteBatch,
+     * em lotes de até {@link #MAX_BATCH_OPERATIONS} operações, em vez de uma requisição por documento.
+     * Os lotes são confirmados em paralelo e o callback é chamado uma única vez, na main thread,
+     * quando todos terminarem. Uma pessoa cujos documentos ficaram em um lote com falha é
+     * reportada como falha.
+     *
+     * @param addressIdsByPerson ids dos endereços de cada pessoa, indexados pelo id da pessoa
+     */
+    public void deletePersons(Map<String, List<String>> addressIdsByPerson, BatchDeleteCallback callback) {
+        BatchChunker chunker = new BatchChunker();
+        for (Map.Entry<String, List<String>> entry : addressIdsByPerson.entrySet()) {
+            String personId = entry.getKey();
+            DocumentReference personRef = db.collection(COLLECTION_PERSONS).document(personId);
+
+            // Mantém os documentos de uma pessoa no mesmo lote sempre que couberem
+            chunker.reserve(entry.getValue().size() + 1);
+            for (String addressId : entry.getValue()) {
+                chunker.batchFor(personId).delete(personRef.collection(COLLECTION_ADDRESSES).document(addressId));
+            }
+            chunker.batchFor(personId).delete(personRef);
+        }
+        final List<WriteBatch> batches = chunker.batches;
+        final List<List<String>> batchPersonIds = chunker.personIds;
+
+        final Map<String, Exception> failures = new LinkedHashMap<>();
+        if (batches.isEmpty()) {
+            callback.onComplete(failures);
+            return;
+        }
+
+        final int[] pending = {batches.size()};
+        for (int i = 0; i < batches.size(); i++) {
+            final List<String> ids = batchPersonIds.get(i);
+            batches.get(i).commit().addOnCompleteListener(new OnCompleteListener<Void>() {
+                @Override
+                public void onComplete(@NonNull Task<Void> task) {
+                    if (!task.isSuccessful()) {
+                        Log.w(TAG, "Error deleting batch of " + ids.size() + " persons", task.getException());
+                        for (String id : ids) {
+                            failures.put(id, task.getException());
+                        }
                     }
-                })
-                .addOnFailureListener(new OnFailureListener() {
-                    @Override
-                    public void onFailure(@NonNull Exception e) {
-                        Log.w(TAG, "Error deleting person from Firestore", e);
-                        callback.onFailure(e);
+                    pending[0]--;
+                    if (pending[0] == 0) {
+                        Log.d(TAG, "Batch delete finished: " + addressIdsByPerson.size()
+                                + " persons, " + failures.size() + " failures");
+                        callback.onComplete(failures);
                     }
-                });
+                }
+            });
+        }
+    }
+
+    /**
+     * Distribui operações em WriteBatches de até MAX_BATCH_OPERATIONS operações,
+     * registrando quais pessoas têm documentos em cada lote.
+     */
+    private class BatchChunker {
+        final List<WriteBatch> batches = new ArrayList<>();
+        final List<List<String>> personIds = new ArrayList<>();
+        private int operations = MAX_BATCH_OPERATIONS;
+
+        // Inicia um novo lote se as próximas operações não couberem no atual
+        void reserve(int count) {
+            if (operations > 0 && operations + count > MAX_BATCH_OPERATIONS) {
+                operations = MAX_BATCH_OPERATIONS;
+            }
+        }
+
+        // Lote que recebe a próxima operação da pessoa; cada chamada conta como uma operação
+        WriteBatch batchFor(String personId) {
+            if (operations == MAX_BATCH_OPERATIONS) {
+                batches.add(db.batch());
+                personIds.add(new ArrayList<>());
+                operations = 0;
+            }
+            List<String> ids = personIds.get(personIds.size() - 1);
+            if (ids.isEmpty() || !ids.get(ids.size() - 1).equals(personId)) {
+                ids.add(personId);
+            }
+            operations++;
+            return batches.get(batches.size() - 1);
+        }
     }
 
     public void sendNotification(String personId, String title, String message) {
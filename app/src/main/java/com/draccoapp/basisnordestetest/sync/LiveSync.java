@@ -0,0 +1,266 @@
+package com.draccoapp.basisnordestetest.sync;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.model.SyncState;
+import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.repository.RealmWriteExecutor;
+import com.draccoapp.basisnordestetest.service.FirestoreService;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import io.realm.Realm;
+
+/**
+ * Modo ao vivo: espelha no Realm, enquanto o app está em primeiro plano, as alterações que
+ * outros aparelhos fazem na coleção de pessoas do Firestore.
+ *
+ * Os eventos do listener são acumulados em uma thread própria e aplicados no máximo a cada
+ * {@link #FLUSH_INTERVAL_MS}, em uma única transação no {@link RealmWriteExecutor}: uma rajada de
+ * alterações remotas vira um commit e uma atualização da lista. O listener começa na marca
+ * d'água do {@link PersonPuller} e a avança a cada commit. Se um commit falhar, o listener é
+ * encerrado e as alterações são recebidas pelo próximo {@link SyncWorker}, a partir da marca
+ * d'água que não avançou.
+ *
+ * Desligado por padrão, porque cada alteração remota recebida conta como leitura no Firestore;
+ * o usuário liga pelo seletor "Ao vivo" da lista de pessoas ({@link #setEnabled(boolean)}).
+ */
+@Singleton
+public class LiveSync {
+    private static final String TAG = "LiveSync";
+    private static final String PREFS_NAME = "sync";
+    private static final String KEY_ENABLED = "live_sync_enabled";
+
+    // Intervalo mínimo entre commits das alterações recebidas
+    static final long FLUSH_INTERVAL_MS = 300;
+    private static final long FETCH_TIMEOUT_SECONDS = 60;
+
+    private final SharedPreferences preferences;
+    private final FirestoreService firestoreService;
+    private final PersonMapper personMapper;
+    private final RealmWriteExecutor writeExecutor;
+    private final SyncScheduler syncScheduler;
+
+    // Recebe os eventos do listener e aplica os lotes; todo o estado abaixo pertence a esta thread
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "live-sync"));
+
+    // Entre start() e stop(), ou seja, com o app em primeiro plano
+    private volatile boolean foreground;
+    private ListenerRegistration registration;
+    private ScheduledFuture<?> scheduledFlush;
+    private final Map<String, PersonDTO> pendingUpserts = new LinkedHashMap<>();
+    private final Set<String> pendingRemovals = new LinkedHashSet<>();
+    private Timestamp pendingUpdatedAt;
+    private String pendingDocumentId;
+
+    @Inject
+    public LiveSync(@ApplicationContext Context context, FirestoreService firestoreService,
+                    PersonMapper personMapper, RealmWriteExecutor writeExecutor, SyncScheduler syncScheduler) {
+        this.preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.firestoreService = firestoreService;
+        this.personMapper = personMapper;
+        this.writeExecutor = writeExecutor;
+        this.syncScheduler = syncScheduler;
+    }
+
+    public boolean isEnabled() {
+        return preferences.getBoolean(KEY_ENABLED, false);
+    }
+
+    /**
+     * Liga ou desliga o modo ao vivo. A escolha é persistida; o listener só roda entre
+     * {@link #start()} e {@link #stop()}, e começa na hora se o app já estiver em primeiro plano.
+     */
+    public void setEnabled(boolean enabled) {
+        preferences.edit().putBoolean(KEY_ENABLED, enabled).apply();
+        if (!enabled) {
+            removeListenerAsync();
+        } else if (foreground) {
+            addListenerAsync();
+        }
+    }
+
+    /**
+     * Inicia o listener se o modo ao vivo estiver ligado. Chamado quando o app vai para o
+     * primeiro plano; chamadas repetidas não abrem outro listener.
+     */
+    public void start() {
+        foreground = true;
+        if (isEnabled()) {
+            addListenerAsync();
+        }
+    }
+
+    /**
+     * Para o listener. As alterações já recebidas ainda são aplicadas.
+     */
+    public void stop() {
+        foreground = false;
+        removeListenerAsync();
+    }
+
+    /**
+     * @return true se o listener estiver aberto; espera as chamadas anteriores a start(),
+     * stop() e setEnabled() terminarem
+     */
+    boolean isListening() throws InterruptedException, ExecutionException {
+        return executor.submit(() -> registration != null).get();
+    }
+
+    private void addListenerAsync() {
+        executor.execute(() -> {
+            if (registration != null) {
+                return;
+            }
+            registration = firestoreService.listenPersonChanges(readWatermark(), executor,
+                    new FirestoreService.PersonChangesCallback() {
+                        @Override
+                        public void onSuccess(FirestoreService.PersonChanges changes) {
+                            accumulate(changes);
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            // Ex.: permissão negada; o recebimento incremental continua pelo SyncWorker
+                            registration = null;
+                        }
+                    });
+            Log.d(TAG, "Live sync started");
+        });
+    }
+
+    private void removeListenerAsync() {
+        executor.execute(() -> {
+            if (registration != null) {
+                registration.remove();
+                registration = null;
+                Log.d(TAG, "Live sync stopped");
+            }
+        });
+    }
+
+    private void removeListener() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        pendingUpserts.clear();
+        pendingRemovals.clear();
+        pendingUpdatedAt = null;
+        pendingDocumentId = null;
+    }
+
+    private static Timestamp readWatermark() {
+        try (Realm realm = Realm.getDefaultInstance()) {
+            SyncState state = realm.where(SyncState.class).equalTo("collection", SyncState.PERSONS).findFirst();
+            if (state == null || state.getWatermarkDocumentId() == null) {
+                return null;
+            }
+            return new Timestamp(state.getWatermarkSeconds(), state.getWatermarkNanos());
+        }
+    }
+
+    // Combina o evento com os ainda não aplicados; o último estado de cada pessoa prevalece
+    private void accumulate(FirestoreService.PersonChanges changes) {
+        if (registration == null) {
+            // Evento já enfileirado quando o listener foi encerrado
+            return;
+        }
+        for (PersonDTO person : changes.persons) {
+            pendingRemovals.remove(person.getId());
+            pendingUpserts.put(person.getId(), person);
+        }
+        for (String personId : changes.removedIds) {
+            pendingUpserts.remove(personId);
+            pendingRemovals.add(personId);
+        }
+        if (changes.lastUpdatedAt != null && (pendingUpdatedAt == null || FirestoreService.isAfter(
+                changes.lastUpdatedAt, changes.lastDocumentId, pendingUpdatedAt, pendingDocumentId))) {
+            pendingUpdatedAt = changes.lastUpdatedAt;
+            pendingDocumentId = changes.lastDocumentId;
+        }
+
+        if (scheduledFlush == null) {
+            scheduledFlush = executor.schedule(this::flush, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        scheduledFlush = null;
+        Map<String, PersonDTO> upserts = new LinkedHashMap<>(pendingUpserts);
+        List<String> removals = new ArrayList<>(pendingRemovals);
+        Timestamp lastUpdatedAt = pendingUpdatedAt;
+        String lastDocumentId = pendingDocumentId;
+        pendingUpserts.clear();
+        pendingRemovals.clear();
+        pendingUpdatedAt = null;
+        pendingDocumentId = null;
+
+        try {
+            // O listener não traz a subcoleção de endereços; uma consulta por pessoa alterada
+            Map<String, List<AddressDTO>> addresses = upserts.isEmpty()
+                    ? Collections.<String, List<AddressDTO>>emptyMap()
+                    : fetchAddresses(new ArrayList<>(upserts.keySet()));
+            Map<String, Person> persons = new LinkedHashMap<>();
+            for (PersonDTO dto : upserts.values()) {
+                List<AddressDTO> personAddresses = addresses.get(dto.getId());
+                dto.setAddresses(personAddresses != null ? personAddresses : new ArrayList<>());
+                persons.put(dto.getId(), personMapper.toRealm(dto));
+            }
+
+            final int[] applied = {0};
+            writeExecutor.executeAndWait(realm -> applied[0] = PersonPuller.applyRemoteChanges(
+                    realm, persons, removals, lastUpdatedAt, lastDocumentId));
+            Log.d(TAG, "Applied " + applied[0] + " live changes in one commit");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Commits posteriores avançariam a marca d'água além deste lote; o listener é
+            // encerrado e o SyncWorker recebe as alterações a partir da marca d'água atual
+            Log.w(TAG, "Error applying live changes, falling back to incremental pull", e);
+            removeListener();
+            syncScheduler.requestSync();
+        }
+    }
+
+    private Map<String, List<AddressDTO>> fetchAddresses(List<String> personIds) throws Exception {
+        TaskCompletionSource<Map<String, List<AddressDTO>>> result = new TaskCompletionSource<>();
+        firestoreService.fetchAddresses(personIds, new FirestoreService.AddressesCallback() {
+            @Override
+            public void onSuccess(Map<String, List<AddressDTO>> addressesByPerson) {
+                result.trySetResult(addressesByPerson);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                result.trySetException(e);
+            }
+        });
+        return Tasks.await(result.getTask(), FETCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
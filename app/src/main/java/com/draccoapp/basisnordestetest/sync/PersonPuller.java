@@ -0,0 +1,218 @@
+package com.draccoapp.basisnordestetest.sync;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.PendingSync;
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.model.SyncState;
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.repository.PersonSearchIndex;
+import com.draccoapp.basisnordestetest.repository.RealmWriteExecutor;
+import com.draccoapp.basisnordestetest.service.FirestoreService;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import io.realm.Realm;
+import io.realm.RealmList;
+import io.realm.RealmResults;
+
+/**
+ * Recebimento incremental das pessoas do Firestore para o Realm.
+ *
+ * As pessoas são buscadas em páginas ordenadas por (updatedAt, id) a partir da marca d'água
+ * ({@link SyncState}), e cada página é gravada em uma única transação no
+ * {@link RealmWriteExecutor}, junto com a nova marca d'água. Depois do primeiro recebimento,
+ * apenas o que mudou desde o anterior é buscado.
+ *
+ * Pessoas com alterações locais ainda no outbox não são sobrescritas: o envio delas prevalece
+ * e o documento volta no próximo recebimento. Exclusões no Firestore só são recebidas pelo
+ * {@link LiveSync}, que as enxerga como documentos saindo da consulta.
+ *
+ * Deve ser executado fora da main thread.
+ */
+public class PersonPuller {
+    private static final String TAG = "PersonPuller";
+
+    // Cada página gera uma consulta de endereços por pessoa, então páginas menores que as do envio
+    static final int PAGE_SIZE = 200;
+    private static final long FETCH_TIMEOUT_SECONDS = 60;
+
+    private final FirestoreService firestoreService;
+    private final PersonMapper personMapper;
+    private final RealmWriteExecutor writeExecutor;
+
+    public PersonPuller(FirestoreService firestoreService, PersonMapper personMapper,
+                        RealmWriteExecutor writeExecutor) {
+        this.firestoreService = firestoreService;
+        this.personMapper = personMapper;
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * Busca e aplica as páginas até alcançar o servidor.
+     * @param stopped Consultado entre as páginas; quando true, para após a última página confirmada
+     * @return Quantidade de pessoas gravadas no Realm
+     */
+    public int run(BooleanSupplier stopped)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        Timestamp afterUpdatedAt = null;
+        String afterDocumentId = null;
+        try (Realm realm = Realm.getDefaultInstance()) {
+            SyncState state = realm.where(SyncState.class).equalTo("collection", SyncState.PERSONS).findFirst();
+            if (state != null && state.getWatermarkDocumentId() != null) {
+                afterUpdatedAt = new Timestamp(state.getWatermarkSeconds(), state.getWatermarkNanos());
+                afterDocumentId = state.getWatermarkDocumentId();
+            }
+        }
+
+        int applied = 0;
+        while (!stopped.getAsBoolean()) {
+            FirestoreService.PersonChanges page = fetch(afterUpdatedAt, afterDocumentId);
+            if (page.persons.isEmpty()) {
+                break;
+            }
+            applied += apply(page);
+            afterUpdatedAt = page.lastUpdatedAt;
+            afterDocumentId = page.lastDocumentId;
+            if (page.persons.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+
+        Log.d(TAG, "Pulled " + applied + " persons from Firestore");
+        return applied;
+    }
+
+    private FirestoreService.PersonChanges fetch(Timestamp afterUpdatedAt, String afterDocumentId)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        TaskCompletionSource<FirestoreService.PersonChanges> result = new TaskCompletionSource<>();
+        firestoreService.fetchPersonsUpdatedAfter(afterUpdatedAt, afterDocumentId, PAGE_SIZE,
+                new FirestoreService.PersonChangesCallback() {
+                    @Override
+                    public void onSuccess(FirestoreService.PersonChanges changes) {
+                        result.trySetResult(changes);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        result.trySetException(e);
+                    }
+                });
+        return Tasks.await(result.getTask(), FETCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Grava a página e a nova marca d'água na mesma transação
+    private int apply(FirestoreService.PersonChanges page) throws ExecutionException, InterruptedException {
+        Map<String, Person> persons = new LinkedHashMap<>();
+        for (PersonDTO dto : page.persons) {
+            persons.put(dto.getId(), personMapper.toRealm(dto));
+        }
+        final int[] applied = {0};
+        writeExecutor.executeAndWait(realm -> applied[0] = applyRemoteChanges(realm, persons,
+                page.removedIds, page.lastUpdatedAt, page.lastDocumentId));
+        return applied[0];
+    }
+
+    /**
+     * Aplica no Realm pessoas recebidas do Firestore e avança a marca d'água, sem registrar nada
+     * no outbox. Pessoas com alterações locais pendentes de envio são mantidas como estão.
+     * Deve ser chamado dentro de uma transação.
+     *
+     * @param persons Pessoas recebidas, com os endereços, indexadas pelo id
+     * @param removedIds Pessoas excluídas no Firestore
+     * @param lastUpdatedAt Cursor da alteração mais recente; a marca d'água só avança
+     * @return Quantidade de pessoas gravadas ou excluídas
+     */
+    static int applyRemoteChanges(Realm realm, Map<String, Person> persons, Collection<String> removedIds,
+                                  @Nullable Timestamp lastUpdatedAt, @Nullable String lastDocumentId) {
+        Set<String> ids = new HashSet<>(persons.keySet());
+        ids.addAll(removedIds);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Set<String> locallyChanged = new HashSet<>();
+        for (PendingSync entry : realm.where(PendingSync.class).in("personId", ids.toArray(new String[0])).findAll()) {
+            locallyChanged.add(entry.getPersonId());
+        }
+        Map<String, Person> upserts = new LinkedHashMap<>(persons);
+        upserts.keySet().removeAll(locallyChanged);
+        List<String> deletes = new ArrayList<>(removedIds);
+        deletes.removeAll(locallyChanged);
+
+        if (!upserts.isEmpty()) {
+            removeMissingAddresses(realm, upserts);
+            realm.insertOrUpdate(upserts.values());
+            PersonSearchIndex.indexAll(realm, upserts.values());
+        }
+        if (!deletes.isEmpty()) {
+            String[] deleteIds = deletes.toArray(new String[0]);
+            RealmResults<Person> deleted = realm.where(Person.class).in("id", deleteIds).findAll();
+            for (Person person : deleted) {
+                person.getAddresses().deleteAllFromRealm();
+            }
+            deleted.deleteAllFromRealm();
+            PersonSearchIndex.removeAll(realm, deleteIds);
+        }
+
+        if (lastUpdatedAt != null) {
+            advanceWatermark(realm, lastUpdatedAt, lastDocumentId);
+        }
+        return upserts.size() + deletes.size();
+    }
+
+    private static void advanceWatermark(Realm realm, Timestamp updatedAt, String documentId) {
+        SyncState state = realm.where(SyncState.class).equalTo("collection", SyncState.PERSONS).findFirst();
+        if (state == null) {
+            state = realm.createObject(SyncState.class, SyncState.PERSONS);
+        } else if (state.getWatermarkDocumentId() != null && !FirestoreService.isAfter(updatedAt, documentId,
+                new Timestamp(state.getWatermarkSeconds(), state.getWatermarkNanos()), state.getWatermarkDocumentId())) {
+            // O recebimento em tempo real e o incremental podem terminar fora de ordem
+            return;
+        }
+        state.setWatermarkSeconds(updatedAt.getSeconds());
+        state.setWatermarkNanos(updatedAt.getNanoseconds());
+        state.setWatermarkDocumentId(documentId);
+        state.setLastPullAt(System.currentTimeMillis());
+    }
+
+    // Endereços locais que não existem mais no Firestore ficariam órfãos após o upsert
+    private static void removeMissingAddresses(Realm realm, Map<String, Person> persons) {
+        RealmResults<Person> existing = realm.where(Person.class)
+                .in("id", persons.keySet().toArray(new String[0]))
+                .findAll();
+        Set<String> keep = new HashSet<>();
+        List<Address> stale = new ArrayList<>();
+        for (Person current : existing) {
+            keep.clear();
+            for (Address address : persons.get(current.getId()).getAddresses()) {
+                keep.add(address.getId());
+            }
+            RealmList<Address> addresses = current.getAddresses();
+            for (Address address : addresses) {
+                if (!keep.contains(address.getId())) {
+                    stale.add(address);
+                }
+            }
+        }
+        for (Address address : stale) {
+            address.deleteFromRealm();
+        }
+    }
+}
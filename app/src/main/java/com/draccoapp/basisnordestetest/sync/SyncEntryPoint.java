@@ -0,0 +1,22 @@
+package com.draccoapp.basisnordestetest.sync;
+
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.repository.RealmWriteExecutor;
+import com.draccoapp.basisnordestetest.service.FirestoreService;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.components.SingletonComponent;
+
+/**
+ * Acesso às dependências do Hilt a partir do {@link SyncWorker}, que é criado pelo WorkManager.
+ */
+@EntryPoint
+@InstallIn(SingletonComponent.class)
+public interface SyncEntryPoint {
+    FirestoreService firestoreService();
+
+    PersonMapper personMapper();
+
+    RealmWriteExecutor realmWriteExecutor();
+}
@@ -0,0 +1,170 @@
+package com.draccoapp.basisnordestetest.sync;
+
+import com.draccoapp.basisnordestetest.model.PendingSync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.realm.Realm;
+import io.realm.RealmList;
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+/**
+ * Registro de operações no outbox de sincronização. Os métodos devem ser chamados dentro da
+ * mesma transação que altera a pessoa, de modo que a alteração local e a pendência de envio
+ * sejam confirmadas (ou descartadas) juntas.
+ */
+public final class SyncOutbox {
+
+    private SyncOutbox() {
+    }
+
+    /**
+     * Registra que a pessoa foi criada ou alterada sem informar o que mudou; o envio manda o
+     * documento inteiro.
+     */
+    public static void enqueueUpsert(Realm realm, String personId) {
+        PendingSync pending = findOrCreate(realm, personId);
+        // Uma pessoa recriada depois de excluída volta a ser um upsert; os endereços antigos continuam a remover
+        pending.setOperation(PendingSync.UPSERT);
+        pending.setFullSync(true);
+        touch(pending);
+    }
+
+    /**
+     * Registra a alteração de campos da pessoa e de endereços específicos. Os campos são
+     * acumulados com os de alterações anteriores ainda não enviadas, e o envio manda apenas eles.
+     *
+     * @param fields Nomes dos campos alterados (ver {@link com.draccoapp.basisnordestetest.model.dto.PersonDTO})
+     * @param addressIds Endereços criados ou alterados
+     */
+    public static void enqueueChanges(Realm realm, String personId, Collection<String> fields,
+                                      Collection<String> addressIds) {
+        if (fields.isEmpty() && addressIds.isEmpty()) {
+            return;
+        }
+        PendingSync pending = findOrCreate(realm, personId);
+        if (!PendingSync.UPSERT.equals(pending.getOperation())) {
+            // Pessoa recriada depois de uma exclusão ainda não enviada: o documento precisa ir inteiro
+            pending.setFullSync(PendingSync.DELETE.equals(pending.getOperation()));
+            pending.setOperation(PendingSync.UPSERT);
+        }
+        addAllMissing(pending.getChangedFields(), fields);
+        addAllMissing(pending.getChangedAddressIds(), addressIds);
+        touch(pending);
+    }
+
+    /**
+     * Registra várias pessoas criadas ou alteradas, com uma única consulta às pendências existentes.
+     */
+    public static void enqueueUpserts(Realm realm, Collection<String> personIds) {
+        if (personIds.isEmpty()) {
+            return;
+        }
+        RealmResults<PendingSync> existing = realm.where(PendingSync.class)
+                .in("personId", personIds.toArray(new String[0]))
+                .findAll();
+        Map<String, PendingSync> byId = new HashMap<>();
+        for (PendingSync pending : existing) {
+            byId.put(pending.getPersonId(), pending);
+        }
+        for (String personId : personIds) {
+            PendingSync pending = byId.get(personId);
+            if (pending == null) {
+                pending = realm.createObject(PendingSync.class, personId);
+            }
+            pending.setOperation(PendingSync.UPSERT);
+            pending.setFullSync(true);
+            touch(pending);
+        }
+    }
+
+    /**
+     * Registra a remoção de um endereço da pessoa.
+     */
+    public static void enqueueAddressRemoval(Realm realm, String personId, String addressId) {
+        PendingSync pending = findOrCreate(realm, personId);
+        // Uma pendência recém-criada tem operação vazia (o campo é @Required), não null
+        if (!PendingSync.UPSERT.equals(pending.getOperation()) && !PendingSync.DELETE.equals(pending.getOperation())) {
+            pending.setOperation(PendingSync.UPSERT);
+        }
+        if (!pending.getRemovedAddressIds().contains(addressId)) {
+            pending.getRemovedAddressIds().add(addressId);
+        }
+        touch(pending);
+    }
+
+    /**
+     * Registra a exclusão da pessoa e dos seus endereços. Substitui qualquer alteração pendente.
+     */
+    public static void enqueueDelete(Realm realm, String personId, Collection<String> addressIds) {
+        PendingSync pending = findOrCreate(realm, personId);
+        pending.setOperation(PendingSync.DELETE);
+        pending.setFullSync(false);
+        pending.getChangedFields().clear();
+        pending.getChangedAddressIds().clear();
+        addAllMissing(pending.getRemovedAddressIds(), addressIds);
+        touch(pending);
+    }
+
+    /**
+     * Pendências descartadas pelo SyncWorker depois de falhar vezes demais ou de serem rejeitadas
+     * pelo Firestore. Continuam no outbox até a pessoa ser alterada de novo ou até
+     * {@link #requeueDeadLetters(Realm)}.
+     */
+    public static RealmResults<PendingSync> findDeadLetters(Realm realm) {
+        return realm.where(PendingSync.class)
+                .equalTo("deadLetter", true)
+                .sort("enqueuedAt", Sort.ASCENDING)
+                .findAll();
+    }
+
+    /**
+     * Devolve à fila as pendências descartadas, com as tentativas zeradas.
+     * @return Quantidade de pendências devolvidas
+     */
+    public static int requeueDeadLetters(Realm realm) {
+        RealmResults<PendingSync> deadLetters = findDeadLetters(realm);
+        int count = deadLetters.size();
+        // Cópia, porque os resultados encolhem conforme o campo muda
+        for (PendingSync pending : new ArrayList<>(deadLetters)) {
+            resetRetries(pending);
+        }
+        return count;
+    }
+
+    private static PendingSync findOrCreate(Realm realm, String personId) {
+        PendingSync pending = realm.where(PendingSync.class).equalTo("personId", personId).findFirst();
+        if (pending == null) {
+            pending = realm.createObject(PendingSync.class, personId);
+        }
+        return pending;
+    }
+
+    private static void addAllMissing(RealmList<String> target, Collection<String> values) {
+        for (String value : values) {
+            if (!target.contains(value)) {
+                target.add(value);
+            }
+        }
+    }
+
+    // Mantém a posição na fila da primeira alteração, para que edições frequentes não adiem o envio
+    private static void touch(PendingSync pending) {
+        if (pending.getEnqueuedAt() == 0) {
+            pending.setEnqueuedAt(System.currentTimeMillis());
+        }
+        pending.setVersion(pending.getVersion() + 1);
+        // Uma alteração nova merece novas tentativas, mesmo que a anterior tenha sido descartada
+        resetRetries(pending);
+    }
+
+    private static void resetRetries(PendingSync pending) {
+        pending.setDeadLetter(false);
+        pending.setAttempts(0);
+        pending.setNextAttemptAt(0);
+    }
+}
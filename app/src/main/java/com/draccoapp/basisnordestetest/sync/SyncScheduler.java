@@ -0,0 +1,27 @@
+package com.draccoapp.basisnordestetest.sync;
+
+import android.content.Context;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Solicita o envio do outbox ao Firestore. Pode ser chamado a cada alteração: as solicitações
+ * são agrupadas pelo WorkManager em uma única execução do {@link SyncWorker}.
+ */
+@Singleton
+public class SyncScheduler {
+
+    private final Context context;
+
+    @Inject
+    public SyncScheduler(@ApplicationContext Context context) {
+        this.context = context;
+    }
+
+    public void requestSync() {
+        SyncWorker.enqueue(context);
+    }
+}
@@ -0,0 +1,347 @@
+package com.draccoapp.basisnordestetest.sync;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.model.PendingSync;
+import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.repository.RealmWriteExecutor;
+import com.draccoapp.basisnordestetest.service.FirestoreService;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import dagger.hilt.android.EntryPointAccessors;
+import io.realm.Realm;
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+/**
+ * Envia ao Firestore as operações pendentes do outbox ({@link PendingSync}).
+ *
+ * As pendências são lidas em lotes, na ordem em que foram registradas, e cada uma envia o
+ * estado atual dos campos e endereços alterados da pessoa, então várias edições da mesma pessoa
+ * viram um único envio. As
+ * enviadas com sucesso são removidas; as que falharam continuam no outbox e só voltam a ser
+ * enviadas depois de um backoff exponencial próprio, sem bloquear as que vêm depois delas na fila.
+ * Depois de {@link #MAX_ATTEMPTS} falhas, ou se o Firestore rejeitar o documento, a pendência é
+ * descartada (ver {@link SyncOutbox#findDeadLetters(Realm)}). A execução termina com sucesso
+ * mesmo com pendências em backoff, para que os envios pedidos por alterações novas não esperem
+ * atrás do backoff do WorkManager; outra execução é agendada para o fim do backoff mais curto.
+ * Depois do envio, as alterações feitas no Firestore por outros aparelhos são recebidas pelo
+ * {@link PersonPuller}. O trabalho só roda com rede disponível.
+ */
+public class SyncWorker extends Worker {
+    private static final String TAG = "SyncWorker";
+    private static final String WORK_NAME = "firestore-sync";
+    private static final String WAKE_UP_WORK_NAME = "firestore-sync-wake-up";
+    // Execução agendada para o fim de um backoff: só encadeia um envio normal
+    private static final String KEY_WAKE_UP = "wakeUp";
+
+    // Pendências por lote; cada uma pode gerar várias escritas (pessoa + endereços)
+    static final int BATCH_SIZE = 100;
+    private static final long BACKOFF_SECONDS = 30;
+    // Falhas seguidas até a pendência ser descartada
+    static final int MAX_ATTEMPTS = 8;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.HOURS.toMillis(6);
+    private static final long PUSH_TIMEOUT_SECONDS = 60;
+
+    public SyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Agenda o envio do outbox. Se já houver um envio em andamento, outro é encadeado depois
+     * dele, para que pendências registradas durante o envio não fiquem esperando.
+     */
+    public static void enqueue(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SyncWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .addTag(TAG)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    /**
+     * Agenda um envio para daqui a {@code delayMillis}. A execução agendada apenas chama
+     * {@link #enqueue(Context)}, então não roda em paralelo com a fila normal; um novo agendamento
+     * substitui o anterior.
+     */
+    private static void enqueueWakeUp(Context context, long delayMillis) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(SyncWorker.class)
+                .setInitialDelay(delayMillis, TimeUnit.MILLISECONDS)
+                .setInputData(new Data.Builder().putBoolean(KEY_WAKE_UP, true).build())
+                .addTag(TAG)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WAKE_UP_WORK_NAME, ExistingWorkPolicy.REPLACE, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (getInputData().getBoolean(KEY_WAKE_UP, false)) {
+            enqueue(getApplicationContext());
+            return Result.success();
+        }
+
+        SyncEntryPoint entryPoint = EntryPointAccessors.fromApplication(getApplicationContext(), SyncEntryPoint.class);
+        FirestoreService firestoreService = entryPoint.firestoreService();
+        PersonMapper personMapper = entryPoint.personMapper();
+        RealmWriteExecutor writeExecutor = entryPoint.realmWriteExecutor();
+
+        int sent = 0;
+        int failed = 0;
+        int pulled = 0;
+        try (Realm realm = Realm.getDefaultInstance()) {
+            while (!isStopped()) {
+                realm.refresh();
+                // As que falharam saem da consulta até o fim do backoff, então não seguram o lote
+                RealmResults<PendingSync> pending = realm.where(PendingSync.class)
+                        .equalTo("deadLetter", false)
+                        .lessThanOrEqualTo("nextAttemptAt", System.currentTimeMillis())
+                        .sort("enqueuedAt", Sort.ASCENDING)
+                        .limit(BATCH_SIZE)
+                        .findAll();
+                if (pending.isEmpty()) {
+                    break;
+                }
+
+                List<SyncChange> changes = snapshot(realm, pending, personMapper);
+                Map<String, Exception> failures = push(firestoreService, changes);
+                acknowledge(writeExecutor, changes, failures);
+                sent += changes.size() - failures.size();
+                failed += failures.size();
+            }
+
+            // Com o que pôde ser enviado já enviado, recebe o que mudou no Firestore desde o último recebimento
+            if (!isStopped()) {
+                pulled = new PersonPuller(firestoreService, personMapper, writeExecutor).run(this::isStopped);
+            }
+
+            realm.refresh();
+            // Pendências em backoff; as registradas durante o envio têm nextAttemptAt 0 e já têm execução encadeada
+            PendingSync nextDeferred = realm.where(PendingSync.class)
+                    .equalTo("deadLetter", false)
+                    .greaterThan("nextAttemptAt", 0)
+                    .sort("nextAttemptAt", Sort.ASCENDING)
+                    .findFirst();
+            if (nextDeferred != null) {
+                long delayMillis = Math.max(nextDeferred.getNextAttemptAt() - System.currentTimeMillis(), 0);
+                enqueueWakeUp(getApplicationContext(), delayMillis);
+                Log.w(TAG, failed + " pending changes failed, next attempt in " + delayMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "Error draining sync outbox", e);
+            return Result.retry();
+        }
+
+        Log.d(TAG, "Synced " + sent + " pending changes, pulled " + pulled + " persons");
+        return Result.success();
+    }
+
+    // Copia as pendências e o estado atual das pessoas para fora do Realm antes do envio
+    static List<SyncChange> snapshot(Realm realm, List<PendingSync> pending, PersonMapper personMapper) {
+        List<SyncChange> changes = new ArrayList<>(pending.size());
+        for (PendingSync entry : pending) {
+            PersonDTO person = null;
+            // Pendências antigas podem ter a operação vazia; tudo que não é exclusão é upsert
+            if (!PendingSync.DELETE.equals(entry.getOperation())) {
+                Person managed = realm.where(Person.class).equalTo("id", entry.getPersonId()).findFirst();
+                if (managed != null) {
+                    person = personMapper.fromRealm(realm.copyFromRealm(managed));
+                    markChanges(person, entry);
+                }
+            }
+            changes.add(new SyncChange(entry.getPersonId(), entry.getOperation(), entry.getVersion(),
+                    person, new ArrayList<>(entry.getRemovedAddressIds())));
+        }
+        return changes;
+    }
+
+    // Transfere ao DTO o que mudou segundo o outbox; o FirestoreService envia apenas o que estiver marcado
+    private static void markChanges(PersonDTO person, PendingSync entry) {
+        if (entry.isFullSync()) {
+            person.markAllDirty();
+        } else {
+            person.markDirty(entry.getChangedFields());
+        }
+        Set<String> changedAddressIds = new HashSet<>(entry.getChangedAddressIds());
+        for (AddressDTO address : person.getAddresses()) {
+            if (entry.isFullSync() || changedAddressIds.contains(address.getId())) {
+                address.markAllDirty();
+            }
+        }
+    }
+
+    // Envia as alterações e aguarda todas terminarem; retorna as falhas por id de pessoa
+    static Map<String, Exception> push(FirestoreService firestoreService, List<SyncChange> changes)
+            throws InterruptedException {
+        Map<String, Task<Void>> tasks = new LinkedHashMap<>();
+        Map<String, List<String>> deletes = new LinkedHashMap<>();
+
+        for (SyncChange change : changes) {
+            if (change.isDelete() || change.person == null) {
+                // Exclusão, ou upsert de uma pessoa que já não existe no Realm (excluída depois do
+                // registro, por exemplo): garante que ela também não exista no Firestore
+                deletes.put(change.personId, change.removedAddressIds);
+            } else {
+                tasks.put(change.personId, upsert(firestoreService, change));
+            }
+        }
+
+        TaskCompletionSource<Map<String, Exception>> deleteResult = new TaskCompletionSource<>();
+        if (deletes.isEmpty()) {
+            deleteResult.setResult(new LinkedHashMap<>());
+        } else {
+            firestoreService.deletePersons(deletes, deleteResult::trySetResult);
+        }
+
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        for (Map.Entry<String, Task<Void>> entry : tasks.entrySet()) {
+            Exception error = await(entry.getValue());
+            if (error != null) {
+                failures.put(entry.getKey(), error);
+            }
+        }
+        try {
+            failures.putAll(Tasks.await(deleteResult.getTask(), PUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } catch (ExecutionException | TimeoutException e) {
+            for (String personId : deletes.keySet()) {
+                failures.put(personId, e);
+            }
+        }
+        return failures;
+    }
+
+    private static Task<Void> upsert(FirestoreService firestoreService, SyncChange change) {
+        TaskCompletionSource<Void> saved = new TaskCompletionSource<>();
+        firestoreService.savePerson(change.person, change.removedAddressIds, new FirestoreService.FirestoreCallback() {
+            @Override
+            public void onSuccess(String documentId) {
+                saved.trySetResult(null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                saved.trySetException(e);
+            }
+        });
+        return saved.getTask();
+    }
+
+    private static Exception await(Task<Void> task) throws InterruptedException {
+        try {
+            Tasks.await(task, PUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (TimeoutException e) {
+            return e;
+        }
+    }
+
+    // Remove as pendências enviadas que não mudaram durante o envio e registra as falhas
+    private static void acknowledge(RealmWriteExecutor writeExecutor, List<SyncChange> changes,
+                                    Map<String, Exception> failures)
+            throws ExecutionException, InterruptedException {
+        writeExecutor.executeAndWait(realm -> {
+            for (SyncChange change : changes) {
+                PendingSync entry = realm.where(PendingSync.class).equalTo("personId", change.personId).findFirst();
+                if (entry == null) {
+                    continue;
+                }
+                Exception error = failures.get(change.personId);
+                if (error != null) {
+                    int attempts = entry.getAttempts() + 1;
+                    entry.setAttempts(attempts);
+                    entry.setLastError(String.valueOf(error));
+                    if (attempts >= MAX_ATTEMPTS || isRejected(error)) {
+                        entry.setDeadLetter(true);
+                        Log.e(TAG, "Giving up on pending change for " + change.personId
+                                + " after " + attempts + " attempts", error);
+                    } else {
+                        entry.setNextAttemptAt(System.currentTimeMillis() + backoffMillis(attempts));
+                    }
+                } else if (entry.getVersion() == change.version) {
+                    entry.deleteFromRealm();
+                } else {
+                    // Alterada durante o envio: os endereços já removidos não precisam ser enviados de novo
+                    entry.getRemovedAddressIds().removeAll(change.removedAddressIds);
+                }
+            }
+        });
+    }
+
+    /**
+     * Espera antes da próxima tentativa de uma pendência: dobra a cada falha, a partir de
+     * {@link #BACKOFF_SECONDS}, até o teto de {@link #MAX_BACKOFF_MILLIS}.
+     */
+    static long backoffMillis(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(TimeUnit.SECONDS.toMillis(BACKOFF_SECONDS) << doublings, MAX_BACKOFF_MILLIS);
+    }
+
+    // Documento recusado pelo Firestore: tentar de novo com os mesmos dados não adianta
+    private static boolean isRejected(Exception error) {
+        if (!(error instanceof FirebaseFirestoreException)) {
+            return false;
+        }
+        FirebaseFirestoreException.Code code = ((FirebaseFirestoreException) error).getCode();
+        return code == FirebaseFirestoreException.Code.INVALID_ARGUMENT
+                || code == FirebaseFirestoreException.Code.OUT_OF_RANGE;
+    }
+
+    static class SyncChange {
+        final String personId;
+        final String operation;
+        final long version;
+        final PersonDTO person;
+        final List<String> removedAddressIds;
+
+        SyncChange(String personId, String operation, long version, PersonDTO person, List<String> removedAddressIds) {
+            this.personId = personId;
+            this.operation = operation;
+            this.version = version;
+            this.person = person;
+            this.removedAddressIds = removedAddressIds;
+        }
+
+        boolean isDelete() {
+            return PendingSync.DELETE.equals(operation);
+        }
+    }
+}
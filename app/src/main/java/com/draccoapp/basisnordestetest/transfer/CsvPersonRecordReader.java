@@ -0,0 +1,156 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.Person;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.draccoapp.basisnordestetest.transfer.PersonCsvSchema.*;
+
+/**
+ * Lê pessoas de um CSV no layout de {@link PersonCsvSchema}. A primeira linha é o cabeçalho;
+ * as colunas são localizadas pelo nome, então a ordem é livre e colunas desconhecidas são ignoradas.
+ */
+public class CsvPersonRecordReader implements PersonRecordReader {
+
+    private final CsvReader csv;
+    // Índice de cada coluna de PersonCsvSchema no arquivo
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private long nextIndex;
+    // Linha lida antecipadamente ao agrupar endereços de uma mesma pessoa
+    private String[] pendingRow;
+    private long pendingLine;
+
+    public CsvPersonRecordReader(Reader reader) throws IOException {
+        csv = new CsvReader(reader);
+        String[] header = csv.readRecord();
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.length; i++) {
+            for (String column : COLUMNS) {
+                if (column.equalsIgnoreCase(header[i].trim())) {
+                    columns.put(column, i);
+                }
+            }
+        }
+        if (!columns.containsKey(PERSON_TYPE)) {
+            throw new IllegalArgumentException("Cabeçalho do CSV sem a coluna " + PERSON_TYPE);
+        }
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        String[] row;
+        long line;
+        if (pendingRow != null) {
+            row = pendingRow;
+            line = pendingLine;
+            pendingRow = null;
+        } else {
+            row = readNonBlankRow();
+            line = csv.getRecordLine();
+        }
+        if (row == null) {
+            return null;
+        }
+
+        String error = null;
+        Person person = new Person();
+        try {
+            readPerson(row, person);
+            addAddress(row, person);
+
+            // Linhas seguintes com o mesmo id trazem mais endereços da mesma pessoa
+            String id = person.getId();
+            if (id != null) {
+                String[] next;
+                while ((next = readNonBlankRow()) != null && id.equals(value(next, ID))) {
+                    addAddress(next, person);
+                }
+                pendingRow = next;
+                pendingLine = csv.getRecordLine();
+            }
+        } catch (NumberFormatException e) {
+            error = "Valor numérico inválido: " + e.getMessage();
+        }
+
+        return new ImportRecord(nextIndex++, "linha " + line, person, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        csv.close();
+    }
+
+    private void readPerson(String[] row, Person person) {
+        person.setId(value(row, ID));
+        person.setPersonType(value(row, PERSON_TYPE));
+        person.setName(value(row, NAME));
+        person.setCpf(value(row, CPF));
+        person.setCompanyName(value(row, COMPANY_NAME));
+        person.setCnpj(value(row, CNPJ));
+        person.setPhoneNumber(value(row, PHONE_NUMBER));
+        person.setEmail(value(row, EMAIL));
+        person.setDeviceName(value(row, DEVICE_NAME));
+
+        String createdAt = value(row, CREATED_AT);
+        person.setCreatedAt(createdAt != null ? Long.parseLong(createdAt) : System.currentTimeMillis());
+        String latitude = value(row, LATITUDE);
+        if (latitude != null) {
+            person.setLatitude(parseDouble(latitude));
+        }
+        String longitude = value(row, LONGITUDE);
+        if (longitude != null) {
+            person.setLongitude(parseDouble(longitude));
+        }
+    }
+
+    private void addAddress(String[] row, Person person) {
+        String street = value(row, STREET);
+        String zipCode = value(row, ZIP_CODE);
+        if (street == null && zipCode == null) {
+            return;
+        }
+        Address address = new Address();
+        address.setId(value(row, ADDRESS_ID));
+        address.setAddressType(value(row, ADDRESS_TYPE));
+        address.setStreet(street);
+        address.setNumber(value(row, NUMBER));
+        address.setComplement(value(row, COMPLEMENT));
+        address.setNeighborhood(value(row, NEIGHBORHOOD));
+        address.setZipCode(zipCode);
+        address.setCity(value(row, CITY));
+        address.setState(value(row, STATE));
+        person.getAddresses().add(address);
+    }
+
+    // Valor da coluna sem espaços nas pontas, ou null se a coluna não existir ou estiver vazia
+    private String value(String[] row, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.length) {
+            return null;
+        }
+        String value = row[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private String[] readNonBlankRow() throws IOException {
+        String[] row;
+        while ((row = csv.readRecord()) != null) {
+            if (row.length > 1 || !row[0].trim().isEmpty()) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    // Aceita vírgula decimal, comum em planilhas em português
+    private static double parseDouble(String value) {
+        return Double.parseDouble(value.replace(',', '.'));
+    }
+}
@@ -0,0 +1,165 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tokenizador de CSV em streaming (RFC 4180): campos entre aspas, aspas escapadas ("")
+ * e quebras de linha dentro de campos. Lê a entrada em blocos com um buffer fixo, então
+ * a memória usada não depende do tamanho do arquivo.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private char delimiter;
+    private boolean delimiterDetected;
+
+    // Reaproveitados entre registros
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+
+    private long line = 1;
+    private long recordLine;
+
+    /**
+     * Cria um leitor que detecta o delimitador (',' ou ';') pela primeira linha.
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.delimiterDetected = true;
+    }
+
+    /**
+     * Lê o próximo registro.
+     * @return Campos do registro, ou null no fim do arquivo
+     */
+    public String[] readRecord() throws IOException {
+        if (!delimiterDetected) {
+            detectDelimiter();
+        }
+        if (!fill()) {
+            return null;
+        }
+
+        recordLine = line;
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean afterQuote = false;
+
+        while (fill()) {
+            char c = buffer[position++];
+            if (quoted) {
+                if (c == '"') {
+                    if (fill() && buffer[position] == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append(c);
+                }
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && fill() && buffer[position] == '\n') {
+                    position++;
+                }
+                line++;
+                return finishRecord();
+            } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        return finishRecord();
+    }
+
+    /**
+     * Linha (começando em 1) em que o último registro lido começa.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String[] finishRecord() {
+        fields.add(field.toString());
+        field.setLength(0);
+        return fields.toArray(new String[0]);
+    }
+
+    // Planilhas em português costumam exportar CSV com ';', já que ',' é o separador decimal
+    private void detectDelimiter() throws IOException {
+        delimiterDetected = true;
+        delimiter = ',';
+        if (!fill()) {
+            return;
+        }
+        // Ignora o BOM que alguns editores gravam no início de arquivos UTF-8
+        if (buffer[position] == '\uFEFF') {
+            position++;
+        }
+        int commas = 0;
+        int semicolons = 0;
+        for (int i = position; i < limit; i++) {
+            char c = buffer[i];
+            if (c == '\n' || c == '\r') {
+                break;
+            } else if (c == ',') {
+                commas++;
+            } else if (c == ';') {
+                semicolons++;
+            }
+        }
+        if (semicolons > commas) {
+            delimiter = ';';
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            position = limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
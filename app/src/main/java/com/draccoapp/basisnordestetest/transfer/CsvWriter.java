@@ -0,0 +1,85 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escrita de CSV (RFC 4180). Campos com delimitador, aspas ou quebras de linha são
+ * colocados entre aspas; os demais são gravados diretamente, sem cópias intermediárias.
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private final Writer writer;
+    private final char delimiter;
+    private boolean firstField = true;
+
+    public CsvWriter(Writer writer) {
+        this(writer, ',');
+    }
+
+    public CsvWriter(Writer writer, char delimiter) {
+        this.writer = writer;
+        this.delimiter = delimiter;
+    }
+
+    public void writeRow(String... values) throws IOException {
+        for (String value : values) {
+            writeField(value);
+        }
+        endRow();
+    }
+
+    /**
+     * Grava um campo da linha atual; null é gravado como campo vazio.
+     */
+    public void writeField(CharSequence value) throws IOException {
+        if (!firstField) {
+            writer.write(delimiter);
+        }
+        firstField = false;
+        if (value == null) {
+            return;
+        }
+
+        if (!needsQuotes(value)) {
+            writer.append(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    public void endRow() throws IOException {
+        writer.write('\n');
+        firstField = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private boolean needsQuotes(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import androidx.annotation.Nullable;
+
+import com.draccoapp.basisnordestetest.model.Person;
+
+/**
+ * Registro lido do arquivo de importação: uma pessoa com os seus endereços.
+ */
+public class ImportRecord {
+
+    private final long index;
+    private final String location;
+    private final Person person;
+    @Nullable
+    private final String error;
+
+    public ImportRecord(long index, String location, Person person, @Nullable String error) {
+        this.index = index;
+        this.location = location;
+        this.person = person;
+        this.error = error;
+    }
+
+    /**
+     * Posição do registro no arquivo, começando em 0. Usada como ponto de retomada.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Localização legível do registro no arquivo (linha do CSV ou caminho do JSON).
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Pessoa não gerenciada pelo Realm.
+     */
+    public Person getPerson() {
+        return person;
+    }
+
+    /**
+     * Erro de leitura do registro, ou null se ele pôde ser interpretado.
+     */
+    @Nullable
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,181 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.Person;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lê pessoas de um array JSON com o {@link JsonReader} do Gson, um objeto por vez, sem
+ * carregar o documento inteiro. Os campos seguem os nomes de {@link PersonCsvSchema}, com os
+ * endereços em um array "addresses". Um valor com tipo errado invalida apenas o registro;
+ * um JSON malformado interrompe a leitura.
+ */
+public class JsonPersonRecordReader implements PersonRecordReader {
+
+    private final JsonReader json;
+    private boolean started;
+    private boolean finished;
+    private long nextIndex;
+
+    public JsonPersonRecordReader(Reader reader) {
+        json = new JsonReader(reader);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            json.beginArray();
+            started = true;
+        }
+        if (!json.hasNext()) {
+            json.endArray();
+            finished = true;
+            return null;
+        }
+
+        String location = json.getPath();
+        Person person = new Person();
+        person.setCreatedAt(System.currentTimeMillis());
+        String error = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            try {
+                readPersonField(name, person);
+            } catch (NumberFormatException | IllegalStateException e) {
+                // O token com tipo inesperado não foi consumido
+                json.skipValue();
+                if (error == null) {
+                    error = "Valor inválido no campo " + name;
+                }
+            }
+        }
+        json.endObject();
+
+        return new ImportRecord(nextIndex++, location, person, error);
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+
+    private void readPersonField(String name, Person person) throws IOException {
+        switch (name) {
+            case PersonCsvSchema.ID:
+                person.setId(nextString());
+                break;
+            case PersonCsvSchema.PERSON_TYPE:
+                person.setPersonType(nextString());
+                break;
+            case PersonCsvSchema.NAME:
+                person.setName(nextString());
+                break;
+            case PersonCsvSchema.CPF:
+                person.setCpf(nextString());
+                break;
+            case PersonCsvSchema.COMPANY_NAME:
+                person.setCompanyName(nextString());
+                break;
+            case PersonCsvSchema.CNPJ:
+                person.setCnpj(nextString());
+                break;
+            case PersonCsvSchema.PHONE_NUMBER:
+                person.setPhoneNumber(nextString());
+                break;
+            case PersonCsvSchema.EMAIL:
+                person.setEmail(nextString());
+                break;
+            case PersonCsvSchema.DEVICE_NAME:
+                person.setDeviceName(nextString());
+                break;
+            case PersonCsvSchema.CREATED_AT:
+                person.setCreatedAt(json.nextLong());
+                break;
+            case PersonCsvSchema.LATITUDE:
+                person.setLatitude(json.nextDouble());
+                break;
+            case PersonCsvSchema.LONGITUDE:
+                person.setLongitude(json.nextDouble());
+                break;
+            case "addresses":
+                readAddresses(person);
+                break;
+            default:
+                json.skipValue();
+                break;
+        }
+    }
+
+    private void readAddresses(Person person) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return;
+        }
+        json.beginArray();
+        while (json.hasNext()) {
+            Address address = new Address();
+            json.beginObject();
+            while (json.hasNext()) {
+                readAddressField(json.nextName(), address);
+            }
+            json.endObject();
+            person.getAddresses().add(address);
+        }
+        json.endArray();
+    }
+
+    private void readAddressField(String name, Address address) throws IOException {
+        switch (name) {
+            case "id":
+            case PersonCsvSchema.ADDRESS_ID:
+                address.setId(nextString());
+                break;
+            case PersonCsvSchema.ADDRESS_TYPE:
+                address.setAddressType(nextString());
+                break;
+            case PersonCsvSchema.STREET:
+                address.setStreet(nextString());
+                break;
+            case PersonCsvSchema.NUMBER:
+                address.setNumber(nextString());
+                break;
+            case PersonCsvSchema.COMPLEMENT:
+                address.setComplement(nextString());
+                break;
+            case PersonCsvSchema.NEIGHBORHOOD:
+                address.setNeighborhood(nextString());
+                break;
+            case PersonCsvSchema.ZIP_CODE:
+                address.setZipCode(nextString());
+                break;
+            case PersonCsvSchema.CITY:
+                address.setCity(nextString());
+                break;
+            case PersonCsvSchema.STATE:
+                address.setState(nextString());
+                break;
+            default:
+                json.skipValue();
+                break;
+        }
+    }
+
+    // Aceita números onde se espera texto (ex.: CPF sem aspas) e trata null como ausente
+    private String nextString() throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        String value = json.nextString().trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,40 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+/**
+ * Colunas do CSV de pessoas. Cada linha traz uma pessoa e no máximo um endereço; linhas
+ * consecutivas com o mesmo id acrescentam endereços à mesma pessoa. A exportação grava o
+ * mesmo layout, de modo que um arquivo exportado pode ser importado de volta.
+ */
+final class PersonCsvSchema {
+
+    static final String ID = "id";
+    static final String PERSON_TYPE = "personType";
+    static final String NAME = "name";
+    static final String CPF = "cpf";
+    static final String COMPANY_NAME = "companyName";
+    static final String CNPJ = "cnpj";
+    static final String PHONE_NUMBER = "phoneNumber";
+    static final String EMAIL = "email";
+    static final String CREATED_AT = "createdAt";
+    static final String LATITUDE = "latitude";
+    static final String LONGITUDE = "longitude";
+    static final String DEVICE_NAME = "deviceName";
+    static final String ADDRESS_ID = "addressId";
+    static final String ADDRESS_TYPE = "addressType";
+    static final String STREET = "street";
+    static final String NUMBER = "number";
+    static final String COMPLEMENT = "complement";
+    static final String NEIGHBORHOOD = "neighborhood";
+    static final String ZIP_CODE = "zipCode";
+    static final String CITY = "city";
+    static final String STATE = "state";
+
+    static final String[] COLUMNS = {
+            ID, PERSON_TYPE, NAME, CPF, COMPANY_NAME, CNPJ, PHONE_NUMBER, EMAIL, CREATED_AT,
+            LATITUDE, LONGITUDE, DEVICE_NAME, ADDRESS_ID, ADDRESS_TYPE, STREET, NUMBER,
+            COMPLEMENT, NEIGHBORHOOD, ZIP_CODE, CITY, STATE
+    };
+
+    private PersonCsvSchema() {
+    }
+}
@@ -0,0 +1,164 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exporta a base de pessoas em background: sob demanda para um Uri escolhido pelo usuário,
+ * ou como backup noturno em arquivos gzip no armazenamento interno do app.
+ */
+public class PersonExportWorker extends Worker {
+    private static final String TAG = "PersonExportWorker";
+    private static final String BACKUP_WORK_NAME = "person-backup";
+    private static final String BACKUP_DIR = "backups";
+    private static final String BACKUP_PREFIX = "pessoas-";
+    // Backups mais antigos que os últimos N são apagados
+    private static final int BACKUPS_TO_KEEP = 7;
+
+    public static final String KEY_TARGET_URI = "targetUri";
+    public static final String KEY_FORMAT = "format";
+    public static final String KEY_GZIP = "gzip";
+
+    // Progresso e resultado
+    public static final String KEY_EXPORTED = "exported";
+    public static final String KEY_TOTAL = "total";
+    public static final String KEY_OUTPUT = "output";
+
+    public PersonExportWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Agenda a exportação para o Uri informado (ex.: obtido com ACTION_CREATE_DOCUMENT).
+     */
+    public static void enqueue(Context context, Uri target, TransferFormat format, boolean gzip) {
+        Data input = new Data.Builder()
+                .putString(KEY_TARGET_URI, target.toString())
+                .putString(KEY_FORMAT, format.name())
+                .putBoolean(KEY_GZIP, gzip)
+                .build();
+        WorkManager.getInstance(context).enqueue(new OneTimeWorkRequest.Builder(PersonExportWorker.class)
+                .setInputData(input)
+                .addTag(TAG)
+                .build());
+    }
+
+    /**
+     * Agenda o backup diário em JSON compactado, executado com o aparelho ocioso e carregando.
+     */
+    public static void scheduleNightlyBackup(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresCharging(true)
+                .setRequiresDeviceIdle(true)
+                .setRequiresStorageNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(PersonExportWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .addTag(TAG)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(BACKUP_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String target = getInputData().getString(KEY_TARGET_URI);
+        TransferFormat format = target != null
+                ? TransferFormat.fromString(getInputData().getString(KEY_FORMAT))
+                : TransferFormat.JSON;
+        boolean gzip = target == null || getInputData().getBoolean(KEY_GZIP, false);
+
+        File backupFile = null;
+        File partialFile = null;
+        try {
+            OutputStream output;
+            if (target != null) {
+                output = getApplicationContext().getContentResolver().openOutputStream(Uri.parse(target), "wt");
+                if (output == null) {
+                    return Result.failure();
+                }
+            } else {
+                backupFile = newBackupFile(format);
+                // Grava em um arquivo temporário para nunca deixar um backup incompleto com o nome final
+                partialFile = new File(backupFile.getPath() + ".part");
+                output = new FileOutputStream(partialFile);
+            }
+
+            long exported = new PersonExporter().export(output, format, gzip,
+                    (count, total) -> setProgressAsync(new Data.Builder()
+                            .putLong(KEY_EXPORTED, count)
+                            .putLong(KEY_TOTAL, total)
+                            .build()),
+                    this::isStopped);
+
+            if (exported < 0) {
+                return Result.retry();
+            }
+            if (partialFile != null) {
+                if (!partialFile.renameTo(backupFile)) {
+                    throw new IOException("Could not rename " + partialFile);
+                }
+                pruneBackups(backupFile.getParentFile());
+            }
+            return Result.success(new Data.Builder()
+                    .putLong(KEY_EXPORTED, exported)
+                    .putString(KEY_OUTPUT, backupFile != null ? backupFile.getAbsolutePath() : target)
+                    .build());
+        } catch (IOException e) {
+            Log.w(TAG, "I/O error during export, will retry", e);
+            return Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "Error exporting persons", e);
+            return Result.failure();
+        } finally {
+            if (partialFile != null && partialFile.exists() && !partialFile.delete()) {
+                Log.w(TAG, "Could not delete " + partialFile);
+            }
+        }
+    }
+
+    private File newBackupFile(TransferFormat format) {
+        File dir = new File(getApplicationContext().getFilesDir(), BACKUP_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create " + dir);
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        return new File(dir, BACKUP_PREFIX + stamp + format.getExtension() + ".gz");
+    }
+
+    // Os nomes levam a data em ordem lexicográfica, então ordenar pelo nome ordena por data
+    private static void pruneBackups(File dir) {
+        File[] backups = dir.listFiles((d, name) -> name.startsWith(BACKUP_PREFIX) && name.endsWith(".gz"));
+        if (backups == null || backups.length <= BACKUPS_TO_KEEP) {
+            return;
+        }
+        Arrays.sort(backups);
+        for (int i = 0; i < backups.length - BACKUPS_TO_KEEP; i++) {
+            if (!backups[i].delete()) {
+                Log.w(TAG, "Could not delete old backup " + backups[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import android.util.Log;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.Person;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import io.realm.Realm;
+import io.realm.RealmList;
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+/**
+ * Exportação da base de pessoas para JSON ou CSV em streaming.
+ *
+ * A tabela é percorrida em janelas de {@link #CHUNK_SIZE} pessoas ordenadas por id
+ * (paginação por chave, como em {@link com.draccoapp.basisnordestetest.repository.PersonRepository#getPersonsPage}),
+ * lendo os objetos gerenciados diretamente, sem copyFromRealm. Cada janela é gravada e descartada
+ * antes da próxima, então a memória usada depende do tamanho da janela e não do tamanho da base.
+ *
+ * Deve ser executado fora da main thread; usa uma instância própria do Realm.
+ */
+public class PersonExporter {
+    private static final String TAG = "PersonExporter";
+
+    static final int CHUNK_SIZE = 500;
+
+    public interface ProgressListener {
+        void onProgress(long exported, long total);
+    }
+
+    /**
+     * Exporta todas as pessoas para o stream, que é fechado ao final.
+     * @param gzip Comprime a saída com gzip
+     * @param stopped Consultado entre as janelas; quando true, a exportação é abandonada
+     * @return Quantidade de pessoas exportadas, ou -1 se a exportação foi interrompida
+     */
+    public long export(OutputStream output, TransferFormat format, boolean gzip,
+                       ProgressListener listener, BooleanSupplier stopped) throws IOException {
+        OutputStream stream = gzip ? new GZIPOutputStream(output, 64 * 1024) : output;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+
+        try (Realm realm = Realm.getDefaultInstance();
+             RecordWriter records = format == TransferFormat.JSON
+                     ? new JsonRecordWriter(writer)
+                     : new CsvRecordWriter(writer)) {
+            long total = realm.where(Person.class).count();
+            long exported = 0;
+            String lastId = null;
+
+            while (true) {
+                RealmResults<Person> chunk = nextChunk(realm, lastId);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                for (Person person : chunk) {
+                    records.write(person);
+                }
+                exported += chunk.size();
+                lastId = chunk.last().getId();
+                records.flush();
+                listener.onProgress(exported, total);
+
+                if (chunk.size() < CHUNK_SIZE) {
+                    break;
+                }
+                if (stopped.getAsBoolean()) {
+                    Log.d(TAG, "Export stopped after " + exported + " persons");
+                    return -1;
+                }
+            }
+
+            Log.d(TAG, "Exported " + exported + " persons as " + format + (gzip ? " (gzip)" : ""));
+            return exported;
+        }
+    }
+
+    private static RealmResults<Person> nextChunk(Realm realm, String lastId) {
+        if (lastId == null) {
+            return realm.where(Person.class)
+                    .sort("id", Sort.ASCENDING)
+                    .limit(CHUNK_SIZE)
+                    .findAll();
+        }
+        return realm.where(Person.class)
+                .rawPredicate("id > $0", lastId)
+                .sort("id", Sort.ASCENDING)
+                .limit(CHUNK_SIZE)
+                .findAll();
+    }
+
+    private interface RecordWriter extends Closeable {
+        void write(Person person) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    /**
+     * Array JSON no formato lido por {@link JsonPersonRecordReader}.
+     */
+    private static class JsonRecordWriter implements RecordWriter {
+        private final JsonWriter json;
+
+        JsonRecordWriter(Writer writer) throws IOException {
+            json = new JsonWriter(writer);
+            json.beginArray();
+        }
+
+        @Override
+        public void write(Person person) throws IOException {
+            json.beginObject();
+            json.name(PersonCsvSchema.ID).value(person.getId());
+            json.name(PersonCsvSchema.PERSON_TYPE).value(person.getPersonType());
+            json.name(PersonCsvSchema.NAME).value(person.getName());
+            json.name(PersonCsvSchema.CPF).value(person.getCpf());
+            json.name(PersonCsvSchema.COMPANY_NAME).value(person.getCompanyName());
+            json.name(PersonCsvSchema.CNPJ).value(person.getCnpj());
+            json.name(PersonCsvSchema.PHONE_NUMBER).value(person.getPhoneNumber());
+            json.name(PersonCsvSchema.EMAIL).value(person.getEmail());
+            json.name(PersonCsvSchema.CREATED_AT).value(person.getCreatedAt());
+            json.name(PersonCsvSchema.LATITUDE).value(person.getLatitude());
+            json.name(PersonCsvSchema.LONGITUDE).value(person.getLongitude());
+            json.name(PersonCsvSchema.DEVICE_NAME).value(person.getDeviceName());
+
+            json.name("addresses").beginArray();
+            for (Address address : person.getAddresses()) {
+                json.beginObject();
+                json.name("id").value(address.getId());
+                json.name(PersonCsvSchema.ADDRESS_TYPE).value(address.getAddressType());
+                json.name(PersonCsvSchema.STREET).value(address.getStreet());
+                json.name(PersonCsvSchema.NUMBER).value(address.getNumber());
+                json.name(PersonCsvSchema.COMPLEMENT).value(address.getComplement());
+                json.name(PersonCsvSchema.NEIGHBORHOOD).value(address.getNeighborhood());
+                json.name(PersonCsvSchema.ZIP_CODE).value(address.getZipCode());
+                json.name(PersonCsvSchema.CITY).value(address.getCity());
+                json.name(PersonCsvSchema.STATE).value(address.getState());
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.endArray();
+            json.close();
+        }
+    }
+
+    /**
+     * CSV no layout de {@link PersonCsvSchema}: uma linha por endereço, ou uma linha com as
+     * colunas de endereço vazias para pessoas sem endereço.
+     */
+    private static class CsvRecordWriter implements RecordWriter {
+        private final CsvWriter csv;
+
+        CsvRecordWriter(Writer writer) throws IOException {
+            csv = new CsvWriter(writer);
+            csv.writeRow(PersonCsvSchema.COLUMNS);
+        }
+
+        @Override
+        public void write(Person person) throws IOException {
+            RealmList<Address> addresses = person.getAddresses();
+            if (addresses.isEmpty()) {
+                writePerson(person);
+                csv.endRow();
+                return;
+            }
+            for (Address address : addresses) {
+                writePerson(person);
+                csv.writeField(address.getId());
+                csv.writeField(address.getAddressType());
+                csv.writeField(address.getStreet());
+                csv.writeField(address.getNumber());
+                csv.writeField(address.getComplement());
+                csv.writeField(address.getNeighborhood());
+                csv.writeField(address.getZipCode());
+                csv.writeField(address.getCity());
+                csv.writeField(address.getState());
+                csv.endRow();
+            }
+        }
+
+        private void writePerson(Person person) throws IOException {
+            csv.writeField(person.getId());
+            csv.writeField(person.getPersonType());
+            csv.writeField(person.getName());
+            csv.writeField(person.getCpf());
+            csv.writeField(person.getCompanyName());
+            csv.writeField(person.getCnpj());
+            csv.writeField(person.getPhoneNumber());
+            csv.writeField(person.getEmail());
+            csv.writeField(String.valueOf(person.getCreatedAt()));
+            csv.writeField(String.valueOf(person.getLatitude()));
+            csv.writeField(String.valueOf(person.getLongitude()));
+            csv.writeField(person.getDeviceName());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            csv.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            csv.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.AddressType;
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.model.PersonType;
+import com.draccoapp.basisnordestetest.util.BatchValidator;
+
+import java.util.List;
+
+/**
+ * Validação dos registros importados, com as mesmas regras do formulário de pessoa.
+ *
+ * Os registros são validados por lote: CPFs, CNPJs, telefones e emails do lote são verificados
+ * coluna a coluna pelo {@link BatchValidator}, e o restante das regras é aplicado registro a
+ * registro sobre esse resultado.
+ */
+final class PersonImportValidator {
+
+    private PersonImportValidator() {
+    }
+
+    /**
+     * Valida as pessoas e normaliza os tipos de endereço ausentes.
+     * @return Motivo da rejeição de cada pessoa, na mesma ordem, ou null para as válidas
+     */
+    static String[] validate(List<Person> persons) {
+        int size = persons.size();
+        CharSequence[] cpfs = new CharSequence[size];
+        CharSequence[] cnpjs = new CharSequence[size];
+        CharSequence[] phones = new CharSequence[size];
+        CharSequence[] emails = new CharSequence[size];
+        for (int i = 0; i < size; i++) {
+            Person person = persons.get(i);
+            // Só o documento do tipo da pessoa é validado; o outro fica vazio
+            if (PersonType.PHYSICAL.name().equals(person.getPersonType())) {
+                cpfs[i] = person.getCpf();
+            } else {
+                cnpjs[i] = person.getCnpj();
+            }
+            phones[i] = person.getPhoneNumber();
+            emails[i] = person.getEmail();
+        }
+
+        BatchValidator.Result validCpfs = BatchValidator.validate(BatchValidator.Kind.CPF, cpfs);
+        BatchValidator.Result validCnpjs = BatchValidator.validate(BatchValidator.Kind.CNPJ, cnpjs);
+        BatchValidator.Result validPhones = BatchValidator.validate(BatchValidator.Kind.PHONE, phones);
+        BatchValidator.Result validEmails = BatchValidator.validate(BatchValidator.Kind.EMAIL, emails);
+
+        String[] errors = new String[size];
+        for (int i = 0; i < size; i++) {
+            errors[i] = validate(persons.get(i), validCpfs.isValid(i), validCnpjs.isValid(i),
+                    validPhones.isValid(i), validEmails.isValid(i));
+        }
+        return errors;
+    }
+
+    @Nullable
+    private static String validate(Person person, boolean validCpf, boolean validCnpj,
+                                   boolean validPhone, boolean validEmail) {
+        String type = person.getPersonType();
+        if (TextUtils.isEmpty(type)) {
+            return "Tipo de pessoa é obrigatório";
+        }
+
+        if (PersonType.PHYSICAL.name().equals(type)) {
+            if (TextUtils.isEmpty(person.getName())) {
+                return "Nome é obrigatório";
+            }
+            if (TextUtils.isEmpty(person.getCpf())) {
+                return "CPF é obrigatório";
+            }
+            if (!validCpf) {
+                return "CPF inválido";
+            }
+        } else if (PersonType.LEGAL.name().equals(type)) {
+            if (TextUtils.isEmpty(person.getCompanyName())) {
+                return "Nome da empresa é obrigatório";
+            }
+            if (TextUtils.isEmpty(person.getCnpj())) {
+                return "CNPJ é obrigatório";
+            }
+            if (!validCnpj) {
+                return "CNPJ inválido";
+            }
+        } else {
+            return "Tipo de pessoa inválido: " + type;
+        }
+
+        if (TextUtils.isEmpty(person.getPhoneNumber())) {
+            return "Telefone é obrigatório";
+        }
+        if (!validPhone) {
+            return "Telefone inválido";
+        }
+        if (TextUtils.isEmpty(person.getEmail())) {
+            return "Email é obrigatório";
+        }
+        if (!validEmail) {
+            return "Email inválido";
+        }
+
+        for (Address address : person.getAddresses()) {
+            String addressType = address.getAddressType();
+            if (TextUtils.isEmpty(addressType)) {
+                address.setAddressType(AddressType.RESIDENTIAL.name());
+            } else if (!AddressType.RESIDENTIAL.name().equals(addressType)
+                    && !AddressType.COMMERCIAL.name().equals(addressType)) {
+                return "Tipo de endereço inválido: " + addressType;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,166 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.ZipException;
+
+import dagger.hilt.android.EntryPointAccessors;
+
+/**
+ * Executa a importação de pessoas em background pelo WorkManager.
+ *
+ * O WorkManager persiste o pedido e volta a executá-lo depois da morte do processo; o
+ * {@link PersonImporter} retoma a partir do último lote confirmado no Realm.
+ */
+public class PersonImportWorker extends Worker {
+    private static final String TAG = "PersonImportWorker";
+    private static final String WORK_NAME_PREFIX = "person-import-";
+    private static final String IMPORT_DIR = "imports";
+
+    public static final String KEY_JOB_ID = "jobId";
+    public static final String KEY_SOURCE_URI = "sourceUri";
+    public static final String KEY_FORMAT = "format";
+
+    // Progresso e resultado
+    public static final String KEY_PROCESSED = "processed";
+    public static final String KEY_IMPORTED = "imported";
+    public static final String KEY_REJECTED = "rejected";
+    public static final String KEY_ERROR_FILE = "errorFile";
+    public static final String KEY_FAILURE = "failure";
+
+    public PersonImportWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Agenda a importação do arquivo. Para um Uri obtido com ACTION_OPEN_DOCUMENT, quem chama
+     * deve manter a permissão persistente (takePersistableUriPermission) para que a importação
+     * possa ser retomada depois da morte do processo.
+     * @return Id do job, usado como nome único do trabalho no WorkManager
+     */
+    public static String enqueue(Context context, Uri source, TransferFormat format) {
+        String jobId = UUID.randomUUID().toString();
+        Data input = new Data.Builder()
+                .putString(KEY_JOB_ID, jobId)
+                .putString(KEY_SOURCE_URI, source.toString())
+                .putString(KEY_FORMAT, format.name())
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(PersonImportWorker.class)
+                .setInputData(input)
+                .addTag(TAG)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(workName(jobId), ExistingWorkPolicy.KEEP, request);
+        return jobId;
+    }
+
+    public static String workName(String jobId) {
+        return WORK_NAME_PREFIX + jobId;
+    }
+
+    /**
+     * Arquivo de erros da importação, no armazenamento interno do app.
+     */
+    public static File errorFile(Context context, String jobId) {
+        File dir = new File(context.getFilesDir(), IMPORT_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create " + dir);
+        }
+        return new File(dir, jobId + "-erros.csv");
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String jobId = getInputData().getString(KEY_JOB_ID);
+        String source = getInputData().getString(KEY_SOURCE_URI);
+        TransferFormat format = TransferFormat.fromString(getInputData().getString(KEY_FORMAT));
+        if (jobId == null || source == null) {
+            return Result.failure();
+        }
+
+        File errorFile = errorFile(getApplicationContext(), jobId);
+        TransferEntryPoint entryPoint = EntryPointAccessors
+                .fromApplication(getApplicationContext(), TransferEntryPoint.class);
+        PersonImporter importer = new PersonImporter(entryPoint.realmWriteExecutor());
+
+        ContentResolver resolver = getApplicationContext().getContentResolver();
+        try (InputStream input = resolver.openInputStream(Uri.parse(source))) {
+            if (input == null) {
+                return failure("Arquivo não encontrado", errorFile);
+            }
+            // Aceita também arquivos .gz, como os backups noturnos
+            Reader reader = new BufferedReader(new InputStreamReader(
+                    PersonImporter.openInput(input), StandardCharsets.UTF_8));
+            PersonRecordReader records = format == TransferFormat.JSON
+                    ? new JsonPersonRecordReader(reader)
+                    : new CsvPersonRecordReader(reader);
+
+            PersonImporter.Summary summary = importer.run(jobId, records, errorFile,
+                    (processed, imported, rejected) -> setProgressAsync(counts(processed, imported, rejected)
+                            .putString(KEY_ERROR_FILE, errorFile.getAbsolutePath())
+                            .build()),
+                    this::isStopped);
+
+            if (summary.imported > 0) {
+                entryPoint.syncScheduler().requestSync();
+            }
+            if (!summary.completed) {
+                // Interrompida pelo sistema; o WorkManager agenda a continuação
+                return Result.retry();
+            }
+            return Result.success(counts(summary.processed, summary.imported, summary.rejected)
+                    .putString(KEY_ERROR_FILE, errorFile.getAbsolutePath())
+                    .build());
+        } catch (MalformedJsonException | ZipException | IllegalStateException | IllegalArgumentException e) {
+            Log.e(TAG, "Malformed import file", e);
+            return failure("Arquivo malformado: " + e.getMessage(), errorFile);
+        } catch (SecurityException e) {
+            Log.e(TAG, "No permission to read import file", e);
+            return failure("Sem permissão para ler o arquivo", errorFile);
+        } catch (IOException e) {
+            Log.w(TAG, "I/O error during import, will retry", e);
+            return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "Error importing persons", e);
+            return failure(e.getMessage(), errorFile);
+        }
+    }
+
+    private static Data.Builder counts(long processed, long imported, long rejected) {
+        return new Data.Builder()
+                .putLong(KEY_PROCESSED, processed)
+                .putLong(KEY_IMPORTED, imported)
+                .putLong(KEY_REJECTED, rejected);
+    }
+
+    private static Result failure(String message, File errorFile) {
+        return Result.failure(new Data.Builder()
+                .putString(KEY_FAILURE, message)
+                .putString(KEY_ERROR_FILE, errorFile.getAbsolutePath())
+                .build());
+    }
+}
@@ -0,0 +1,286 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import android.util.Log;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.ImportJob;
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.repository.PersonSearchIndex;
+import com.draccoapp.basisnordestetest.repository.RealmWriteExecutor;
+import com.draccoapp.basisnordestetest.sync.SyncOutbox;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+import io.realm.Realm;
+import io.realm.RealmList;
+import io.realm.RealmResults;
+
+/**
+ * Motor de importação de pessoas.
+ *
+ * Os registros são lidos em streaming, validados e gravados no Realm em lotes de
+ * {@link #CHUNK_SIZE}, cada um em uma única transação no {@link RealmWriteExecutor}. O ponto de
+ * retomada ({@link ImportJob}) é gravado na mesma transação do lote, e o arquivo de erros é
+ * truncado de volta ao tamanho registrado nele, então uma importação interrompida pode ser
+ * executada de novo sem duplicar pessoas nem linhas de erro. As pessoas importadas entram no
+ * outbox de sincronização na mesma transação.
+ *
+ * Deve ser executado fora da main thread.
+ */
+public class PersonImporter {
+    private static final String TAG = "PersonImporter";
+
+    // Lotes grandes diluem o custo de cada commit; 1000 pessoas com endereços ocupam poucos MB
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String[] ERROR_HEADER = {"registro", "local", "id", "motivo"};
+
+    private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+
+    public interface ProgressListener {
+        void onProgress(long processed, long imported, long rejected);
+    }
+
+    /**
+     * Totais da importação até o último lote confirmado.
+     */
+    public static class Summary {
+        public final long processed;
+        public final long imported;
+        public final long rejected;
+        public final boolean completed;
+
+        Summary(long processed, long imported, long rejected, boolean completed) {
+            this.processed = processed;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.completed = completed;
+        }
+    }
+
+    private final RealmWriteExecutor writeExecutor;
+
+    public PersonImporter(RealmWriteExecutor writeExecutor) {
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * Prepara o arquivo de entrada para a leitura, descompactando-o se for gzip, como os backups
+     * noturnos do {@link PersonExportWorker}. O gzip é reconhecido pelos dois primeiros bytes, e
+     * não pelo nome, porque o Uri escolhido pelo usuário nem sempre o traz.
+     */
+    public static InputStream openInput(InputStream raw) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(raw, INPUT_BUFFER_SIZE);
+        input.mark(2);
+        int first = input.read();
+        int second = input.read();
+        input.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+            return new GZIPInputStream(input, INPUT_BUFFER_SIZE);
+        }
+        return input;
+    }
+
+    /**
+     * Importa os registros, continuando do ponto de retomada do job, se houver.
+     * @param jobId Identificador estável da importação
+     * @param errorFile Arquivo CSV que recebe os registros rejeitados e o motivo
+     * @param stopped Consultado entre os lotes; quando true, a importação para após o último commit
+     * @return Totais da importação; completed é false se ela foi interrompida
+     */
+    public Summary run(String jobId, PersonRecordReader reader, File errorFile,
+                       ProgressListener listener, BooleanSupplier stopped)
+            throws IOException, ExecutionException, InterruptedException {
+        long processed;
+        long imported;
+        long rejected;
+        long errorFileLength;
+        try (Realm realm = Realm.getDefaultInstance()) {
+            ImportJob job = realm.where(ImportJob.class).equalTo("id", jobId).findFirst();
+            if (job != null && ImportJob.STATUS_COMPLETED.equals(job.getStatus())) {
+                return new Summary(job.getRecordsProcessed(), job.getImported(), job.getRejected(), true);
+            }
+            processed = job != null ? job.getRecordsProcessed() : 0;
+            imported = job != null ? job.getImported() : 0;
+            rejected = job != null ? job.getRejected() : 0;
+            errorFileLength = job != null ? job.getErrorFileLength() : 0;
+        }
+
+        // Descarta as linhas de erro de um lote que não chegou a ser confirmado
+        truncate(errorFile, errorFileLength);
+        try (CsvWriter errors = new CsvWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(errorFile, true), StandardCharsets.UTF_8)))) {
+            if (errorFileLength == 0) {
+                errors.writeRow(ERROR_HEADER);
+            }
+
+            if (processed > 0) {
+                Log.d(TAG, "Resuming import " + jobId + " after " + processed + " records");
+                for (long i = 0; i < processed && reader.next() != null; i++) {
+                    // Registros já confirmados em uma execução anterior
+                }
+            }
+
+            List<ImportRecord> records = new ArrayList<>(CHUNK_SIZE);
+            Map<String, Person> chunk = new LinkedHashMap<>();
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+
+                if (records.size() == CHUNK_SIZE) {
+                    int chunkRejected = validateChunk(jobId, records, chunk, errors);
+                    processed += records.size();
+                    imported += records.size() - chunkRejected;
+                    rejected += chunkRejected;
+                    commit(jobId, chunk, errors, errorFile, processed, imported, rejected, false);
+                    listener.onProgress(processed, imported, rejected);
+
+                    records.clear();
+                    chunk.clear();
+                    if (stopped.getAsBoolean()) {
+                        return new Summary(processed, imported, rejected, false);
+                    }
+                }
+            }
+
+            int chunkRejected = validateChunk(jobId, records, chunk, errors);
+            processed += records.size();
+            imported += records.size() - chunkRejected;
+            rejected += chunkRejected;
+            commit(jobId, chunk, errors, errorFile, processed, imported, rejected, true);
+            listener.onProgress(processed, imported, rejected);
+        }
+
+        Log.d(TAG, "Import " + jobId + " finished: " + imported + " imported, " + rejected + " rejected");
+        return new Summary(processed, imported, rejected, true);
+    }
+
+    /**
+     * Valida os registros do lote de uma vez, escreve os rejeitados no arquivo de erros e coloca os
+     * válidos em chunk.
+     * @return Quantidade de registros rejeitados
+     */
+    private static int validateChunk(String jobId, List<ImportRecord> records, Map<String, Person> chunk,
+                                     CsvWriter errors) throws IOException {
+        List<Person> persons = new ArrayList<>(records.size());
+        for (ImportRecord record : records) {
+            persons.add(record.getPerson());
+        }
+        String[] validationErrors = PersonImportValidator.validate(persons);
+
+        int rejected = 0;
+        for (int i = 0; i < records.size(); i++) {
+            ImportRecord record = records.get(i);
+            Person person = record.getPerson();
+            // Erros de leitura têm precedência sobre os de validação
+            String error = record.getError() != null ? record.getError() : validationErrors[i];
+
+            if (error != null) {
+                errors.writeRow(String.valueOf(record.getIndex() + 1), record.getLocation(),
+                        person.getId(), error);
+                rejected++;
+            } else {
+                assignIds(jobId, record.getIndex(), person);
+                person.updateNormalizedFields();
+                // Se o id se repetir no mesmo lote, o último registro prevalece
+                chunk.put(person.getId(), person);
+            }
+        }
+        return rejected;
+    }
+
+    private void commit(String jobId, Map<String, Person> chunk, CsvWriter errors, File errorFile,
+                        long processed, long imported, long rejected, boolean completed)
+            throws IOException, ExecutionException, InterruptedException {
+        // As linhas de erro precisam estar no disco antes do commit que registra o tamanho do arquivo
+        errors.flush();
+        final long errorFileLength = errorFile.length();
+
+        writeExecutor.executeAndWait(realm -> {
+            if (!chunk.isEmpty()) {
+                removeStaleAddresses(realm, chunk);
+                realm.insertOrUpdate(chunk.values());
+                PersonSearchIndex.indexAll(realm, chunk.values());
+                SyncOutbox.enqueueUpserts(realm, chunk.keySet());
+            }
+
+            ImportJob job = realm.where(ImportJob.class).equalTo("id", jobId).findFirst();
+            if (job == null) {
+                job = realm.copyToRealm(new ImportJob(jobId));
+            }
+            job.setRecordsProcessed(processed);
+            job.setImported(imported);
+            job.setRejected(rejected);
+            job.setErrorFileLength(errorFileLength);
+            job.setStatus(completed ? ImportJob.STATUS_COMPLETED : ImportJob.STATUS_RUNNING);
+            job.setUpdatedAt(System.currentTimeMillis());
+        });
+    }
+
+    // Endereços que a pessoa tinha e que não estão no registro importado seriam órfãos após o upsert
+    private static void removeStaleAddresses(Realm realm, Map<String, Person> chunk) {
+        RealmResults<Person> existing = realm.where(Person.class)
+                .in("id", chunk.keySet().toArray(new String[0]))
+                .findAll();
+        Set<String> keep = new HashSet<>();
+        for (Person current : existing) {
+            keep.clear();
+            for (Address address : chunk.get(current.getId()).getAddresses()) {
+                keep.add(address.getId());
+            }
+            RealmList<Address> addresses = current.getAddresses();
+            for (int i = addresses.size() - 1; i >= 0; i--) {
+                Address address = addresses.get(i);
+                if (!keep.contains(address.getId())) {
+                    SyncOutbox.enqueueAddressRemoval(realm, current.getId(), address.getId());
+                    address.deleteFromRealm();
+                }
+            }
+        }
+    }
+
+    // Ids derivados da posição no arquivo, para que reimportar após uma interrupção não duplique registros
+    private static void assignIds(String jobId, long index, Person person) {
+        if (person.getId() == null) {
+            person.setId(deterministicId(jobId + ":" + index));
+        }
+        RealmList<Address> addresses = person.getAddresses();
+        for (int i = 0; i < addresses.size(); i++) {
+            Address address = addresses.get(i);
+            if (address.getId() == null) {
+                address.setId(deterministicId(person.getId() + ":address:" + i));
+            }
+        }
+    }
+
+    private static String deterministicId(String seed) {
+        return UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static void truncate(File file, long length) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+}
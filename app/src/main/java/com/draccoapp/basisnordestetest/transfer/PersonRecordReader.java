@@ -0,0 +1,15 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Leitura em streaming dos registros de um arquivo de importação, um de cada vez.
+ */
+public interface PersonRecordReader extends Closeable {
+
+    /**
+     * @return Próximo registro, ou null no fim do arquivo
+     */
+    ImportRecord next() throws IOException;
+}
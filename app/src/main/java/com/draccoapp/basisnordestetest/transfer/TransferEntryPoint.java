@@ -0,0 +1,19 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import com.draccoapp.basisnordestetest.repository.RealmWriteExecutor;
+import com.draccoapp.basisnordestetest.sync.SyncScheduler;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.components.SingletonComponent;
+
+/**
+ * Acesso às dependências do Hilt a partir dos workers, que são criados pelo WorkManager.
+ */
+@EntryPoint
+@InstallIn(SingletonComponent.class)
+public interface TransferEntryPoint {
+    RealmWriteExecutor realmWriteExecutor();
+
+    SyncScheduler syncScheduler();
+}
@@ -0,0 +1,58 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import java.util.Locale;
+
+/**
+ * Formatos de arquivo aceitos na importação e na exportação de pessoas.
+ */
+public enum TransferFormat {
+    CSV("text/csv", ".csv"),
+    JSON("application/json", ".json");
+
+    private final String mimeType;
+    private final String extension;
+
+    TransferFormat(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Deduz o formato pela extensão do arquivo, ignorando um sufixo .gz: "pessoas-20260101.json.gz"
+     * é JSON. A descompactação fica com o {@link PersonImporter#openInput}.
+     * @return O formato correspondente, ou CSV como padrão.
+     */
+    public static TransferFormat fromFileName(String fileName) {
+        if (fileName == null) {
+            return CSV;
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".gz")) {
+            lower = lower.substring(0, lower.length() - 3);
+        }
+        return lower.endsWith(JSON.extension) ? JSON : CSV;
+    }
+
+    /**
+     * Converte uma string para o enum correspondente.
+     * @return O enum correspondente, ou CSV como padrão.
+     */
+    public static TransferFormat fromString(String format) {
+        if (format == null) {
+            return CSV;
+        }
+        try {
+            return valueOf(format);
+        } catch (IllegalArgumentException e) {
+            return CSV;
+        }
+    }
+}
@@ -28,6 +28,9 @@ import androidx.navigation.ui.AppBarConfiguration;
 
 import com.draccoapp.basisnordestetest.R;
 import com.draccoapp.basisnordestetest.databinding.ActivityMainBinding;
+import com.draccoapp.basisnordestetest.sync.LiveSync;
+
+import javax.inject.Inject;
 
 import dagger.hilt.android.AndroidEntryPoint;
 
@@ -43,6 +46,10 @@ public class MainActivity extends AppCompatActivity {
 
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
 
+    // Alterações de outros aparelhos em tempo real, apenas com o app em primeiro plano
+    @Inject
+    LiveSync liveSync;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -54,6 +61,18 @@ public class MainActivity extends AppCompatActivity {
         checkLocationPermission();
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        liveSync.start();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        liveSync.stop();
+    }
+
     @SuppressLint("UnspecifiedRegisterReceiverFlag")
     private void setupNotificationReceiver() {
         // Registrar o receiver para notificações locais
@@ -1,54 +1,56 @@
 package com.draccoapp.basisnordestetest.ui.adapters;
 
+import android.content.res.ColorStateList;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
-import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
 import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.draccoapp.basisnordestetest.R;
 import com.draccoapp.basisnordestetest.databinding.ItemPersonBinding;
-import com.draccoapp.basisnordestetest.model.AddressType;
-import com.draccoapp.basisnordestetest.model.Person;
-import com.draccoapp.basisnordestetest.model.PersonType;
-import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
 import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDisplay;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.viewmodel.PersonListUpdate;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 public class PersonAdapter extends RecyclerView.Adapter<PersonAdapter.ViewHolder> {
 
-    private final DiffUtil.ItemCallback<PersonDTO> diffCallback = new DiffUtil.ItemCallback<PersonDTO>() {
-        @Override
-        public boolean areItemsTheSame(@NonNull PersonDTO oldItem, @NonNull PersonDTO newItem) {
-            return oldItem.getId() != null && newItem.getId() != null && oldItem.getId().equals(newItem.getId());
-        }
-
-        @Override
-        public boolean areContentsTheSame(@NonNull PersonDTO oldItem, @NonNull PersonDTO newItem) {
-            // Comparação mais detalhada para determinar se o conteúdo mudou
-            return oldItem.getName().equals(newItem.getName()) &&
-                    oldItem.getEmail().equals(newItem.getEmail()) &&
-                    oldItem.getPhoneNumber().equals(newItem.getPhoneNumber()) &&
-                    oldItem.getPersonType().equals(newItem.getPersonType()) &&
-                    ((oldItem.getCpf() == null && newItem.getCpf() == null) ||
-                            (oldItem.getCpf() != null && oldItem.getCpf().equals(newItem.getCpf()))) &&
-                    ((oldItem.getCnpj() == null && newItem.getCnpj() == null) ||
-                            (oldItem.getCnpj() != null && oldItem.getCnpj().equals(newItem.getCnpj()))) &&
-                    ((oldItem.getCompanyName() == null && newItem.getCompanyName() == null) ||
-                            (oldItem.getCompanyName() != null && oldItem.getCompanyName().equals(newItem.getCompanyName())));
-        }
-    };
-
-    private final AsyncListDiffer<PersonDTO> differ = new AsyncListDiffer<>(this, diffCallback);
-    private final List<PersonDTO> persons = new ArrayList<>();
+    // Quantos itens antes do fim da lista disparam o carregamento da próxima página
+    private static final int PREFETCH_DISTANCE = 10;
+
+    // Formatação das linhas e diffs de listas completas acontecem fora da main thread. As
+    // atualizações passam todas por esta thread, uma de cada vez e na ordem em que chegaram.
+    private static final Executor LIST_EXECUTOR = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "person-list"));
+
+    private final PersonMapper personMapper;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ListUpdateCallback updateCallback = new AdapterListUpdateCallback(this);
+    // Linhas exibidas; acessadas apenas pela main thread
+    private List<PersonDisplay> items = Collections.emptyList();
+    // Linhas da última atualização processada, ainda não necessariamente exibidas;
+    // acessadas apenas pela thread de LIST_EXECUTOR
+    private List<PersonDisplay> processedItems = Collections.emptyList();
     private OnItemClickListener listener;
+    private OnLoadMoreListener loadMoreListener;
+    // Quantidade de itens para a qual a próxima página já foi pedida; a página só chega aos itens
+    // depois da passagem por LIST_EXECUTOR, e até lá cada bind perto do fim pediria outra.
+    // Acessada apenas pela main thread
+    private int loadMoreRequestedAt = -1;
 
     public interface OnItemClickListener {
         void onItemClick(PersonDTO person, int position);
@@ -57,201 +59,215 @@ public class PersonAdapter extends RecyclerView.Adapter<PersonAdapter.ViewHolder
         void onDeleteClick(PersonDTO person, int position);
     }
 
+    public interface OnLoadMoreListener {
+        void onLoadMore();
+    }
+
+    public PersonAdapter(PersonMapper personMapper) {
+        this.personMapper = personMapper;
+    }
+
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.listener = listener;
     }
 
-    public void updateList(List<PersonDTO> newList) {
-        persons.clear();
-        if (newList != null) {
-            persons.addAll(newList);
+    public void setOnLoadMoreListener(OnLoadMoreListener loadMoreListener) {
+        this.loadMoreListener = loadMoreListener;
+    }
+
+    /**
+     * Aplica uma atualização da lista. Atualizações incrementais formatam só as linhas inseridas ou
+     * alteradas e são despachadas diretamente; substituições completas passam por um diff. Os dois
+     * casos rodam em background e chegam ao RecyclerView na ordem em que foram enviados.
+     */
+    public void submitUpdate(PersonListUpdate update) {
+        if (update.isIncremental()) {
+            LIST_EXECUTOR.execute(() -> applyIncremental(update));
+        } else {
+            updateList(update.getPersons());
         }
-        differ.submitList(new ArrayList<>(persons)); // Enviar uma cópia imutável para o differ
     }
 
-    public void removePerson(int position) {
-        if (position >= 0 && position < persons.size()) {
-            persons.remove(position);
-            differ.submitList(new ArrayList<>(persons));
+    public void updateList(List<PersonDTO> newList) {
+        final List<PersonDTO> target = newList != null ? new ArrayList<>(newList) : new ArrayList<>();
+        LIST_EXECUTOR.execute(() -> replace(target));
+    }
+
+    // Roda em LIST_EXECUTOR
+    private void applyIncremental(PersonListUpdate update) {
+        List<PersonDTO> persons = update.getPersons();
+        final List<PersonDisplay> next = new ArrayList<>(processedItems);
+
+        // Reproduz as operações sobre as linhas atuais; as inseridas e alteradas ficam nulas
+        update.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                next.addAll(position, Collections.nCopies(count, null));
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                next.subList(position, position + count).clear();
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                next.add(toPosition, next.remove(fromPosition));
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                for (int i = position; i < position + count; i++) {
+                    next.set(i, null);
+                }
+            }
+        });
+
+        if (next.size() != persons.size()) {
+            // As operações partem de outra versão da lista (um adapter novo, por exemplo)
+            replace(persons);
+            return;
         }
+        for (int i = 0; i < next.size(); i++) {
+            PersonDisplay display = next.get(i);
+            if (display == null) {
+                next.set(i, personMapper.toDisplay(persons.get(i)));
+            } else if (display.getPerson() != persons.get(i)) {
+                replace(persons);
+                return;
+            }
+        }
+
+        processedItems = next;
+        mainHandler.post(() -> {
+            items = next;
+            update.dispatchUpdatesTo(updateCallback);
+        });
     }
 
-    public void addPerson(PersonDTO person) {
-        persons.add(person);
-        differ.submitList(new ArrayList<>(persons));
+    // Roda em LIST_EXECUTOR
+    private void replace(List<PersonDTO> persons) {
+        final List<PersonDisplay> oldItems = processedItems;
+        final List<PersonDisplay> newItems = personMapper.toDisplay(persons, oldItems);
+        processedItems = newItems;
+
+        if (oldItems.isEmpty() || newItems.isEmpty()) {
+            mainHandler.post(() -> {
+                items = newItems;
+                loadMoreRequestedAt = -1;
+                notifyDataSetChanged();
+            });
+            return;
+        }
+
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldItems.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newItems.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                String oldId = oldItems.get(oldPosition).getId();
+                return oldId != null && oldId.equals(newItems.get(newPosition).getId());
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                // Compara o que é exibido, inclusive os endereços
+                return oldItems.get(oldPosition).sameContentAs(newItems.get(newPosition));
+            }
+        });
+
+        mainHandler.post(() -> {
+            items = newItems;
+            // Lista substituída (busca, recarga): um pedido pendente pode não valer mais
+            loadMoreRequestedAt = -1;
+            result.dispatchUpdatesTo(updateCallback);
+        });
     }
 
     public PersonDTO getPersonAt(int position) {
-        if (position >= 0 && position < differ.getCurrentList().size()) {
-            return differ.getCurrentList().get(position);
+        if (position >= 0 && position < items.size()) {
+            return items.get(position).getPerson();
         }
         return null;
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
         private final ItemPersonBinding binding;
+        private final ColorStateList physicalBackground;
+        private final ColorStateList legalBackground;
+        // Pessoa e listener do último bind, lidos pelos listeners de clique
+        private PersonDTO person;
+        private OnItemClickListener listener;
 
         public ViewHolder(ItemPersonBinding binding) {
             super(binding.getRoot());
             this.binding = binding;
-        }
-
-        public void bind(PersonDTO person, OnItemClickListener listener) {
-            if (person == null) return;
-
-            // Configurar tipo de pessoa
-            PersonType personType = person.getPersonType();
-            if (personType != null) {
-                binding.textViewPersonType.setText(personType.getDisplayName());
-
-                // Definir cor de fundo com base no tipo de pessoa
-                int bgColor = personType == PersonType.LEGAL
-                        ? R.color.legal_person_bg
-                        : R.color.person_type_bg;
-                binding.textViewPersonType.setBackgroundTintList(
-                        ContextCompat.getColorStateList(itemView.getContext(), bgColor)
-                );
-            } else {
-                binding.textViewPersonType.setText(PersonType.PHYSICAL.getDisplayName());
-                binding.textViewPersonType.setBackgroundTintList(
-                        ContextCompat.getColorStateList(itemView.getContext(), R.color.person_type_bg)
-                );
-            }
-
-            // Definir nome principal com base no tipo de pessoa
-            if (personType == PersonType.PHYSICAL) {
-                binding.textViewName.setText(person.getName() != null ? person.getName() : "");
-                binding.textViewCompanyName.setVisibility(View.GONE);
-                binding.textViewDocument.setText("CPF: " + (person.getCpf() != null ? formatCpf(person.getCpf()) : ""));
-            } else {
-                binding.textViewName.setText(person.getCompanyName() != null ? person.getCompanyName() : "");
-                if (person.getName() != null && !person.getName().isEmpty()) {
-                    binding.textViewCompanyName.setText("Contato: " + person.getName());
-                    binding.textViewCompanyName.setVisibility(View.VISIBLE);
-                } else {
-                    binding.textViewCompanyName.setVisibility(View.GONE);
+            physicalBackground = ContextCompat.getColorStateList(itemView.getContext(), R.color.person_type_bg);
+            legalBackground = ContextCompat.getColorStateList(itemView.getContext(), R.color.legal_person_bg);
+
+            // Criados uma vez por ViewHolder, e não a cada bind
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onItemClick(person, position);
                 }
-                binding.textViewDocument.setText("CNPJ: " + (person.getCnpj() != null ? formatCnpj(person.getCnpj()) : ""));
-            }
+            });
 
-            // Configurar telefone e email
-            binding.textViewPhone.setText("Tel: " + (person.getPhoneNumber() != null ? formatPhone(person.getPhoneNumber()) : ""));
-            binding.textViewEmail.setText("Email: " + (person.getEmail() != null ? person.getEmail() : ""));
-
-            // Configurar endereços
-            StringBuilder addressesText = new StringBuilder();
-            if (person.getAddresses() != null && !person.getAddresses().isEmpty()) {
-                for (int i = 0; i < person.getAddresses().size(); i++) {
-                    AddressDTO address = person.getAddresses().get(i);
-                    if (i > 0) {
-                        addressesText.append("\n\n");
-                    }
-
-                    // Adicionar tipo de endereço
-                    AddressType addressType = address.getAddressType();
-                    if (addressType != null) {
-                        addressesText.append(addressType.getDisplayName()).append(": ");
-                    }
-
-                    // Adicionar rua e número
-                    String street = address.getStreet();
-                    String number = address.getNumber();
-                    if (street != null && !street.isEmpty()) {
-                        addressesText.append(street);
-                        if (number != null && !number.isEmpty()) {
-                            addressesText.append(", ").append(number);
-                        }
-                    }
-
-                    // Adicionar bairro
-                    String neighborhood = address.getNeighborhood();
-                    if (neighborhood != null && !neighborhood.isEmpty()) {
-                        addressesText.append(" - ").append(neighborhood);
-                    }
-
-                    // Adicionar cidade e estado
-                    String city = address.getCity();
-                    String state = address.getState();
-                    if ((city != null && !city.isEmpty()) || (state != null && !state.isEmpty())) {
-                        addressesText.append(", ");
-                        if (city != null && !city.isEmpty()) {
-                            addressesText.append(city);
-                            if (state != null && !state.isEmpty()) {
-                                addressesText.append("/").append(state);
-                            }
-                        } else if (state != null && !state.isEmpty()) {
-                            addressesText.append(state);
-                        }
-                    }
+            itemView.setOnLongClickListener(v -> {
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onItemLongClick(person, position);
+                    return true;
                 }
-            } else {
-                addressesText.append("Nenhum endereço cadastrado");
-            }
-            binding.textViewAddresses.setText(addressesText.toString());
-
-            // Configurar listeners de clique
-            if (listener != null) {
-                itemView.setOnClickListener(v -> {
-                    int position = getAdapterPosition();
-                    if (position != RecyclerView.NO_POSITION) {
-                        listener.onItemClick(person, position);
-                    }
-                });
-
-                itemView.setOnLongClickListener(v -> {
-                    int position = getAdapterPosition();
-                    if (position != RecyclerView.NO_POSITION) {
-                        listener.onItemLongClick(person, position);
-                        return true;
-                    }
-                    return false;
-                });
-
-                binding.buttonEdit.setOnClickListener(v -> {
-                    int position = getAdapterPosition();
-                    if (position != RecyclerView.NO_POSITION) {
-                        listener.onEditClick(person, position);
-                    }
-                });
-
-                binding.buttonDelete.setOnClickListener(v -> {
-                    int position = getAdapterPosition();
-                    if (position != RecyclerView.NO_POSITION) {
-                        listener.onDeleteClick(person, position);
-                    }
-                });
-            }
-        }
+                return false;
+            });
 
-        private String formatCpf(String cpf) {
-            if (cpf == null || cpf.length() != 11) return cpf;
-            return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." +
-                    cpf.substring(6, 9) + "-" + cpf.substring(9);
-        }
+            binding.buttonEdit.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onEditClick(person, position);
+                }
+            });
 
-        private String formatCnpj(String cnpj) {
-            if (cnpj == null || cnpj.length() != 14) return cnpj;
-            return cnpj.substring(0, 2) + "." + cnpj.substring(2, 5) + "." +
-                    cnpj.substring(5, 8) + "/" + cnpj.substring(8, 12) + "-" + cnpj.substring(12);
+            binding.buttonDelete.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (listener != null && position != RecyclerView.NO_POSITION) {
+                    listener.onDeleteClick(person, position);
+                }
+            });
         }
 
-        private String formatPhone(String phone) {
-            if (phone == null) return "";
-            // Remove caracteres não numéricos
-            String numbers = phone.replaceAll("[^0-9]", "");
-
-            if (numbers.length() == 11) {
-                // Formato (XX) XXXXX-XXXX
-                return "(" + numbers.substring(0, 2) + ") " +
-                        numbers.substring(2, 7) + "-" +
-                        numbers.substring(7);
-            } else if (numbers.length() == 10) {
-                // Formato (XX) XXXX-XXXX
-                return "(" + numbers.substring(0, 2) + ") " +
-                        numbers.substring(2, 6) + "-" +
-                        numbers.substring(6);
+        /**
+         * Os textos já chegam formatados pelo {@link PersonMapper#toDisplay(PersonDTO)}; o bind
+         * não formata nem aloca.
+         */
+        public void bind(PersonDisplay display, OnItemClickListener listener) {
+            this.person = display.getPerson();
+            this.listener = listener;
+
+            binding.textViewPersonType.setText(display.getTypeLabel());
+            binding.textViewPersonType.setBackgroundTintList(
+                    display.isLegal() ? legalBackground : physicalBackground);
+
+            binding.textViewName.setText(display.getTitle());
+            if (display.getContact() != null) {
+                binding.textViewCompanyName.setText(display.getContact());
+                binding.textViewCompanyName.setVisibility(View.VISIBLE);
+            } else {
+                binding.textViewCompanyName.setVisibility(View.GONE);
             }
-            return phone; // Retorna o original se não conseguir formatar
+            binding.textViewDocument.setText(display.getDocument());
+            binding.textViewPhone.setText(display.getPhone());
+            binding.textViewEmail.setText(display.getEmail());
+            binding.textViewAddresses.setText(display.getAddresses());
         }
     }
 
@@ -265,11 +281,23 @@ public class PersonAdapter extends RecyclerView.Adapter<PersonAdapter.ViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        holder.bind(differ.getCurrentList().get(position), listener);
+        holder.bind(items.get(position), listener);
+
+        // Solicitar a próxima página quando a rolagem se aproxima do fim, uma vez por tamanho de lista
+        int itemCount = getItemCount();
+        if (loadMoreListener != null && position >= itemCount - PREFETCH_DISTANCE
+                && loadMoreRequestedAt != itemCount) {
+            loadMoreRequestedAt = itemCount;
+            holder.itemView.post(() -> {
+                if (loadMoreListener != null) {
+                    loadMoreListener.onLoadMore();
+                }
+            });
+        }
     }
 
     @Override
     public int getItemCount() {
-        return differ.getCurrentList().size();
+        return items.size();
     }
 }
@@ -42,9 +42,6 @@ import java.util.UUID;
 import javax.inject.Inject;
 
 import dagger.hilt.android.AndroidEntryPoint;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 @AndroidEntryPoint
 public class PersonFormFragment extends Fragment {
@@ -54,6 +51,9 @@ public class PersonFormFragment extends Fragment {
     private FragmentPersonFormBinding binding;
     private PersonFormViewModel viewModel;
     private AddressAdapter addressAdapter;
+    // Consulta de CEP em andamento no diálogo de endereço aberto, e os dígitos consultados
+    private CepRepository.Request cepRequest;
+    private String cepRequestDigits;
 
     @Inject
     CepRepository cepRepository;
@@ -462,50 +462,88 @@ public class PersonFormFragment extends Fragment {
                     }
                 })
                 .setNegativeButton("Cancelar", null)
+                .setOnDismissListener(dialogInterface -> cancelCepSearch())
                 .create();
 
         dialog.show();
     }
 
+    private void cancelCepSearch() {
+        if (cepRequest != null) {
+            cepRequest.cancel();
+            cepRequest = null;
+        }
+        cepRequestDigits = null;
+    }
+
     private void searchCep(String cep, DialogAddressFormBinding dialogBinding) {
+        String digits = cep.replaceAll("[^0-9]", "");
+        // O MaskWatcher reescreve o campo dentro do próprio afterTextChanged (colar, apagar o hífen),
+        // então o mesmo CEP pode chegar duas vezes seguidas
+        if (cepRequest != null && digits.equals(cepRequestDigits)) {
+            return;
+        }
 
-        cepRepository.getCepInfo(cep, new Callback<CepResponse>() {
+        // Um CEP novo substitui a consulta anterior. A nova é registrada antes de a anterior ser
+        // cancelada, para que uma requisição compartilhada não seja derrubada e refeita
+        CepRepository.Request previous = cepRequest;
+        boolean[] finished = {false};
+        CepRepository.Request request = cepRepository.getCepInfo(digits, new CepRepository.CepCallback() {
             @Override
-            public void onResponse(Call<CepResponse> call, Response<CepResponse> response) {
-
-                if (response.isSuccessful() && response.body() != null) {
-                    CepResponse cepResponse = response.body();
+            public void onSuccess(CepResponse cepResponse) {
+                finish();
+                if (binding == null) {
+                    return;
+                }
 
-                    // Verificar se houve erro na busca
-                    if (cepResponse.isError()) {
-                        Toast.makeText(requireContext(), "CEP não encontrado", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
+                // Preencher os campos com os dados do CEP
+                dialogBinding.editTextStreet.setText(cepResponse.getStreet());
+                dialogBinding.editTextComplement.setText(cepResponse.getComplement());
+                dialogBinding.editTextNeighborhood.setText(cepResponse.getNeighborhood());
+                dialogBinding.editTextCity.setText(cepResponse.getCity());
+                dialogBinding.editTextState.setText(cepResponse.getState());
 
-                    // Preencher os campos com os dados do CEP
-                    dialogBinding.editTextStreet.setText(cepResponse.getStreet());
-                    dialogBinding.editTextComplement.setText(cepResponse.getComplement());
-                    dialogBinding.editTextNeighborhood.setText(cepResponse.getNeighborhood());
-                    dialogBinding.editTextCity.setText(cepResponse.getCity());
-                    dialogBinding.editTextState.setText(cepResponse.getState());
+                // Focar no campo de número
+                dialogBinding.editTextNumber.requestFocus();
+            }
 
-                    // Focar no campo de número
-                    dialogBinding.editTextNumber.requestFocus();
-                } else {
-                    Toast.makeText(requireContext(), "Erro ao buscar CEP", Toast.LENGTH_SHORT).show();
+            @Override
+            public void onNotFound() {
+                finish();
+                if (binding != null) {
+                    Toast.makeText(requireContext(), "CEP não encontrado", Toast.LENGTH_SHORT).show();
                 }
             }
 
             @Override
-            public void onFailure(Call<CepResponse> call, Throwable t) {
-                Toast.makeText(requireContext(), "Falha na conexão: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+            public void onFailure(Throwable t) {
+                finish();
+                if (binding != null) {
+                    Toast.makeText(requireContext(), "Falha na conexão: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            // Uma consulta terminada não segura o CEP: digitá-lo de novo consulta de novo (pelo cache)
+            private void finish() {
+                finished[0] = true;
+                if (cepRequestDigits != null && cepRequestDigits.equals(digits)) {
+                    cepRequest = null;
+                    cepRequestDigits = null;
+                }
             }
         });
+        if (previous != null) {
+            previous.cancel();
+        }
+        // Respostas do cache chegam antes de getCepInfo retornar
+        cepRequest = finished[0] ? null : request;
+        cepRequestDigits = finished[0] ? null : digits;
     }
 
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        cancelCepSearch();
         binding = null;
     }
 }
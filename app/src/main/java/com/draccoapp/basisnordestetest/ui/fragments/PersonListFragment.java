@@ -1,14 +1,23 @@
 package com.draccoapp.basisnordestetest.ui.fragments;
 
 import android.app.AlertDialog;
+import android.content.Intent;
+import android.database.Cursor;
+import android.net.Uri;
 import android.os.Bundle;
+import android.provider.OpenableColumns;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.work.Data;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
 
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -21,20 +30,44 @@ import com.draccoapp.basisnordestetest.R;
 import com.draccoapp.basisnordestetest.databinding.FragmentPersonListBinding;
 import com.draccoapp.basisnordestetest.model.Person;
 import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.sync.LiveSync;
+import com.draccoapp.basisnordestetest.transfer.PersonImportWorker;
+import com.draccoapp.basisnordestetest.transfer.TransferFormat;
 import com.draccoapp.basisnordestetest.ui.adapters.PersonAdapter;
+import com.draccoapp.basisnordestetest.viewmodel.PersonListUpdate;
 import com.draccoapp.basisnordestetest.viewmodel.PersonListViewModel;
 
 import java.util.List;
 
+import javax.inject.Inject;
+
 import dagger.hilt.android.AndroidEntryPoint;
 
 @AndroidEntryPoint
 public class PersonListFragment extends Fragment {
+    private static final String TAG = "PersonListFragment";
+    private static final String STATE_IMPORT_JOB_ID = "importJobId";
+    // Os provedores de documentos nem sempre informam text/csv; o formato vem do nome do arquivo
+    private static final String[] IMPORT_MIME_TYPES = {
+            "text/*", "application/json", "application/gzip", "application/x-gzip", "application/octet-stream"
+    };
 
     private FragmentPersonListBinding binding;
     private PersonListViewModel viewModel;
     private PersonAdapter adapter;
     private String currentQuery = "";
+    // Importação acompanhada na tela; sobrevive à rotação pelo estado salvo
+    private String importJobId;
+
+    private final ActivityResultLauncher<String[]> importLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::startImport);
+
+    @Inject
+    PersonMapper personMapper;
+
+    @Inject
+    LiveSync liveSync;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -50,12 +83,26 @@ public class PersonListFragment extends Fragment {
         setupRecyclerView();
         observeViewModel();
         setupListeners();
+
+        if (savedInstanceState != null) {
+            importJobId = savedInstanceState.getString(STATE_IMPORT_JOB_ID);
+        }
+        if (importJobId != null) {
+            observeImport(importJobId);
+        }
+    }
+
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_IMPORT_JOB_ID, importJobId);
     }
 
     private void setupRecyclerView() {
-        adapter = new PersonAdapter();
+        adapter = new PersonAdapter(personMapper);
         binding.recyclerViewPersons.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.recyclerViewPersons.setAdapter(adapter);
+        adapter.setOnLoadMoreListener(() -> viewModel.loadNextPage());
 
         adapter.setOnItemClickListener(new PersonAdapter.OnItemClickListener() {
             @Override
@@ -93,7 +140,7 @@ public class PersonListFragment extends Fragment {
     }
 
     private void observeViewModel() {
-        viewModel.getDetachedPersons().observe(getViewLifecycleOwner(), this::updatePersonList);
+        viewModel.getPersonListUpdates().observe(getViewLifecycleOwner(), this::updatePersonList);
 
         viewModel.getLoading().observe(getViewLifecycleOwner(), isLoading -> {
             binding.progressBar.setVisibility(isLoading ? View.VISIBLE : View.GONE);
@@ -106,8 +153,9 @@ public class PersonListFragment extends Fragment {
         });
     }
 
-    private void updatePersonList(List<PersonDTO> persons) {
-        adapter.updateList(persons);
+    private void updatePersonList(PersonListUpdate update) {
+        adapter.submitUpdate(update);
+        List<PersonDTO> persons = update.getPersons();
 
         // Atualizar estado vazio com mensagem específica para pesquisa
         if (persons == null || persons.isEmpty()) {
@@ -143,10 +191,9 @@ public class PersonListFragment extends Fragment {
 
             @Override
             public boolean onQueryTextChange(String newText) {
-                if (newText == null || newText.isEmpty()) {
-                    currentQuery = "";
-                    viewModel.loadAllPersons();
-                }
+                // Busca conforme digita; o ViewModel aplica debounce e cancela buscas antigas
+                currentQuery = newText != null ? newText : "";
+                viewModel.onSearchQueryChanged(currentQuery);
                 return true;
             }
         });
@@ -155,18 +202,99 @@ public class PersonListFragment extends Fragment {
             String query = binding.searchView.getQuery().toString();
             performSearch(query);
         });
+
+        // Modo ao vivo: a escolha fica salva e vale enquanto o app estiver em primeiro plano
+        binding.switchLiveSync.setChecked(liveSync.isEnabled());
+        binding.switchLiveSync.setOnCheckedChangeListener((buttonView, isChecked) -> liveSync.setEnabled(isChecked));
+
+        binding.buttonImport.setOnClickListener(v -> importLauncher.launch(IMPORT_MIME_TYPES));
+    }
+
+    private void startImport(@Nullable Uri uri) {
+        if (uri == null) {
+            return; // Seleção cancelada
+        }
+        try {
+            // A permissão precisa sobreviver à morte do processo, para que o WorkManager possa retomar a importação
+            requireContext().getContentResolver()
+                    .takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        } catch (SecurityException e) {
+            Log.w(TAG, "Persistable permission not granted for " + uri, e);
+        }
+        TransferFormat format = TransferFormat.fromFileName(displayName(uri));
+        importJobId = PersonImportWorker.enqueue(requireContext(), uri, format);
+        observeImport(importJobId);
+    }
+
+    // Nome do arquivo escolhido, de onde sai o formato; o Uri de um provedor de documentos não tem extensão
+    @Nullable
+    private String displayName(Uri uri) {
+        try (Cursor cursor = requireContext().getContentResolver().query(uri,
+                new String[]{OpenableColumns.DISPLAY_NAME}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                return cursor.getString(0);
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not read the name of " + uri, e);
+        }
+        return uri.getLastPathSegment();
+    }
+
+    private void observeImport(String jobId) {
+        WorkManager.getInstance(requireContext())
+                .getWorkInfosForUniqueWorkLiveData(PersonImportWorker.workName(jobId))
+                .observe(getViewLifecycleOwner(), infos -> {
+                    if (infos == null || infos.isEmpty() || !jobId.equals(importJobId)) {
+                        return;
+                    }
+                    showImportStatus(infos.get(0));
+                });
+    }
+
+    private void showImportStatus(WorkInfo info) {
+        binding.textViewImportStatus.setVisibility(View.VISIBLE);
+        switch (info.getState()) {
+            case SUCCEEDED: {
+                Data output = info.getOutputData();
+                long rejected = output.getLong(PersonImportWorker.KEY_REJECTED, 0);
+                String status = "Importação concluída: "
+                        + output.getLong(PersonImportWorker.KEY_IMPORTED, 0) + " importadas, "
+                        + rejected + " rejeitadas";
+                if (rejected > 0) {
+                    status += "\nErros em " + output.getString(PersonImportWorker.KEY_ERROR_FILE);
+                }
+                binding.textViewImportStatus.setText(status);
+                importJobId = null;
+                break;
+            }
+            case FAILED:
+                binding.textViewImportStatus.setText("Importação falhou: "
+                        + info.getOutputData().getString(PersonImportWorker.KEY_FAILURE));
+                importJobId = null;
+                break;
+            case CANCELLED:
+                binding.textViewImportStatus.setText("Importação cancelada");
+                importJobId = null;
+                break;
+            default: {
+                Data progress = info.getProgress();
+                binding.textViewImportStatus.setText("Importando: "
+                        + progress.getLong(PersonImportWorker.KEY_PROCESSED, 0) + " lidas, "
+                        + progress.getLong(PersonImportWorker.KEY_IMPORTED, 0) + " importadas, "
+                        + progress.getLong(PersonImportWorker.KEY_REJECTED, 0) + " rejeitadas");
+                break;
+            }
+        }
     }
 
     private void performSearch(String query) {
-        Log.d("PersonListFragment", "Performing search: " + query);
+        Log.d(TAG, "Performing search: " + query);
         currentQuery = query;
 
-        if (query != null && !query.isEmpty()) {
-            viewModel.searchPersons(query);
-        } else {
+        if (query == null) {
             currentQuery = "";
-            viewModel.loadAllPersons();
         }
+        viewModel.searchPersons(currentQuery);
     }
 
     private void showOptionsDialog(PersonDTO person, int position) {
@@ -214,7 +342,7 @@ public class PersonListFragment extends Fragment {
     private void deletePerson(String personId, int position) {
         viewModel.deletePerson(personId, success -> {
             if (success) {
-                adapter.removePerson(position);
+                // A remoção da lista chega pelo changeset do Realm
                 Toast.makeText(requireContext(), "Pessoa excluída com sucesso", Toast.LENGTH_SHORT).show();
 
                 // Verificar se a lista está vazia após a exclusão
@@ -0,0 +1,179 @@
+package com.draccoapp.basisnordestetest.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validação em lote de uma coluna de valores (CPFs, CNPJs, telefones ou emails), para importações
+ * e sincronizações grandes.
+ *
+ * A coluna pode vir como array ou como um único texto com os valores concatenados e um array de
+ * offsets, que evita um objeto por valor. O resultado é um bitset dos válidos e um byte com o
+ * {@link ValidationReason} de cada registro. A validação de cada valor não aloca; acima de
+ * {@link #PARALLEL_THRESHOLD} registros o lote é dividido entre os núcleos com fork/join.
+ */
+public final class BatchValidator {
+
+    public enum Kind {CPF, CNPJ, PHONE, EMAIL}
+
+    // Abaixo disso, dividir o lote custa mais do que validar em uma thread
+    static final int PARALLEL_THRESHOLD = 32 * 1024;
+    // Múltiplo de 64, para que cada tarefa escreva palavras inteiras do bitset
+    private static final int LEAF_SIZE = 8 * 1024;
+
+    /**
+     * Resultado de um lote: o registro i é válido se o bit i estiver ligado.
+     */
+    public static final class Result {
+        private final int size;
+        private final long[] validBits;
+        private final byte[] reasons;
+
+        Result(int size) {
+            this.size = size;
+            this.validBits = new long[(size + 63) >>> 6];
+            this.reasons = new byte[size];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isValid(int index) {
+            return (validBits[index >>> 6] & (1L << index)) != 0;
+        }
+
+        /**
+         * @return {@link ValidationReason#VALID} ou o motivo da rejeição do registro
+         */
+        public int reason(int index) {
+            return reasons[index];
+        }
+
+        public int validCount() {
+            int count = 0;
+            for (long word : validBits) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        /**
+         * @return O primeiro registro inválido a partir de from, ou -1 se não houver
+         */
+        public int nextInvalid(int from) {
+            if (from >= size) {
+                return -1;
+            }
+            int word = from >>> 6;
+            long invalid = ~validBits[word] & (-1L << from);
+            while (true) {
+                if (invalid != 0) {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(invalid);
+                    return index < size ? index : -1;
+                }
+                if (++word == validBits.length) {
+                    return -1;
+                }
+                invalid = ~validBits[word];
+            }
+        }
+
+        // Cópia do bitset, no formato de BitSet.valueOf(long[])
+        public long[] toLongArray() {
+            return validBits.clone();
+        }
+    }
+
+    private BatchValidator() {
+    }
+
+    /**
+     * Valida um array de valores; posições nulas são {@link ValidationReason#EMPTY}.
+     */
+    public static Result validate(Kind kind, CharSequence[] values) {
+        Result result = new Result(values.length);
+        run(new Task(kind, values, null, null, result, 0, values.length));
+        return result;
+    }
+
+    /**
+     * Valida uma coluna concatenada: o valor i ocupa column[offsets[i], offsets[i + 1]).
+     * @param offsets Quantidade de registros + 1 posições, em ordem crescente
+     */
+    public static Result validate(Kind kind, CharSequence column, int[] offsets) {
+        int size = offsets.length - 1;
+        Result result = new Result(Math.max(size, 0));
+        run(new Task(kind, null, column, offsets, result, 0, size));
+        return result;
+    }
+
+    private static void run(Task task) {
+        if (task.end - task.start >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+        private final Kind kind;
+        private final CharSequence[] values;
+        private final CharSequence column;
+        private final int[] offsets;
+        private final Result result;
+        private final int start;
+        private final int end;
+
+        Task(Kind kind, CharSequence[] values, CharSequence column, int[] offsets, Result result,
+             int start, int end) {
+            this.kind = kind;
+            this.values = values;
+            this.column = column;
+            this.offsets = offsets;
+            this.result = result;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_SIZE) {
+                // Divide em um múltiplo de 64 para as metades não compartilharem palavras do bitset
+                int middle = start + (((end - start) >>> 1) & ~63);
+                invokeAll(new Task(kind, values, column, offsets, result, start, middle),
+                        new Task(kind, values, column, offsets, result, middle, end));
+                return;
+            }
+
+            long[] bits = result.validBits;
+            byte[] reasons = result.reasons;
+            for (int i = start; i < end; i++) {
+                int reason;
+                if (values != null) {
+                    CharSequence value = values[i];
+                    reason = value == null ? ValidationReason.EMPTY : check(kind, value, 0, value.length());
+                } else {
+                    reason = check(kind, column, offsets[i], offsets[i + 1]);
+                }
+                reasons[i] = (byte) reason;
+                if (reason == ValidationReason.VALID) {
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    private static int check(Kind kind, CharSequence text, int start, int end) {
+        switch (kind) {
+            case CPF:
+                return ValidationUtil.checkCpf(text, start, end);
+            case CNPJ:
+                return ValidationUtil.checkCnpj(text, start, end);
+            case PHONE:
+                return ValidationUtil.checkPhone(text, start, end);
+            default:
+                return ValidationUtil.checkEmail(text, start, end);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.draccoapp.basisnordestetest.util;
+
+/**
+ * Validação de email em uma única passada, sem regex, com as mesmas regras do
+ * {@code Patterns.EMAIL_ADDRESS} do Android:
+ * <pre>
+ * local    1 a 256 caracteres entre letras, dígitos e + . _ % -
+ * @
+ * domínio  dois ou mais rótulos separados por ponto; cada rótulo começa com letra ou dígito e
+ *          continua com letras, dígitos ou hífen, até 65 caracteres no primeiro e 26 nos demais
+ * </pre>
+ * Como no Patterns, qualquer caractere fora do ASCII torna o email inválido.
+ */
+final class EmailValidator {
+    private static final int MAX_LOCAL_LENGTH = 256;
+    private static final int MAX_FIRST_LABEL_LENGTH = 65;
+    private static final int MAX_LABEL_LENGTH = 26;
+
+    private EmailValidator() {
+    }
+
+    /**
+     * @return {@link ValidationReason#VALID} ou {@link ValidationReason#MALFORMED}
+     */
+    static int check(CharSequence text, int start, int end) {
+        int i = start;
+
+        // Parte local, até o @
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == '@') {
+                break;
+            }
+            if (!isAlphanumeric(c) && c != '+' && c != '.' && c != '_' && c != '%' && c != '-') {
+                return ValidationReason.MALFORMED;
+            }
+            i++;
+        }
+        int localLength = i - start;
+        if (i == end || localLength == 0 || localLength > MAX_LOCAL_LENGTH) {
+            return ValidationReason.MALFORMED;
+        }
+        i++;
+
+        // Domínio, rótulo por rótulo
+        int labels = 0;
+        int labelLength = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0) {
+                    return ValidationReason.MALFORMED;
+                }
+                labels++;
+                labelLength = 0;
+            } else if (isAlphanumeric(c) || (c == '-' && labelLength > 0)) {
+                labelLength++;
+                if (labelLength > (labels == 0 ? MAX_FIRST_LABEL_LENGTH : MAX_LABEL_LENGTH)) {
+                    return ValidationReason.MALFORMED;
+                }
+            } else {
+                return ValidationReason.MALFORMED;
+            }
+        }
+        return labelLength > 0 && labels >= 1 ? ValidationReason.VALID : ValidationReason.MALFORMED;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,132 @@
+package com.draccoapp.basisnordestetest.util;
+
+/**
+ * Máscara de entrada compilada. Cada padrão usa # para um dígito e qualquer outro caractere como
+ * separador, por exemplo "###.###.###-##". Uma máscara pode ter vários padrões, como os telefones
+ * de 10 e 11 dígitos; vale o menor padrão em que os dígitos digitados cabem.
+ *
+ * Os separadores só são escritos antes de um dígito, para que apagar o último dígito não deixe um
+ * separador sobrando. Dígitos além da capacidade do maior padrão são descartados.
+ */
+public final class InputMask {
+    public static final InputMask CPF = new InputMask("###.###.###-##");
+    public static final InputMask CNPJ = new InputMask("##.###.###/####-##");
+    public static final InputMask PHONE = new InputMask("(##) ####-####", "(##) #####-####");
+    public static final InputMask ZIP_CODE = new InputMask("#####-###");
+
+    private static final char DIGIT = '#';
+
+    // Padrões em ordem crescente de capacidade
+    private final char[][] patterns;
+    private final int[] capacities;
+
+    public InputMask(String... patterns) {
+        if (patterns.length == 0) {
+            throw new IllegalArgumentException("At least one pattern is required");
+        }
+        this.patterns = new char[patterns.length][];
+        this.capacities = new int[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            char[] pattern = patterns[i].toCharArray();
+            int capacity = 0;
+            for (char c : pattern) {
+                if (c == DIGIT) {
+                    capacity++;
+                }
+            }
+            if (i > 0 && capacity <= capacities[i - 1]) {
+                throw new IllegalArgumentException("Patterns must be in increasing digit count: " + patterns[i]);
+            }
+            this.patterns[i] = pattern;
+            this.capacities[i] = capacity;
+        }
+    }
+
+    public int getMaxDigits() {
+        return capacities[capacities.length - 1];
+    }
+
+    /**
+     * Escreve em out os dígitos de input formatados pela máscara. out é limpo antes; reutilizar o
+     * mesmo StringBuilder evita alocação a cada tecla.
+     */
+    public void format(CharSequence input, StringBuilder out) {
+        out.setLength(0);
+        int digits = Math.min(countDigits(input, input.length()), getMaxDigits());
+        if (digits == 0) {
+            return;
+        }
+        char[] pattern = patterns[patternFor(digits)];
+
+        int written = 0;
+        int next = nextDigit(input, 0);
+        for (int i = 0; i < pattern.length && written < digits; i++) {
+            if (pattern[i] == DIGIT) {
+                out.append(input.charAt(next));
+                next = nextDigit(input, next + 1);
+                written++;
+            } else {
+                out.append(pattern[i]);
+            }
+        }
+    }
+
+    /**
+     * Formata o texto todo; para exibição fora de um campo de edição.
+     */
+    public String format(CharSequence input) {
+        StringBuilder out = new StringBuilder(patterns[patterns.length - 1].length);
+        format(input, out);
+        return out.toString();
+    }
+
+    /**
+     * @return Quantos dígitos há em text[0, end)
+     */
+    public static int countDigits(CharSequence text, int end) {
+        int count = 0;
+        for (int i = 0; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return A posição logo depois do n-ésimo dígito do texto formatado, onde o cursor deve ficar
+     */
+    public static int positionAfterDigits(CharSequence formatted, int digits) {
+        if (digits <= 0) {
+            return 0;
+        }
+        int seen = 0;
+        for (int i = 0; i < formatted.length(); i++) {
+            char c = formatted.charAt(i);
+            if (c >= '0' && c <= '9' && ++seen == digits) {
+                return i + 1;
+            }
+        }
+        return formatted.length();
+    }
+
+    private int patternFor(int digits) {
+        for (int i = 0; i < capacities.length; i++) {
+            if (digits <= capacities[i]) {
+                return i;
+            }
+        }
+        return capacities.length - 1;
+    }
+
+    private static int nextDigit(CharSequence text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
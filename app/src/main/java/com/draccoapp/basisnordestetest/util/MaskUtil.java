@@ -1,185 +1,41 @@
 package com.draccoapp.basisnordestetest.util;
 
-import android.text.Editable;
-import android.text.TextWatcher;
 import android.widget.EditText;
 
 public class MaskUtil {
 
     public static void addCpfMask(final EditText editText) {
-        editText.addTextChangedListener(new TextWatcher() {
-            boolean isUpdating;
-            String old = "";
-            private final String mask = "###.###.###-##";
-
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
-            }
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-                String str = unmask(s.toString());
-                String mascara = "";
-                if (isUpdating) {
-                    old = str;
-                    isUpdating = false;
-                    return;
-                }
-                int i = 0;
-                for (char m : mask.toCharArray()) {
-                    if (m != '#' && str.length() > old.length()) {
-                        mascara += m;
-                        continue;
-                    }
-                    try {
-                        mascara += str.charAt(i);
-                    } catch (Exception e) {
-                        break;
-                    }
-                    i++;
-                }
-                isUpdating = true;
-                editText.setText(mascara);
-                editText.setSelection(mascara.length());
-            }
-
-            @Override
-            public void afterTextChanged(Editable s) {
-            }
-        });
+        addMask(editText, InputMask.CPF);
     }
 
     public static void addCnpjMask(final EditText editText) {
-        editText.addTextChangedListener(new TextWatcher() {
-            boolean isUpdating;
-            String old = "";
-            private final String mask = "##.###.###/####-##";
-
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
-            }
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-                String str = unmask(s.toString());
-                String mascara = "";
-                if (isUpdating) {
-                    old = str;
-                    isUpdating = false;
-                    return;
-                }
-                int i = 0;
-                for (char m : mask.toCharArray()) {
-                    if (m != '#' && str.length() > old.length()) {
-                        mascara += m;
-                        continue;
-                    }
-                    try {
-                        mascara += str.charAt(i);
-                    } catch (Exception e) {
-                        break;
-                    }
-                    i++;
-                }
-                isUpdating = true;
-                editText.setText(mascara);
-                editText.setSelection(mascara.length());
-            }
-
-            @Override
-            public void afterTextChanged(Editable s) {
-            }
-        });
+        addMask(editText, InputMask.CNPJ);
     }
 
+    /**
+     * Telefone com DDD; o formato muda de (##) ####-#### para (##) #####-#### no 11º dígito.
+     */
     public static void addPhoneMask(final EditText editText) {
-        editText.addTextChangedListener(new TextWatcher() {
-            boolean isUpdating;
-            String old = "";
-            private final String mask = "(##) #####-####";
-
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
-            }
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-                String str = unmask(s.toString());
-                String mascara = "";
-                if (isUpdating) {
-                    old = str;
-                    isUpdating = false;
-                    return;
-                }
-                int i = 0;
-                for (char m : mask.toCharArray()) {
-                    if (m != '#' && str.length() > old.length()) {
-                        mascara += m;
-                        continue;
-                    }
-                    try {
-                        mascara += str.charAt(i);
-                    } catch (Exception e) {
-                        break;
-                    }
-                    i++;
-                }
-                isUpdating = true;
-                editText.setText(mascara);
-                editText.setSelection(mascara.length());
-            }
-
-            @Override
-            public void afterTextChanged(Editable s) {
-            }
-        });
+        addMask(editText, InputMask.PHONE);
     }
 
     public static void addZipCodeMask(final EditText editText) {
-        editText.addTextChangedListener(new TextWatcher() {
-            boolean isUpdating;
-            String old = "";
-            private final String mask = "#####-###";
-
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
-            }
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-                String str = unmask(s.toString());
-                String mascara = "";
-                if (isUpdating) {
-                    old = str;
-                    isUpdating = false;
-                    return;
-                }
-                int i = 0;
-                for (char m : mask.toCharArray()) {
-                    if (m != '#' && str.length() > old.length()) {
-                        mascara += m;
-                        continue;
-                    }
-                    try {
-                        mascara += str.charAt(i);
-                    } catch (Exception e) {
-                        break;
-                    }
-                    i++;
-                }
-                isUpdating = true;
-                editText.setText(mascara);
-                editText.setSelection(Math.min(mascara.length(), editText.length()));
-            }
+        addMask(editText, InputMask.ZIP_CODE);
+    }
 
-            @Override
-            public void afterTextChanged(Editable s) {
-            }
-        });
+    public static void addMask(EditText editText, InputMask mask) {
+        editText.addTextChangedListener(new MaskWatcher(mask));
     }
 
     public static String unmask(String s) {
-        return s.replaceAll("[^0-9]*", "");
+        StringBuilder digits = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
     }
 
     /**
@@ -190,14 +46,11 @@ public class MaskUtil {
             return "";
         }
 
-        // Remover qualquer formatação existente
-        zipCode = zipCode.replaceAll("[^0-9]", "");
-
         // Aplicar formatação se tiver 8 dígitos
-        if (zipCode.length() == 8) {
-            return zipCode.substring(0, 5) + "-" + zipCode.substring(5);
+        if (InputMask.countDigits(zipCode, zipCode.length()) == 8) {
+            return InputMask.ZIP_CODE.format(zipCode);
         }
 
-        return zipCode;
+        return unmask(zipCode);
     }
 }
@@ -0,0 +1,96 @@
+package com.draccoapp.basisnordestetest.util;
+
+import android.text.Editable;
+import android.text.Selection;
+import android.text.TextWatcher;
+
+/**
+ * Aplica uma {@link InputMask} a um campo enquanto o usuário digita.
+ *
+ * O texto é reformatado em um buffer reutilizado e só o trecho que mudou é trocado, com
+ * {@link Editable#replace}, em vez de um setText a cada tecla. O cursor fica depois do mesmo
+ * número de dígitos em que estava, então digitar ou apagar no meio do texto funciona. Apagar um
+ * separador apaga também o dígito antes dele; do contrário a máscara o recolocaria na hora.
+ */
+public class MaskWatcher implements TextWatcher {
+    private final InputMask mask;
+    private final StringBuilder buffer = new StringBuilder();
+    private boolean selfChange;
+    private boolean deletedSeparator;
+
+    public MaskWatcher(InputMask mask) {
+        this.mask = mask;
+    }
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        if (selfChange) {
+            return;
+        }
+        deletedSeparator = count == 1 && after == 0 && !isDigit(s.charAt(start));
+    }
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count) {
+    }
+
+    @Override
+    public void afterTextChanged(Editable s) {
+        if (selfChange) {
+            return;
+        }
+        selfChange = true;
+        try {
+            int cursor = Selection.getSelectionEnd(s);
+            if (cursor < 0 || cursor > s.length()) {
+                cursor = s.length();
+            }
+            int digitsBeforeCursor = InputMask.countDigits(s, cursor);
+
+            if (deletedSeparator && digitsBeforeCursor > 0) {
+                int digit = lastDigitBefore(s, cursor);
+                s.delete(digit, digit + 1);
+                digitsBeforeCursor--;
+            }
+            deletedSeparator = false;
+
+            mask.format(s, buffer);
+            replaceChanged(s, buffer);
+            Selection.setSelection(s, Math.min(InputMask.positionAfterDigits(s, digitsBeforeCursor), s.length()));
+        } finally {
+            selfChange = false;
+        }
+    }
+
+    // Troca só o trecho entre o prefixo e o sufixo em comum
+    private static void replaceChanged(Editable s, CharSequence formatted) {
+        int oldLength = s.length();
+        int newLength = formatted.length();
+        int prefix = 0;
+        while (prefix < oldLength && prefix < newLength && s.charAt(prefix) == formatted.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == oldLength && prefix == newLength) {
+            return;
+        }
+        int suffix = 0;
+        while (suffix < oldLength - prefix && suffix < newLength - prefix
+                && s.charAt(oldLength - 1 - suffix) == formatted.charAt(newLength - 1 - suffix)) {
+            suffix++;
+        }
+        s.replace(prefix, oldLength - suffix, formatted, prefix, newLength - suffix);
+    }
+
+    private static int lastDigitBefore(CharSequence s, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (isDigit(s.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,166 @@
+package com.draccoapp.basisnordestetest.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Normalização de texto para busca e ordenação: remove acentos e converte para minúsculas
+ * ("Conceição" -> "conceicao", "ÁGUA LTDA" -> "agua ltda"). Ligaduras viram duas letras,
+ * como na grafia sem elas ("Straße" -> "strasse", "Æ" -> "ae").
+ *
+ * Usa uma tabela pré-calculada para os blocos Latin-1 e Latin Extended, evitando o
+ * Normalizer e expressões regulares a cada chamada. Quando o texto já está normalizado,
+ * a própria instância é devolvida sem nenhuma alocação.
+ */
+public final class TextFolder {
+
+    // Cobre Latin-1 Supplement, Latin Extended-A e Latin Extended-B
+    private static final int TABLE_SIZE = 0x250;
+    // Marca, na tabela, as letras que se expandem em duas (ver EXPANSIONS)
+    private static final char EXPANDED = '\uFFFF';
+    private static final String[] EXPANSIONS = new String[TABLE_SIZE];
+    private static final char[] FOLD_TABLE = buildTable();
+
+    private TextFolder() {
+    }
+
+    /**
+     * Remove acentos e converte para minúsculas.
+     * @param text Texto original (pode ser null)
+     * @return Texto normalizado, ou null se a entrada for null
+     */
+    public static String fold(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length && !needsFolding(text.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return text.toString();
+        }
+
+        // Folga para as expansões; o buffer cresce se não bastar
+        char[] buffer = new char[length + 4];
+        for (int j = 0; j < i; j++) {
+            buffer[j] = text.charAt(j);
+        }
+        int size = i;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            char folded = foldChar(c);
+            if (folded == 0) {
+                continue;
+            }
+            if (buffer.length - size < 2) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            String expansion = folded == EXPANDED ? expansionOf(c) : null;
+            if (expansion != null) {
+                buffer[size++] = expansion.charAt(0);
+                buffer[size++] = expansion.charAt(1);
+            } else {
+                buffer[size++] = folded;
+            }
+        }
+        return new String(buffer, 0, size);
+    }
+
+    /**
+     * Variante sem alocação: acrescenta o texto normalizado ao StringBuilder informado.
+     */
+    public static void fold(CharSequence text, StringBuilder out) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char folded = foldChar(c);
+            String expansion = folded == EXPANDED ? expansionOf(c) : null;
+            if (expansion != null) {
+                out.append(expansion);
+            } else if (folded != 0) {
+                out.append(folded);
+            }
+        }
+    }
+
+    /**
+     * Normaliza um único caractere.
+     * @return O caractere normalizado, 0 para marcas de acentuação combinantes (que devem ser
+     * descartadas) ou EXPANDED para letras que viram duas
+     */
+    private static char foldChar(char c) {
+        if (c < TABLE_SIZE) {
+            return FOLD_TABLE[c];
+        }
+        if (isCombiningMark(c)) {
+            return 0;
+        }
+        char lower = Character.toLowerCase(c);
+        // O "ẞ" maiúsculo fica fora da tabela, mas o minúsculo está nela
+        return lower < TABLE_SIZE ? FOLD_TABLE[lower] : lower;
+    }
+
+    private static String expansionOf(char c) {
+        char key = c < TABLE_SIZE ? c : Character.toLowerCase(c);
+        return key < TABLE_SIZE ? EXPANSIONS[key] : null;
+    }
+
+    private static boolean needsFolding(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z';
+        }
+        return foldChar(c) != c;
+    }
+
+    private static boolean isCombiningMark(char c) {
+        return c >= 0x0300 && c <= 0x036F;
+    }
+
+    private static char[] buildTable() {
+        char[] table = new char[TABLE_SIZE];
+        for (char c = 0; c < TABLE_SIZE; c++) {
+            table[c] = Character.toLowerCase(c);
+            if (c < 0x80) {
+                continue;
+            }
+            // A decomposição canônica separa a letra base do acento
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            if (base < 0x80 && Character.isLetter(base)) {
+                table[c] = Character.toLowerCase(base);
+            }
+        }
+
+        // Letras sem decomposição canônica
+        map(table, "ÐðĐđ", 'd');
+        map(table, "ØøǾǿ", 'o');
+        map(table, "Þþ", 't');
+        map(table, "Łł", 'l');
+        map(table, "Ħħ", 'h');
+        map(table, "ı", 'i');
+
+        // Ligaduras viram duas letras, para "strasse" encontrar "Straße"
+        expand(table, "ß", "ss");
+        expand(table, "ÆæǼǽ", "ae");
+        expand(table, "Œœ", "oe");
+        return table;
+    }
+
+    private static void map(char[] table, String chars, char target) {
+        for (int i = 0; i < chars.length(); i++) {
+            table[chars.charAt(i)] = target;
+        }
+    }
+
+    private static void expand(char[] table, String chars, String expansion) {
+        for (int i = 0; i < chars.length(); i++) {
+            table[chars.charAt(i)] = EXPANDED;
+            EXPANSIONS[chars.charAt(i)] = expansion;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.draccoapp.basisnordestetest.util;
+
+/**
+ * Códigos de resultado das validações do {@link ValidationUtil} e do {@link BatchValidator}.
+ * Cabem em um byte, para o resultado de um lote ocupar um byte por registro.
+ */
+public final class ValidationReason {
+    public static final int VALID = 0;
+    // Nulo, vazio ou sem nenhum dígito
+    public static final int EMPTY = 1;
+    public static final int WRONG_LENGTH = 2;
+    // CPF ou CNPJ com todos os dígitos iguais
+    public static final int REPEATED_DIGITS = 3;
+    public static final int CHECK_DIGIT = 4;
+    // Email fora do formato
+    public static final int MALFORMED = 5;
+
+    private ValidationReason() {
+    }
+
+    public static String describe(int reason) {
+        switch (reason) {
+            case VALID:
+                return "Válido";
+            case EMPTY:
+                return "Vazio";
+            case WRONG_LENGTH:
+                return "Quantidade de dígitos inválida";
+            case REPEATED_DIGITS:
+                return "Todos os dígitos iguais";
+            case CHECK_DIGIT:
+                return "Dígito verificador inválido";
+            case MALFORMED:
+                return "Formato inválido";
+            default:
+                return "Desconhecido: " + reason;
+        }
+    }
+}
@@ -1,137 +1,174 @@
 package com.draccoapp.basisnordestetest.util;
 
-import android.text.TextUtils;
-import android.util.Patterns;
-
 public class ValidationUtil {
 
+    // Pesos do primeiro e do segundo dígito verificador do CNPJ
+    private static final int[] CNPJ_WEIGHTS_1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final int[] CNPJ_WEIGHTS_2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
     /**
-     * Valida um CPF.
+     * Valida um CPF. Aceita qualquer CharSequence, inclusive o Editable de um campo, e não aloca:
+     * os dígitos são lidos em uma única passada, ignorando a formatação, e os dígitos verificadores
+     * são calculados durante a leitura.
      * @param cpf CPF com ou sem formatação
      * @return true se o CPF for válido
      */
-    public static boolean isValidCpf(String cpf) {
-        if (TextUtils.isEmpty(cpf)) {
-            return false;
-        }
+    public static boolean isValidCpf(CharSequence cpf) {
+        return cpf != null && checkCpf(cpf, 0, cpf.length()) == ValidationReason.VALID;
+    }
 
-        // Remove caracteres não numéricos
-        cpf = cpf.replaceAll("[^0-9]", "");
+    /**
+     * Valida um CNPJ em uma única passada, sem alocar; ver {@link #isValidCpf(CharSequence)}.
+     * @param cnpj CNPJ com ou sem formatação
+     * @return true se o CNPJ for válido
+     */
+    public static boolean isValidCnpj(CharSequence cnpj) {
+        return cnpj != null && checkCnpj(cnpj, 0, cnpj.length()) == ValidationReason.VALID;
+    }
 
-        // CPF deve ter 11 dígitos
-        if (cpf.length() != 11) {
-            return false;
-        }
+    /**
+     * Valida um número de telefone.
+     * @param phone Telefone com ou sem formatação
+     * @return true se o telefone for válido
+     */
+    public static boolean isValidPhone(CharSequence phone) {
+        return phone != null && checkPhone(phone, 0, phone.length()) == ValidationReason.VALID;
+    }
 
-        // Verifica se todos os dígitos são iguais (caso inválido)
+    /**
+     * Valida o CPF no trecho [start, end) do texto.
+     * @return {@link ValidationReason#VALID} ou o motivo da rejeição
+     */
+    public static int checkCpf(CharSequence text, int start, int end) {
+        int count = 0;
+        int first = 0;
         boolean allDigitsEqual = true;
-        for (int i = 1; i < cpf.length(); i++) {
-            if (cpf.charAt(i) != cpf.charAt(0)) {
+        int sum1 = 0;
+        int sum2 = 0;
+        int check1 = 0;
+        int check2 = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            // CPF deve ter 11 dígitos
+            if (count == 11) {
+                return ValidationReason.WRONG_LENGTH;
+            }
+            int digit = c - '0';
+            if (count == 0) {
+                first = digit;
+            } else if (digit != first) {
                 allDigitsEqual = false;
-                break;
             }
+            if (count < 9) {
+                sum1 += digit * (10 - count);
+                sum2 += digit * (11 - count);
+            } else if (count == 9) {
+                check1 = digit;
+                sum2 += digit * 2;
+            } else {
+                check2 = digit;
+            }
+            count++;
         }
-        if (allDigitsEqual) {
-            return false;
-        }
-
-        // Calcula o primeiro dígito verificador
-        int sum = 0;
-        for (int i = 0; i < 9; i++) {
-            sum += (cpf.charAt(i) - '0') * (10 - i);
-        }
-        int remainder = sum % 11;
-        int digit1 = remainder < 2 ? 0 : 11 - remainder;
 
-        // Verifica o primeiro dígito verificador
-        if (digit1 != (cpf.charAt(9) - '0')) {
-            return false;
+        if (count != 11) {
+            return count == 0 ? ValidationReason.EMPTY : ValidationReason.WRONG_LENGTH;
         }
-
-        // Calcula o segundo dígito verificador
-        sum = 0;
-        for (int i = 0; i < 10; i++) {
-            sum += (cpf.charAt(i) - '0') * (11 - i);
+        // Todos os dígitos iguais passam no cálculo, mas não são CPFs válidos
+        if (allDigitsEqual) {
+            return ValidationReason.REPEATED_DIGITS;
         }
-        remainder = sum % 11;
-        int digit2 = remainder < 2 ? 0 : 11 - remainder;
-
-        // Verifica o segundo dígito verificador
-        return digit2 == (cpf.charAt(10) - '0');
+        return checkDigit(sum1) == check1 && checkDigit(sum2) == check2
+                ? ValidationReason.VALID
+                : ValidationReason.CHECK_DIGIT;
     }
 
     /**
-     * Valida um CNPJ.
-     * @param cnpj CNPJ com ou sem formatação
-     * @return true se o CNPJ for válido
+     * Valida o CNPJ no trecho [start, end) do texto.
+     * @return {@link ValidationReason#VALID} ou o motivo da rejeição
      */
-    public static boolean isValidCnpj(String cnpj) {
-        if (TextUtils.isEmpty(cnpj)) {
-            return false;
-        }
-
-        // Remove caracteres não numéricos
-        cnpj = cnpj.replaceAll("[^0-9]", "");
-
-        // CNPJ deve ter 14 dígitos
-        if (cnpj.length() != 14) {
-            return false;
-        }
-
-        // Verifica se todos os dígitos são iguais (caso inválido)
+    public static int checkCnpj(CharSequence text, int start, int end) {
+        int count = 0;
+        int first = 0;
         boolean allDigitsEqual = true;
-        for (int i = 1; i < cnpj.length(); i++) {
-            if (cnpj.charAt(i) != cnpj.charAt(0)) {
+        int sum1 = 0;
+        int sum2 = 0;
+        int check1 = 0;
+        int check2 = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            // CNPJ deve ter 14 dígitos
+            if (count == 14) {
+                return ValidationReason.WRONG_LENGTH;
+            }
+            int digit = c - '0';
+            if (count == 0) {
+                first = digit;
+            } else if (digit != first) {
                 allDigitsEqual = false;
-                break;
             }
-        }
-        if (allDigitsEqual) {
-            return false;
+            if (count < 12) {
+                sum1 += digit * CNPJ_WEIGHTS_1[count];
+                sum2 += digit * CNPJ_WEIGHTS_2[count];
+            } else if (count == 12) {
+                check1 = digit;
+                sum2 += digit * CNPJ_WEIGHTS_2[12];
+            } else {
+                check2 = digit;
+            }
+            count++;
         }
 
-        // Calcula o primeiro dígito verificador
-        int[] multipliers1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
-        int sum = 0;
-        for (int i = 0; i < 12; i++) {
-            sum += (cnpj.charAt(i) - '0') * multipliers1[i];
+        if (count != 14) {
+            return count == 0 ? ValidationReason.EMPTY : ValidationReason.WRONG_LENGTH;
         }
-        int remainder = sum % 11;
-        int digit1 = remainder < 2 ? 0 : 11 - remainder;
-
-        // Verifica o primeiro dígito verificador
-        if (digit1 != (cnpj.charAt(12) - '0')) {
-            return false;
+        if (allDigitsEqual) {
+            return ValidationReason.REPEATED_DIGITS;
         }
+        return checkDigit(sum1) == check1 && checkDigit(sum2) == check2
+                ? ValidationReason.VALID
+                : ValidationReason.CHECK_DIGIT;
+    }
 
-        // Calcula o segundo dígito verificador
-        int[] multipliers2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
-        sum = 0;
-        for (int i = 0; i < 13; i++) {
-            sum += (cnpj.charAt(i) - '0') * multipliers2[i];
+    /**
+     * Valida o telefone no trecho [start, end) do texto.
+     * @return {@link ValidationReason#VALID} ou o motivo da rejeição
+     */
+    public static int checkPhone(CharSequence text, int start, int end) {
+        // Telefone deve ter 10 ou 11 dígitos (com DDD)
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9' && ++count > 11) {
+                return ValidationReason.WRONG_LENGTH;
+            }
         }
-        remainder = sum % 11;
-        int digit2 = remainder < 2 ? 0 : 11 - remainder;
-
-        // Verifica o segundo dígito verificador
-        return digit2 == (cnpj.charAt(13) - '0');
+        if (count == 10 || count == 11) {
+            return ValidationReason.VALID;
+        }
+        return count == 0 ? ValidationReason.EMPTY : ValidationReason.WRONG_LENGTH;
     }
 
     /**
-     * Valida um número de telefone.
-     * @param phone Telefone com ou sem formatação
-     * @return true se o telefone for válido
+     * Valida o email no trecho [start, end) do texto.
+     * @return {@link ValidationReason#VALID} ou o motivo da rejeição
      */
-    public static boolean isValidPhone(String phone) {
-        if (TextUtils.isEmpty(phone)) {
-            return false;
+    public static int checkEmail(CharSequence text, int start, int end) {
+        if (start == end) {
+            return ValidationReason.EMPTY;
         }
+        return EmailValidator.check(text, start, end);
+    }
 
-        // Remove caracteres não numéricos
-        phone = phone.replaceAll("[^0-9]", "");
-
-        // Telefone deve ter 10 ou 11 dígitos (com DDD)
-        return phone.length() == 10 || phone.length() == 11;
+    private static int checkDigit(int sum) {
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
     }
 
     /**
@@ -139,11 +176,7 @@ public class ValidationUtil {
      * @param email Endereço de email
      * @return true se o email for válido
      */
-    public static boolean isValidEmail(String email) {
-        if (TextUtils.isEmpty(email)) {
-            return false;
-        }
-
-        return Patterns.EMAIL_ADDRESS.matcher(email).matches();
+    public static boolean isValidEmail(CharSequence email) {
+        return email != null && checkEmail(email, 0, email.length()) == ValidationReason.VALID;
     }
 }
@@ -269,6 +269,8 @@ public class PersonFormViewModel extends ViewModel {
             // Se não tiver ID, gerar um novo
             if (currentPerson.getId() == null || currentPerson.getId().isEmpty()) {
                 currentPerson.setId(UUID.randomUUID().toString());
+                // A data de criação só é definida no cadastro; editar não a altera
+                currentPerson.setCreatedAt(System.currentTimeMillis());
             }
 
             // Atualizar campos da pessoa
@@ -279,7 +281,6 @@ public class PersonFormViewModel extends ViewModel {
             currentPerson.setCnpj(cnpj.getValue());
             currentPerson.setPhoneNumber(phoneNumber.getValue());
             currentPerson.setEmail(email.getValue());
-            currentPerson.setCreatedAt(System.currentTimeMillis());
             currentPerson.setLatitude(latitude.getValue() != null ? latitude.getValue() : 0.0);
             currentPerson.setLongitude(longitude.getValue() != null ? longitude.getValue() : 0.0);
             currentPerson.setDeviceName(deviceName.getValue());
@@ -287,42 +288,37 @@ public class PersonFormViewModel extends ViewModel {
             // Adicionar endereços
             currentPerson.setAddresses(addresses.getValue());
 
+            // Apenas os campos e endereços alterados desde a carga são enviados ao Firestore
+            List<String> changedFields = new ArrayList<>(currentPerson.getDirtyFields());
+            List<String> changedAddressIds = new ArrayList<>();
+            for (AddressDTO address : currentPerson.getAddresses()) {
+                if (address.isDirty()) {
+                    changedAddressIds.add(address.getId());
+                }
+            }
+
             // Converter para objeto Realm e salvar
             final Person realmPerson = personMapper.toRealm(currentPerson);
             final PersonDTO finalPerson = currentPerson;
             final Context appContext = context.getApplicationContext();
 
-            repository.savePerson(realmPerson, success -> {
+            repository.savePerson(realmPerson, changedFields, changedAddressIds, success -> {
                 if (success) {
-                    // Salvar no Firestore
-                    firestoreService.savePerson(finalPerson, new FirestoreService.FirestoreCallback() {
-                        @Override
-                        public void onSuccess(String documentId) {
-                            // Enviar notificação
-                            String title = "Nova Pessoa Cadastrada";
-                            String message = "A pessoa " +
-                                    (finalPerson.getPersonType() == PersonType.PHYSICAL ?
-                                            finalPerson.getName() : finalPerson.getCompanyName()) +
-                                    " foi cadastrada com sucesso.";
-
-                            // Enviar notificação diretamente
-                            showDirectNotification(appContext, title, message);
-
-                            // Registrar no Firestore (sem tentar enviar notificação local do FirestoreService)
-                            firestoreService.sendNotification(finalPerson.getId(), title, message);
-
-                            loading.postValue(false);
-                            saved.postValue(true);
-                        }
-
-                        @Override
-                        public void onFailure(Exception e) {
-                            // Mesmo com falha no Firestore, consideramos salvo no Realm
-                            loading.postValue(false);
-                            saved.postValue(true);
-                            error.postValue("Aviso: Salvo localmente, mas houve erro ao sincronizar: " + e.getMessage());
-                        }
-                    });
+                    // O envio ao Firestore fica a cargo do outbox de sincronização
+                    String title = "Nova Pessoa Cadastrada";
+                    String message = "A pessoa " +
+                            (finalPerson.getPersonType() == PersonType.PHYSICAL ?
+                                    finalPerson.getName() : finalPerson.getCompanyName()) +
+                            " foi cadastrada com sucesso.";
+
+                    // Enviar notificação diretamente
+                    showDirectNotification(appContext, title, message);
+
+                    // Registrar no Firestore (sem tentar enviar notificação local do FirestoreService)
+                    firestoreService.sendNotification(finalPerson.getId(), title, message);
+
+                    loading.postValue(false);
+                    saved.postValue(true);
                 } else {
                     loading.postValue(false);
                     error.postValue("Erro ao salvar pessoa");
@@ -0,0 +1,97 @@
+package com.draccoapp.basisnordestetest.viewmodel;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Nova versão da lista de pessoas, acompanhada das operações que levam da versão anterior
+ * até ela. Quando as operações são conhecidas (changesets do Realm, novas páginas) o adapter
+ * as aplica diretamente, sem precisar comparar as listas inteiras.
+ */
+public class PersonListUpdate {
+
+    private static final int INSERTED = 0;
+    private static final int REMOVED = 1;
+    private static final int CHANGED = 2;
+
+    private final List<PersonDTO> persons;
+    // null quando a lista foi substituída por completo
+    private final List<int[]> operations;
+
+    private PersonListUpdate(List<PersonDTO> persons, List<int[]> operations) {
+        this.persons = Collections.unmodifiableList(persons);
+        this.operations = operations;
+    }
+
+    /**
+     * Lista substituída por completo; o adapter precisa calcular a diferença.
+     */
+    public static PersonListUpdate replace(List<PersonDTO> persons) {
+        return new PersonListUpdate(new ArrayList<>(persons), null);
+    }
+
+    public List<PersonDTO> getPersons() {
+        return persons;
+    }
+
+    public boolean isIncremental() {
+        return operations != null;
+    }
+
+    /**
+     * Reproduz as operações, na ordem em que foram aplicadas, no callback informado.
+     */
+    public void dispatchUpdatesTo(ListUpdateCallback callback) {
+        if (operations == null) {
+            throw new IllegalStateException("Full replacement has no operations to dispatch");
+        }
+        for (int[] operation : operations) {
+            switch (operation[0]) {
+                case INSERTED:
+                    callback.onInserted(operation[1], operation[2]);
+                    break;
+                case REMOVED:
+                    callback.onRemoved(operation[1], operation[2]);
+                    break;
+                case CHANGED:
+                    callback.onChanged(operation[1], operation[2], null);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Registra as operações conforme são aplicadas à lista.
+     */
+    public static class Builder {
+        private final List<int[]> operations = new ArrayList<>();
+
+        public Builder inserted(int position, int count) {
+            operations.add(new int[]{INSERTED, position, count});
+            return this;
+        }
+
+        public Builder removed(int position, int count) {
+            operations.add(new int[]{REMOVED, position, count});
+            return this;
+        }
+
+        public Builder changed(int position, int count) {
+            operations.add(new int[]{CHANGED, position, count});
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return operations.isEmpty();
+        }
+
+        public PersonListUpdate build(List<PersonDTO> persons) {
+            return new PersonListUpdate(new ArrayList<>(persons), operations);
+        }
+    }
+}
@@ -10,41 +10,89 @@ import com.draccoapp.basisnordestetest.model.Address;
 import com.draccoapp.basisnordestetest.model.Person;
 import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
 import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.repository.PersonPage;
 import com.draccoapp.basisnordestetest.repository.PersonRepository;
+import com.draccoapp.basisnordestetest.repository.PersonSearchIndex;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
 
 import dagger.hilt.android.lifecycle.HiltViewModel;
-import io.realm.RealmChangeListener;
+import io.realm.OrderedCollectionChangeSet;
+import io.realm.OrderedRealmCollectionChangeListener;
 import io.realm.RealmResults;
 
 @HiltViewModel
 public class PersonListViewModel extends ViewModel {
 
+    // Quantidade de itens por página, suficiente para preencher a tela com folga
+    public static final int PAGE_SIZE = 30;
+
     private final PersonRepository repository;
     private final PersonMapper personMapper;
 
     private final MutableLiveData<RealmResults<Person>> persons = new MutableLiveData<>();
-    // Adicionar LiveData para lista desvinculada
-    private final MutableLiveData<List<PersonDTO>> detachedPersons = new MutableLiveData<>();
+    // Lista desvinculada exibida, com as operações incrementais que a produziram
+    private final MutableLiveData<PersonListUpdate> personListUpdates = new MutableLiveData<>();
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>();
     private final MutableLiveData<String> error = new MutableLiveData<>();
 
-    // Listener para mudanças no Realm
-    private RealmChangeListener<RealmResults<Person>> realmChangeListener;
+    // Listener para mudanças no Realm, com o changeset de inserções, remoções e modificações
+    private OrderedRealmCollectionChangeListener<RealmResults<Person>> realmChangeListener;
     private RealmResults<Person> currentResults;
 
+    // Estado da paginação da lista completa
+    private final List<PersonDTO> loadedPersons = new ArrayList<>();
+    private PersonPage.Key nextPageKey;
+    private boolean lastPageLoaded;
+    private boolean browsing = true;
+
+    // Busca incremental em background
+    private final PersonSearchPipeline searchPipeline;
+    private String currentQuery;
+
     @Inject
     public PersonListViewModel(PersonRepository repository, PersonMapper personMapper) {
         this.repository = repository;
         this.personMapper = personMapper;
 
+        searchPipeline = new PersonSearchPipeline(repository, personMapper, new PersonSearchPipeline.Listener() {
+            @Override
+            public void onSearchStarted(String query) {
+                loading.setValue(true);
+            }
+
+            @Override
+            public void onSearchResults(String query, List<PersonDTO> results) {
+                Log.d("PersonListViewModel", "Search results count: " + results.size());
+                browsing = false;
+                currentQuery = query;
+                personListUpdates.setValue(PersonListUpdate.replace(results));
+                loading.setValue(false);
+            }
+
+            @Override
+            public void onSearchError(String query, Exception e) {
+                error.setValue("Error searching persons: " + e.getMessage());
+                loading.setValue(false);
+            }
+        });
+
         // Inicializar o listener
-        realmChangeListener = results -> {
+        realmChangeListener = (results, changeSet) -> {
             persons.setValue(results);
-            detachedPersons.setValue(personMapper.fromRealm(repository.getAllPersonsDetached()));
+            if (changeSet.getState() == OrderedCollectionChangeSet.State.INITIAL) {
+                return;
+            }
+            if (browsing) {
+                applyChangeSet(results, changeSet);
+            } else if (currentQuery != null) {
+                // Os dados mudaram: refazer a busca atual sem aproveitar resultados antigos
+                searchPipeline.invalidate();
+                searchPipeline.searchNow(currentQuery);
+            }
         };
 
         loadAllPersons();
@@ -55,8 +103,8 @@ public class PersonListViewModel extends ViewModel {
     }
 
     // Getter para a lista desvinculada
-    public LiveData<List<PersonDTO>> getDetachedPersons() {
-        return detachedPersons;
+    public LiveData<PersonListUpdate> getPersonListUpdates() {
+        return personListUpdates;
     }
 
     public LiveData<Boolean> getLoading() {
@@ -68,6 +116,10 @@ public class PersonListViewModel extends ViewModel {
     }
 
     public void loadAllPersons() {
+        // Resultados de buscas ainda em andamento não devem sobrescrever a lista completa
+        searchPipeline.cancel();
+        currentQuery = null;
+
         loading.setValue(true);
         try {
             // Remover o listener anterior se existir
@@ -81,7 +133,13 @@ public class PersonListViewModel extends ViewModel {
             result.addChangeListener(realmChangeListener);
 
             persons.setValue(result);
-            detachedPersons.setValue(personMapper.fromRealm(repository.getAllPersonsDetached()));
+
+            // Carregar apenas a primeira página
+            browsing = true;
+            loadedPersons.clear();
+            nextPageKey = null;
+            lastPageLoaded = false;
+            appendPage(repository.getPersonsPage(null, PAGE_SIZE));
             loading.setValue(false);
         } catch (Exception e) {
             error.setValue("Error loading persons: " + e.getMessage());
@@ -89,41 +147,135 @@ public class PersonListViewModel extends ViewModel {
         }
     }
 
-    public void searchPersons(String query) {
-        loading.setValue(true);
+    /**
+     * Carrega a próxima página da lista completa. Chamado pelo adapter quando
+     * a rolagem se aproxima do fim dos itens carregados.
+     */
+    public void loadNextPage() {
+        if (!browsing || lastPageLoaded || nextPageKey == null) {
+            return;
+        }
         try {
-            // Log para debug
-            Log.d("PersonListViewModel", "Searching for: " + query);
+            appendPage(repository.getPersonsPage(nextPageKey, PAGE_SIZE));
+        } catch (Exception e) {
+            error.setValue("Error loading persons: " + e.getMessage());
+        }
+    }
 
-            // Remover o listener anterior se existir
-            if (currentResults != null) {
-                currentResults.removeChangeListener(realmChangeListener);
+    private void appendPage(PersonPage page) {
+        int position = loadedPersons.size();
+        loadedPersons.addAll(personMapper.fromRealm(page.getItems()));
+        nextPageKey = page.getNextKey();
+        lastPageLoaded = page.isLastPage();
+        if (position == 0) {
+            personListUpdates.setValue(PersonListUpdate.replace(loadedPersons));
+        } else if (!page.getItems().isEmpty()) {
+            personListUpdates.setValue(new PersonListUpdate.Builder()
+                    .inserted(position, page.getItems().size())
+                    .build(loadedPersons));
+        }
+    }
+
+    // Recarrega somente a quantidade de itens já carregada, não a tabela inteira
+    private void reloadLoadedPages() {
+        int size = Math.max(loadedPersons.size(), PAGE_SIZE);
+        loadedPersons.clear();
+        appendPage(repository.getPersonsPage(null, size));
+    }
+
+    /**
+     * Aplica o changeset do Realm à janela carregada. Apenas as linhas alteradas dentro da
+     * janela são mapeadas; o custo depende da quantidade de mudanças, não do tamanho da tabela.
+     * A janela corresponde sempre às primeiras posições de currentResults, que usa a mesma
+     * ordenação da paginação.
+     */
+    private void applyChangeSet(RealmResults<Person> results, OrderedCollectionChangeSet changeSet) {
+        PersonListUpdate.Builder update = new PersonListUpdate.Builder();
+
+        // Remoções usam índices da lista antiga e são aplicadas de trás para frente
+        OrderedCollectionChangeSet.Range[] deletions = changeSet.getDeletionRanges();
+        for (int i = deletions.length - 1; i >= 0; i--) {
+            int start = deletions[i].startIndex;
+            if (start >= loadedPersons.size()) {
+                continue;
             }
+            int count = Math.min(deletions[i].length, loadedPersons.size() - start);
+            loadedPersons.subList(start, start + count).clear();
+            update.removed(start, count);
+        }
 
-            // Obter novos resultados e adicionar o listener
-            RealmResults<Person> result = repository.getPersonsByName(query);
-            currentResults = result;
-            result.addChangeListener(realmChangeListener);
+        // Inserções usam índices da nova lista, em ordem crescente. Itens após o fim da janela
+        // serão carregados pela paginação.
+        for (OrderedCollectionChangeSet.Range range : changeSet.getInsertionRanges()) {
+            for (int index = range.startIndex; index < range.startIndex + range.length; index++) {
+                if (index > loadedPersons.size() || (index == loadedPersons.size() && !lastPageLoaded)) {
+                    break;
+                }
+                loadedPersons.add(index, personMapper.fromRealm(results.get(index)));
+                update.inserted(index, 1);
+            }
+        }
 
-            // Log para debug
-            Log.d("PersonListViewModel", "Search results count: " + result.size());
+        // Modificações usam índices da nova lista
+        for (OrderedCollectionChangeSet.Range range : changeSet.getChangeRanges()) {
+            int end = Math.min(range.startIndex + range.length, loadedPersons.size());
+            for (int index = range.startIndex; index < end; index++) {
+                loadedPersons.set(index, personMapper.fromRealm(results.get(index)));
+                update.changed(index, 1);
+            }
+        }
 
-            persons.setValue(result);
-            List<Person> detachedResults = repository.getPersonsByNameDetached(query);
-            List<PersonDTO> dtos = personMapper.fromRealm(detachedResults);
+        if (!lastPageLoaded) {
+            if (loadedPersons.isEmpty()) {
+                // Todos os itens da janela foram removidos: recomeçar pela primeira página
+                reloadLoadedPages();
+                return;
+            }
+            nextPageKey = PersonPage.Key.of(results.get(loadedPersons.size() - 1));
+        }
 
-            // Log para debug
-            Log.d("PersonListViewModel", "Mapped DTOs count: " + (dtos != null ? dtos.size() : 0));
+        if (!update.isEmpty()) {
+            personListUpdates.setValue(update.build(loadedPersons));
+        }
+    }
 
-            detachedPersons.setValue(dtos);
-            loading.setValue(false);
-        } catch (Exception e) {
-            Log.e("PersonListViewModel", "Error searching persons", e);
-            error.setValue("Error searching persons: " + e.getMessage());
+    /**
+     * Busca enquanto o usuário digita: a consulta passa pelo debounce do pipeline.
+     */
+    public void onSearchQueryChanged(String query) {
+        if (!hasSearchTerms(query)) {
+            showAllPersons();
+            return;
+        }
+        searchPipeline.submit(query);
+    }
+
+    /**
+     * Busca imediata (ao submeter a pesquisa), sem debounce.
+     */
+    public void searchPersons(String query) {
+        Log.d("PersonListViewModel", "Searching for: " + query);
+        if (!hasSearchTerms(query)) {
+            showAllPersons();
+            return;
+        }
+        searchPipeline.searchNow(query);
+    }
+
+    private void showAllPersons() {
+        if (!browsing) {
+            loadAllPersons();
+        } else {
+            searchPipeline.cancel();
+            currentQuery = null;
             loading.setValue(false);
         }
     }
 
+    private static boolean hasSearchTerms(String query) {
+        return query != null && !PersonSearchIndex.tokenize(query).isEmpty();
+    }
+
     public void deletePerson(String id, final PersonRepository.Callback callback) {
         loading.setValue(true);
         repository.deletePerson(id, success -> {
@@ -140,7 +292,7 @@ public class PersonListViewModel extends ViewModel {
         loading.setValue(true);
         repository.deleteMultiplePersons(ids, success -> {
             if (!success) {
-                error.setValue("Error deleting persons");
+                error.setValue("Error deleting " + ids.size() + " persons");
             }
             loading.setValue(false);
             callback.onResult(success);
@@ -184,6 +336,7 @@ public class PersonListViewModel extends ViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
+        searchPipeline.shutdown();
         // Remover o listener quando o ViewModel for destruído
         if (currentResults != null) {
             currentResults.removeChangeListener(realmChangeListener);
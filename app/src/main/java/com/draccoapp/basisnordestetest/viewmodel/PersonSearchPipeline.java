@@ -0,0 +1,211 @@
+package com.draccoapp.basisnordestetest.viewmodel;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.mapper.PersonMapper;
+import com.draccoapp.basisnordestetest.repository.PersonRepository;
+import com.draccoapp.basisnordestetest.repository.PersonSearchIndex;
+import com.draccoapp.basisnordestetest.util.TextFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.realm.Realm;
+
+/**
+ * Pipeline de busca incremental da lista de pessoas.
+ *
+ * - consultas digitadas são agrupadas por um debounce antes de executar;
+ * - uma nova consulta cancela a busca em andamento;
+ * - quando a nova consulta apenas estende a anterior, os resultados anteriores são
+ *   filtrados em memória em vez de consultar o Realm de novo;
+ * - a consulta e o mapeamento para DTO acontecem em uma thread de background, e o
+ *   resultado só é publicado se ainda for o da consulta mais recente.
+ *
+ * Os métodos públicos devem ser chamados na main thread; o listener também é chamado nela.
+ */
+public class PersonSearchPipeline {
+    private static final String TAG = "PersonSearchPipeline";
+    static final long DEBOUNCE_MS = 300;
+    // Intervalo de itens entre verificações de cancelamento ao filtrar em memória
+    private static final int CANCELLATION_CHECK_INTERVAL = 256;
+
+    public interface Listener {
+        void onSearchStarted(String query);
+        void onSearchResults(String query, List<PersonDTO> results);
+        void onSearchError(String query, Exception e);
+    }
+
+    private final PersonRepository repository;
+    private final PersonMapper personMapper;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "person-search"));
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // Estado acessado apenas pela main thread
+    private Runnable pendingSearch;
+    private Future<?> inFlight;
+    private String lastQuery;
+    private List<PersonDTO> lastResults;
+
+    // Acessado apenas pela thread de busca
+    private Realm searchRealm;
+
+    public PersonSearchPipeline(PersonRepository repository, PersonMapper personMapper, Listener listener) {
+        this.repository = repository;
+        this.personMapper = personMapper;
+        this.listener = listener;
+    }
+
+    /**
+     * Agenda a busca após o debounce, substituindo qualquer consulta ainda não executada.
+     */
+    public void submit(final String query) {
+        removePendingSearch();
+        pendingSearch = () -> {
+            pendingSearch = null;
+            start(query);
+        };
+        mainHandler.postDelayed(pendingSearch, DEBOUNCE_MS);
+    }
+
+    /**
+     * Executa a busca imediatamente, sem debounce.
+     */
+    public void searchNow(String query) {
+        removePendingSearch();
+        start(query);
+    }
+
+    /**
+     * Cancela a consulta agendada e a busca em andamento; nenhum resultado pendente será publicado.
+     */
+    public void cancel() {
+        removePendingSearch();
+        generation.incrementAndGet();
+        if (inFlight != null) {
+            inFlight.cancel(true);
+            inFlight = null;
+        }
+    }
+
+    /**
+     * Descarta os resultados guardados para refinamento, forçando a próxima busca a consultar o Realm.
+     * Deve ser chamado quando os dados mudarem.
+     */
+    public void invalidate() {
+        lastQuery = null;
+        lastResults = null;
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.execute(() -> {
+            if (searchRealm != null && !searchRealm.isClosed()) {
+                searchRealm.close();
+            }
+            searchRealm = null;
+        });
+        executor.shutdown();
+    }
+
+    private void start(final String query) {
+        final int searchGeneration = generation.incrementAndGet();
+        if (inFlight != null) {
+            inFlight.cancel(true);
+        }
+
+        final String folded = TextFolder.fold(query.trim());
+        final List<PersonDTO> narrowFrom = canNarrow(folded) ? lastResults : null;
+
+        listener.onSearchStarted(query);
+        inFlight = executor.submit(() -> run(searchGeneration, query, folded, narrowFrom));
+    }
+
+    private void run(final int searchGeneration, final String query, final String folded,
+                     final List<PersonDTO> narrowFrom) {
+        try {
+            final List<PersonDTO> results;
+            if (narrowFrom != null) {
+                results = narrow(searchGeneration, folded, narrowFrom);
+            } else {
+                Realm realm = getSearchRealm();
+                realm.refresh();
+                List<Person> persons = repository.searchPersonsDetached(realm, query);
+                if (!isCurrent(searchGeneration)) {
+                    return;
+                }
+                results = personMapper.fromRealm(persons);
+            }
+
+            if (results == null || !isCurrent(searchGeneration)) {
+                return;
+            }
+            mainHandler.post(() -> {
+                if (!isCurrent(searchGeneration)) {
+                    return;
+                }
+                lastQuery = folded;
+                lastResults = results;
+                listener.onSearchResults(query, results);
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error searching persons", e);
+            mainHandler.post(() -> {
+                if (isCurrent(searchGeneration)) {
+                    listener.onSearchError(query, e);
+                }
+            });
+        }
+    }
+
+    // Refina os resultados anteriores em memória; retorna null se a busca foi cancelada no meio
+    private List<PersonDTO> narrow(int searchGeneration, String folded, List<PersonDTO> source) {
+        List<String> terms = PersonSearchIndex.tokenize(folded);
+        List<PersonDTO> results = new ArrayList<>();
+        for (int i = 0; i < source.size(); i++) {
+            if (i % CANCELLATION_CHECK_INTERVAL == 0 && !isCurrent(searchGeneration)) {
+                return null;
+            }
+            PersonDTO person = source.get(i);
+            if (PersonSearchIndex.matches(terms, person.getName(), person.getCompanyName(),
+                    person.getCpf(), person.getCnpj())) {
+                results.add(person);
+            }
+        }
+        return results;
+    }
+
+    // Uma consulta que estende a anterior só pode reduzir o conjunto de resultados
+    private boolean canNarrow(String folded) {
+        return lastResults != null && lastQuery != null && !lastQuery.isEmpty() && folded.startsWith(lastQuery);
+    }
+
+    private boolean isCurrent(int searchGeneration) {
+        return generation.get() == searchGeneration;
+    }
+
+    private void removePendingSearch() {
+        if (pendingSearch != null) {
+            mainHandler.removeCallbacks(pendingSearch);
+            pendingSearch = null;
+        }
+    }
+
+    private Realm getSearchRealm() {
+        if (searchRealm == null || searchRealm.isClosed()) {
+            searchRealm = Realm.getDefaultInstance();
+        }
+        return searchRealm;
+    }
+}
@@ -0,0 +1,434 @@
+package com.draccoapp.basisnordestetest.api;
+
+import com.draccoapp.basisnordestetest.model.response.CepResponse;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * O hedge é disparado por um agendador manual e os provedores respondem quando o teste manda, então
+ * os testes verificam a ordem das consultas e os cancelamentos sem depender do relógio.
+ */
+public class HedgedCepServiceTest {
+    private static final String CEP = "58038000";
+    private static final long HEDGE_DELAY_MILLIS = 100;
+
+    @Rule
+    public final MockWebServer primary = new MockWebServer();
+
+    @Rule
+    public final MockWebServer secondary = new MockWebServer();
+
+    private final OkHttpClient client = new OkHttpClient();
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final FakeProvider first = new FakeProvider("first");
+    private final FakeProvider second = new FakeProvider("second");
+
+    @Test
+    public void fastPrimaryAnswersWithoutHedging() {
+        HedgedCepService service = hedged(first, second);
+        RecordingCallback callback = new RecordingCallback();
+        service.getCepInfo(CEP).enqueue(callback);
+
+        first.respond(0, "João Pessoa");
+
+        assertEquals("João Pessoa", callback.city());
+        assertTrue(scheduler.lastTask().isCancelled());
+        scheduler.runAll();
+        assertEquals(0, second.lookups.size());
+    }
+
+    @Test
+    public void slowPrimaryIsHedgedAndLoserCancelled() {
+        HedgedCepService service = hedged(first, second);
+        RecordingCallback callback = new RecordingCallback();
+        service.getCepInfo(CEP).enqueue(callback);
+
+        assertEquals(1, first.lookups.size());
+        assertEquals(0, second.lookups.size());
+        assertEquals(HEDGE_DELAY_MILLIS, scheduler.lastTask().getDelay(TimeUnit.MILLISECONDS));
+
+        scheduler.runAll();
+        assertEquals(1, second.lookups.size());
+        assertNull(callback.response);
+
+        second.respond(0, "Recife");
+
+        assertEquals("Recife", callback.city());
+        assertTrue(first.lookups.get(0).canceled);
+        // O cancelamento do perdedor não conta como falha
+        assertEquals(CircuitBreaker.State.CLOSED, service.getBreaker(0).getState());
+        // A resposta tardia do perdedor é ignorada
+        first.respond(0, "Lento");
+        assertEquals(1, callback.calls);
+    }
+
+    @Test
+    public void failingPrimaryFallsBackWithoutWaitingForHedge() {
+        HedgedCepService service = hedged(first, second);
+        RecordingCallback callback = new RecordingCallback();
+        service.getCepInfo(CEP).enqueue(callback);
+        ManualTask hedge = scheduler.lastTask();
+
+        first.fail(0);
+
+        assertTrue(hedge.isCancelled());
+        assertEquals(1, second.lookups.size());
+        second.respond(0, "Recife");
+        assertEquals("Recife", callback.city());
+    }
+
+    @Test
+    public void allProvidersFailingReportsLastFailure() {
+        HedgedCepService service = hedged(first, second);
+        RecordingCallback callback = new RecordingCallback();
+        service.getCepInfo(CEP).enqueue(callback);
+
+        first.fail(0);
+        assertNull(callback.failure);
+        second.fail(0);
+
+        assertEquals("second failed", callback.failure.getMessage());
+    }
+
+    @Test
+    public void cancelStopsRunningLookupsAndHedge() {
+        HedgedCepService service = hedged(first, second);
+        RecordingCallback callback = new RecordingCallback();
+        Call<CepResponse> call = service.getCepInfo(CEP);
+        call.enqueue(callback);
+
+        call.cancel();
+
+        assertTrue(call.isCanceled());
+        assertTrue(first.lookups.get(0).canceled);
+        assertTrue(scheduler.lastTask().isCancelled());
+        assertEquals("Canceled", callback.failure.getMessage());
+        scheduler.runAll();
+        assertEquals(0, second.lookups.size());
+    }
+
+    @Test
+    public void request_isPreferredProviderRequestBeforeEnqueue() {
+        HedgedCepService service = hedged(first, second);
+
+        Request request = service.getCepInfo(CEP).request();
+
+        assertEquals("/first/" + CEP, request.url().encodedPath());
+    }
+
+    @Test
+    public void request_isFirstAttemptRequest() {
+        HedgedCepService service = new HedgedCepService(Arrays.asList(first, second),
+                HEDGE_DELAY_MILLIS, scheduler, 1, 60_000);
+        service.getBreaker(0).onFailure();
+        Call<CepResponse> call = service.getCepInfo(CEP);
+        call.enqueue(new RecordingCallback());
+        scheduler.runAll();
+
+        assertEquals(0, first.lookups.size());
+        assertEquals("/second/" + CEP, call.request().url().encodedPath());
+    }
+
+    @Test
+    public void request_buildsRetrofitRequestWithoutExecuting() {
+        HedgedCepService service = new HedgedCepService(
+                Collections.singletonList(viaCep(primary)), HEDGE_DELAY_MILLIS, scheduler);
+
+        Request request = service.getCepInfo(CEP).request();
+
+        assertTrue(request.url().encodedPath().contains(CEP));
+        assertEquals(0, primary.getRequestCount());
+    }
+
+    @Test
+    public void notFoundIsDefinitive() throws IOException {
+        primary.enqueue(new MockResponse().setBody("{\"erro\": true}"));
+        HedgedCepService service = new HedgedCepService(
+                Arrays.asList(viaCep(primary), viaCep(secondary)), HEDGE_DELAY_MILLIS, scheduler);
+
+        assertTrue(service.getCepInfo(CEP).execute().body().isError());
+        assertEquals(0, secondary.getRequestCount());
+    }
+
+    @Test
+    public void brasilApiNotFoundIsDefinitive() throws IOException {
+        secondary.enqueue(new MockResponse().setResponseCode(404).setBody("{\"message\":\"CEP não encontrado\"}"));
+        HedgedCepService service = new HedgedCepService(
+                Collections.singletonList(brasilApi(secondary)), HEDGE_DELAY_MILLIS, scheduler);
+
+        assertTrue(service.getCepInfo(CEP).execute().body().isError());
+    }
+
+    @Test
+    public void openBreakerSkipsFailingProvider() throws IOException {
+        primary.enqueue(new MockResponse().setResponseCode(500));
+        primary.enqueue(new MockResponse().setResponseCode(500));
+        for (int i = 0; i < 3; i++) {
+            secondary.enqueue(found("Recife"));
+        }
+        HedgedCepService service = new HedgedCepService(
+                Arrays.asList(viaCep(primary), viaCep(secondary)), HEDGE_DELAY_MILLIS, scheduler, 2, 60_000);
+
+        service.getCepInfo(CEP).execute();
+        service.getCepInfo(CEP).execute();
+        assertEquals(CircuitBreaker.State.OPEN, service.getBreaker(0).getState());
+
+        assertEquals("Recife", service.getCepInfo(CEP).execute().body().getCity());
+        assertEquals(2, primary.getRequestCount());
+    }
+
+    private HedgedCepService hedged(CepProvider... providers) {
+        return new HedgedCepService(Arrays.asList(providers), HEDGE_DELAY_MILLIS, scheduler);
+    }
+
+    private CepProvider viaCep(MockWebServer server) {
+        return new ViaCepProvider(retrofit(server).create(CepService.class));
+    }
+
+    private CepProvider brasilApi(MockWebServer server) {
+        return new BrasilApiCepProvider(retrofit(server).create(BrasilApiService.class));
+    }
+
+    private Retrofit retrofit(MockWebServer server) {
+        return new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build();
+    }
+
+    private static MockResponse found(String city) {
+        return new MockResponse().setBody("{\"cep\":\"58038-000\",\"localidade\":\"" + city + "\",\"uf\":\"PB\"}");
+    }
+
+    // Provedor que só responde quando o teste manda
+    private static final class FakeProvider implements CepProvider {
+        final String name;
+        final List<FakeLookup> lookups = new ArrayList<>();
+
+        FakeProvider(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Lookup lookup(String cep, Callback callback) {
+            FakeLookup lookup = new FakeLookup(callback);
+            lookups.add(lookup);
+            return lookup;
+        }
+
+        @Override
+        public Request request(String cep) {
+            return new Request.Builder().url("https://example.com/" + name + "/" + cep).build();
+        }
+
+        void respond(int lookup, String city) {
+            FakeLookup target = lookups.get(lookup);
+            if (!target.canceled) {
+                target.callback.onResult(new CepResponse(CEP, null, null, null, city, "PB"));
+            }
+        }
+
+        void fail(int lookup) {
+            FakeLookup target = lookups.get(lookup);
+            if (!target.canceled) {
+                target.callback.onFailure(new IOException(name + " failed"));
+            }
+        }
+    }
+
+    private static final class FakeLookup implements CepProvider.Lookup {
+        final CepProvider.Callback callback;
+        boolean canceled;
+
+        FakeLookup(CepProvider.Callback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+    }
+
+    private static final class RecordingCallback implements Callback<CepResponse> {
+        Response<CepResponse> response;
+        Throwable failure;
+        int calls;
+
+        @Override
+        public void onResponse(Call<CepResponse> call, Response<CepResponse> response) {
+            this.response = response;
+            calls++;
+        }
+
+        @Override
+        public void onFailure(Call<CepResponse> call, Throwable t) {
+            this.failure = t;
+            calls++;
+        }
+
+        String city() {
+            return response.body().getCity();
+        }
+    }
+
+    private static final class ManualTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+        private final long delayMillis;
+
+        ManualTask(Runnable command, long delayMillis) {
+            super(command, null);
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(delayMillis, other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Guarda as tarefas agendadas; elas só rodam em {@link #runAll()}, como se o tempo tivesse passado.
+     */
+    private static final class ManualScheduler implements ScheduledExecutorService {
+        private final List<ManualTask> tasks = new ArrayList<>();
+
+        ManualTask lastTask() {
+            return tasks.get(tasks.size() - 1);
+        }
+
+        void runAll() {
+            // Tarefas podem agendar outras enquanto rodam
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).run();
+            }
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            ManualTask task = new ManualTask(command, unit.toMillis(delay));
+            tasks.add(task);
+            return task;
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                         TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks,
+                                                                 long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+}
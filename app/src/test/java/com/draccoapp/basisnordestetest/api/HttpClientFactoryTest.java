@@ -0,0 +1,149 @@
+package com.draccoapp.basisnordestetest.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class HttpClientFactoryTest {
+    private static final String BODY = "{\"cep\":\"58038-000\",\"localidade\":\"João Pessoa\",\"uf\":\"PB\"}";
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpMetricsInterceptor metrics;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        metrics = new HttpMetricsInterceptor();
+        client = HttpClientFactory.create(folder.newFolder("http"), metrics);
+    }
+
+    @Test
+    public void honorsServerMaxAge() throws IOException {
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("Cache-Control", "max-age=60"));
+
+        try (Response first = get()) {
+            assertNotNull(first.networkResponse());
+            assertEquals(BODY, first.body().string());
+        }
+        try (Response second = get()) {
+            assertNull(second.networkResponse());
+            assertEquals(BODY, second.body().string());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void forcesCachingWhenServerSendsNoCacheHeaders() throws IOException {
+        server.enqueue(new MockResponse().setBody(BODY));
+
+        try (Response first = get()) {
+            assertEquals(BODY, first.body().string());
+        }
+        try (Response second = get()) {
+            assertNull(second.networkResponse());
+            assertEquals(BODY, second.body().string());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void doesNotStoreWhenServerForbids() throws IOException {
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("Cache-Control", "no-store"));
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("Cache-Control", "no-store"));
+
+        try (Response first = get()) {
+            first.body().string();
+        }
+        try (Response second = get()) {
+            assertNotNull(second.networkResponse());
+            second.body().string();
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void revalidatesExpiredResponse() throws Exception {
+        server.enqueue(new MockResponse().setBody(BODY)
+                .setHeader("Cache-Control", "max-age=0")
+                .setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        try (Response first = get()) {
+            first.body().string();
+        }
+        try (Response second = get()) {
+            assertEquals(200, second.code());
+            assertEquals(BODY, second.body().string());
+        }
+        server.takeRequest();
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void servesStaleResponseWhenOffline() throws IOException {
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("Cache-Control", "max-age=0"));
+        try (Response first = get()) {
+            first.body().string();
+        }
+
+        server.shutdown();
+        try (Response offline = get()) {
+            assertNull(offline.networkResponse());
+            assertEquals(BODY, offline.body().string());
+        }
+    }
+
+    @Test
+    public void failsOfflineWithoutCachedResponse() throws IOException {
+        Request request = new Request.Builder().url(server.url("/ws/58038000/json/")).build();
+        server.shutdown();
+        try {
+            client.newCall(request).execute().close();
+            fail("Expected the network failure to be rethrown");
+        } catch (IOException expected) {
+            // esperado
+        }
+        assertEquals(1, metrics.getStats().failures);
+    }
+
+    @Test
+    public void metricsRecordBytesAndCacheHits() throws IOException {
+        server.enqueue(new MockResponse().setBody(BODY).setHeader("Cache-Control", "max-age=60"));
+        int bodyBytes = BODY.getBytes("UTF-8").length;
+
+        try (Response first = get()) {
+            first.body().string();
+        }
+        try (Response second = get()) {
+            second.body().string();
+        }
+
+        HttpMetricsInterceptor.Stats stats = metrics.getStats();
+        assertEquals(2, stats.requests);
+        assertEquals(1, stats.cacheHits);
+        assertEquals(2L * bodyBytes, stats.totalBytes);
+    }
+
+    private Response get() throws IOException {
+        return client.newCall(new Request.Builder().url(server.url("/ws/58038000/json/")).build()).execute();
+    }
+}
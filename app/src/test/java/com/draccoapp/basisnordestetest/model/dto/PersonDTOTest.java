@@ -0,0 +1,70 @@
+package com.draccoapp.basisnordestetest.model.dto;
+
+import com.draccoapp.basisnordestetest.model.PersonType;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PersonDTOTest {
+
+    private static PersonDTO loaded() {
+        PersonDTO dto = new PersonDTO();
+        dto.setId("p1");
+        dto.setName("Maria");
+        dto.setPhoneNumber("81999990000");
+        dto.setEmail(null);
+        dto.markClean();
+        return dto;
+    }
+
+    @Test
+    public void setter_marksOnlyChangedFields() {
+        PersonDTO dto = loaded();
+        // O formulário reatribui todos os campos ao salvar
+        dto.setId("p1");
+        dto.setPersonType(PersonType.PHYSICAL);
+        dto.setName("Maria");
+        dto.setPhoneNumber("81988887777");
+
+        assertEquals(Collections.singleton(PersonDTO.FIELD_PHONE_NUMBER), dto.getDirtyFields());
+    }
+
+    @Test
+    public void setter_treatsNullAndEmptyAsSame() {
+        PersonDTO dto = loaded();
+        dto.setEmail("");
+        dto.setCnpj(null);
+
+        assertFalse(dto.isDirty());
+    }
+
+    @Test
+    public void markAllDirty_coversEveryDocumentField() {
+        PersonDTO dto = loaded();
+        dto.markAllDirty();
+
+        assertTrue(dto.getDirtyFields().containsAll(Arrays.asList(
+                PersonDTO.FIELD_ID, PersonDTO.FIELD_NAME, PersonDTO.FIELD_CREATED_AT, PersonDTO.FIELD_DEVICE_NAME)));
+        assertEquals(12, dto.getDirtyFields().size());
+    }
+
+    @Test
+    public void addressSetter_marksChangedFields() {
+        AddressDTO address = new AddressDTO();
+        address.setId("a1");
+        address.setStreet("Rua A");
+        address.markClean();
+
+        address.setStreet("Rua A");
+        assertFalse(address.isDirty());
+
+        address.setZipCode("50000000");
+        assertEquals(Collections.singleton(AddressDTO.FIELD_ZIP_CODE), address.getDirtyFields());
+    }
+}
@@ -0,0 +1,214 @@
+package com.draccoapp.basisnordestetest.model.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.draccoapp.basisnordestetest.model.AddressType;
+import com.draccoapp.basisnordestetest.model.PersonType;
+import com.draccoapp.basisnordestetest.model.dto.AddressDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDTO;
+import com.draccoapp.basisnordestetest.model.dto.PersonDisplay;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class PersonMapperTest {
+
+    private final PersonMapper mapper = new PersonMapper(new AddressMapper());
+
+    // Formatação feita antes pelo PersonAdapter.ViewHolder a cada bind, mantida como referência
+    private static String[] legacyBind(PersonDTO person) {
+        String title;
+        String document;
+        if (person.getPersonType() == PersonType.PHYSICAL) {
+            title = person.getName() != null ? person.getName() : "";
+            document = "CPF: " + (person.getCpf() != null ? legacyCpf(person.getCpf()) : "");
+        } else {
+            title = person.getCompanyName() != null ? person.getCompanyName() : "";
+            document = "CNPJ: " + (person.getCnpj() != null ? legacyCnpj(person.getCnpj()) : "");
+        }
+        String phone = "Tel: " + (person.getPhoneNumber() != null ? legacyPhone(person.getPhoneNumber()) : "");
+        String email = "Email: " + (person.getEmail() != null ? person.getEmail() : "");
+
+        StringBuilder addressesText = new StringBuilder();
+        if (person.getAddresses() != null && !person.getAddresses().isEmpty()) {
+            for (int i = 0; i < person.getAddresses().size(); i++) {
+                AddressDTO address = person.getAddresses().get(i);
+                if (i > 0) {
+                    addressesText.append("\n\n");
+                }
+                AddressType addressType = address.getAddressType();
+                if (addressType != null) {
+                    addressesText.append(addressType.getDisplayName()).append(": ");
+                }
+                String street = address.getStreet();
+                String number = address.getNumber();
+                if (street != null && !street.isEmpty()) {
+                    addressesText.append(street);
+                    if (number != null && !number.isEmpty()) {
+                        addressesText.append(", ").append(number);
+                    }
+                }
+                String neighborhood = address.getNeighborhood();
+                if (neighborhood != null && !neighborhood.isEmpty()) {
+                    addressesText.append(" - ").append(neighborhood);
+                }
+                String city = address.getCity();
+                String state = address.getState();
+                if ((city != null && !city.isEmpty()) || (state != null && !state.isEmpty())) {
+                    addressesText.append(", ");
+                    if (city != null && !city.isEmpty()) {
+                        addressesText.append(city);
+                        if (state != null && !state.isEmpty()) {
+                            addressesText.append("/").append(state);
+                        }
+                    } else if (state != null && !state.isEmpty()) {
+                        addressesText.append(state);
+                    }
+                }
+            }
+        } else {
+            addressesText.append("Nenhum endereço cadastrado");
+        }
+        return new String[]{title, document, phone, email, addressesText.toString()};
+    }
+
+    private static String legacyCpf(String cpf) {
+        if (cpf == null || cpf.length() != 11) return cpf;
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." +
+                cpf.substring(6, 9) + "-" + cpf.substring(9);
+    }
+
+    private static String legacyCnpj(String cnpj) {
+        if (cnpj == null || cnpj.length() != 14) return cnpj;
+        return cnpj.substring(0, 2) + "." + cnpj.substring(2, 5) + "." +
+                cnpj.substring(5, 8) + "/" + cnpj.substring(8, 12) + "-" + cnpj.substring(12);
+    }
+
+    private static String legacyPhone(String phone) {
+        String numbers = phone.replaceAll("[^0-9]", "");
+        if (numbers.length() == 11) {
+            return "(" + numbers.substring(0, 2) + ") " + numbers.substring(2, 7) + "-" + numbers.substring(7);
+        } else if (numbers.length() == 10) {
+            return "(" + numbers.substring(0, 2) + ") " + numbers.substring(2, 6) + "-" + numbers.substring(6);
+        }
+        return phone;
+    }
+
+    private static String digits(Random random, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    private static String maybe(Random random, String value) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return null;
+            case 1:
+                return "";
+            default:
+                return value;
+        }
+    }
+
+    private static PersonDTO randomPerson(Random random, int index) {
+        PersonDTO person = new PersonDTO();
+        person.setId("person-" + index);
+        boolean legal = random.nextInt(3) == 0;
+        person.setPersonType(legal ? PersonType.LEGAL : PersonType.PHYSICAL);
+        person.setName(maybe(random, "Pessoa " + index));
+        person.setCompanyName(maybe(random, "Empresa " + index + " Ltda"));
+        person.setCpf(maybe(random, digits(random, random.nextInt(8) == 0 ? 9 : 11)));
+        person.setCnpj(maybe(random, digits(random, random.nextInt(8) == 0 ? 12 : 14)));
+        person.setPhoneNumber(maybe(random, digits(random, 9 + random.nextInt(3))));
+        person.setEmail(maybe(random, "pessoa" + index + "@exemplo.com.br"));
+
+        List<AddressDTO> addresses = new ArrayList<>();
+        int count = random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            AddressDTO address = new AddressDTO();
+            address.setAddressType(random.nextBoolean() ? AddressType.RESIDENTIAL : AddressType.COMMERCIAL);
+            address.setStreet(maybe(random, "Rua " + i));
+            address.setNumber(maybe(random, String.valueOf(random.nextInt(2000))));
+            address.setNeighborhood(maybe(random, "Centro"));
+            address.setCity(maybe(random, "Recife"));
+            address.setState(maybe(random, "PE"));
+            addresses.add(address);
+        }
+        person.setAddresses(random.nextInt(10) == 0 ? null : addresses);
+        return person;
+    }
+
+    @Test
+    public void toDisplay_matchesLegacyBindFormatting() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            PersonDTO person = randomPerson(random, i);
+            String[] expected = legacyBind(person);
+            PersonDisplay display = mapper.toDisplay(person);
+
+            assertEquals(expected[0], display.getTitle());
+            assertEquals(expected[1], display.getDocument());
+            assertEquals(expected[2], display.getPhone());
+            assertEquals(expected[3], display.getEmail());
+            assertEquals(expected[4], display.getAddresses());
+            assertEquals(person.getPersonType().getDisplayName(), display.getTypeLabel());
+        }
+    }
+
+    @Test
+    public void toDisplay_showsContactOnlyForLegalPersonWithName() {
+        PersonDTO company = new PersonDTO();
+        company.setPersonType(PersonType.LEGAL);
+        company.setCompanyName("Empresa");
+        company.setName("Maria");
+        assertEquals("Contato: Maria", mapper.toDisplay(company).getContact());
+        assertTrue(mapper.toDisplay(company).isLegal());
+
+        company.setName("");
+        assertNull(mapper.toDisplay(company).getContact());
+
+        PersonDTO person = new PersonDTO();
+        person.setName("Maria");
+        assertNull(mapper.toDisplay(person).getContact());
+    }
+
+    @Test
+    public void toDisplay_formatsAlreadyFormattedDocuments() {
+        PersonDTO person = new PersonDTO();
+        person.setCpf("529.982.247-25");
+        person.setPhoneNumber("(81) 99999-0000");
+        PersonDisplay display = mapper.toDisplay(person);
+
+        assertEquals("CPF: 529.982.247-25", display.getDocument());
+        assertEquals("Tel: (81) 99999-0000", display.getPhone());
+    }
+
+    @Test
+    public void toDisplayList_reusesDisplaysOfSameInstances() {
+        PersonDTO kept = new PersonDTO();
+        kept.setId("1");
+        PersonDTO changed = new PersonDTO();
+        changed.setId("2");
+        List<PersonDisplay> previous = mapper.toDisplay(Arrays.asList(kept, changed), Collections.emptyList());
+
+        PersonDTO replacement = new PersonDTO();
+        replacement.setId("2");
+        replacement.setName("Novo nome");
+        List<PersonDisplay> next = mapper.toDisplay(Arrays.asList(kept, replacement), previous);
+
+        assertSame(previous.get(0), next.get(0));
+        assertEquals("Novo nome", next.get(1).getTitle());
+        assertTrue(!previous.get(1).sameContentAs(next.get(1)));
+    }
+}
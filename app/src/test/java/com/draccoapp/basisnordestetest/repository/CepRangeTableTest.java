@@ -0,0 +1,116 @@
+package com.draccoapp.basisnordestetest.repository;
+
+import com.draccoapp.basisnordestetest.tools.ceptable.CepRangeTableWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CepRangeTableTest {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("cep_ranges", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void find_matchesBoundariesGapsAndNestedRanges() throws IOException {
+        new CepRangeTableWriter()
+                .add(58000000, 58099999, "João Pessoa", "PB", null)
+                .add(50000000, 52999999, "Recife", "PE", null)
+                .add(58038000, 58038000, "João Pessoa", "PB", "Avenida Epitácio Pessoa")
+                .write(file);
+
+        try (CepRangeTable table = CepRangeTable.open(file)) {
+            // A faixa da cidade é dividida em volta da faixa do logradouro
+            assertEquals(4, table.size());
+            assertNull(table.find(49999999));
+            assertEquals("Recife", table.find(50000000).city);
+            assertEquals("PE", table.find(52999999).state);
+            assertNull(table.find(53000000));
+            assertNull(table.find(99999999));
+
+            CepRangeTable.Match city = table.find("58037999");
+            assertNotNull(city);
+            assertEquals("João Pessoa", city.city);
+            assertFalse(city.hasStreet());
+
+            CepRangeTable.Match street = table.find("58038000");
+            assertNotNull(street);
+            assertEquals("Avenida Epitácio Pessoa", street.street);
+            assertEquals("PB", street.state);
+            assertTrue(street.hasStreet());
+            assertFalse(table.find("58038001").hasStreet());
+            assertEquals("João Pessoa", table.find(58099999).city);
+        }
+    }
+
+    @Test
+    public void shippedTable_resolvesFieldCities() throws IOException {
+        // Os testes de unidade rodam com o diretório do módulo app como diretório atual
+        try (CepRangeTable table = CepRangeTable.open(new File("src/main/assets/" + OfflineCepResolver.TABLE_NAME))) {
+            CepRangeTable.Match match = table.find("58400000");
+            assertNotNull(match);
+            assertEquals("Campina Grande", match.city);
+            assertEquals("PB", match.state);
+            assertEquals("Recife", table.find("50030230").city);
+            assertEquals("São Luís", table.find("65010000").city);
+            assertNull(table.find("01310100"));
+        }
+    }
+
+    @Test
+    public void find_rejectsMalformedCep() throws IOException {
+        new CepRangeTableWriter().add(0, 99999999, "Qualquer", "SP", null).write(file);
+
+        try (CepRangeTable table = CepRangeTable.open(file)) {
+            assertNull(table.find("5800000"));
+            assertNull(table.find("58000-000"));
+            assertNotNull(table.find("00000000"));
+        }
+    }
+
+    @Test
+    public void write_rejectsOverlappingRanges() throws IOException {
+        CepRangeTableWriter writer = new CepRangeTableWriter()
+                .add(10, 20, "A", "SP", null)
+                .add(20, 30, "B", "SP", null);
+        try {
+            writer.write(file);
+            fail("Overlapping ranges must be rejected");
+        } catch (IllegalArgumentException expected) {
+            // esperado
+        }
+    }
+
+    @Test
+    public void open_rejectsOtherFiles() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("cep,cidade\n".getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            CepRangeTable.open(file);
+            fail("Non-table file must be rejected");
+        } catch (IOException expected) {
+            // esperado
+        }
+    }
+}
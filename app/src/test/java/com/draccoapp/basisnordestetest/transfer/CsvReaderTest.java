@@ -0,0 +1,108 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CsvReaderTest {
+
+    @Test
+    public void readRecord_splitsSimpleRows() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b,c\n1,2,3\n"));
+        assertArrayEquals(new String[]{"a", "b", "c"}, csv.readRecord());
+        assertArrayEquals(new String[]{"1", "2", "3"}, csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void readRecord_handlesQuotesAndEmbeddedNewlines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "nome,obs\r\n\"Silva, João\",\"disse \"\"oi\"\"\nem duas linhas\"\r\nfim,\n"));
+        assertArrayEquals(new String[]{"nome", "obs"}, csv.readRecord());
+        assertArrayEquals(new String[]{"Silva, João", "disse \"oi\"\nem duas linhas"}, csv.readRecord());
+        assertEquals(2, csv.getRecordLine());
+        assertArrayEquals(new String[]{"fim", ""}, csv.readRecord());
+        assertEquals(4, csv.getRecordLine());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void readRecord_detectsSemicolonAndSkipsBom() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\uFEFFid;valor\n1;2,5"));
+        assertArrayEquals(new String[]{"id", "valor"}, csv.readRecord());
+        assertEquals(';', csv.getDelimiter());
+        assertArrayEquals(new String[]{"1", "2,5"}, csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void readRecord_survivesReaderReturningOneCharAtATime() throws IOException {
+        Reader slow = new StringReader("x,\"y\"\"z\"\n") {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+        CsvReader csv = new CsvReader(slow, ',');
+        assertArrayEquals(new String[]{"x", "y\"z"}, csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void writerOutput_roundTripsThroughReader() throws IOException {
+        String[] row = {"plain", "com, vírgula", "com \"aspas\"", "linha\nquebrada", null};
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRow(row);
+        writer.flush();
+
+        CsvReader csv = new CsvReader(new StringReader(out.toString()), ',');
+        assertArrayEquals(new String[]{"plain", "com, vírgula", "com \"aspas\"", "linha\nquebrada", ""},
+                csv.readRecord());
+    }
+
+    @Test
+    public void readRecord_streamsLargeInputAcrossBufferBoundaries() throws IOException {
+        final int rows = 100_000;
+        final String line = "id-0000,PHYSICAL,\"Maria da Silva\",123.456.789-09,,,(81) 99999-0000,maria@exemplo.com\n";
+        Reader input = new Reader() {
+            private int emitted;
+            private int offset;
+
+            @Override
+            public int read(char[] buffer, int off, int len) {
+                if (emitted == rows) {
+                    return -1;
+                }
+                int count = Math.min(len, line.length() - offset);
+                line.getChars(offset, offset + count, buffer, off);
+                offset += count;
+                if (offset == line.length()) {
+                    offset = 0;
+                    emitted++;
+                }
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        CsvReader csv = new CsvReader(input, ',');
+        int count = 0;
+        String[] record;
+        while ((record = csv.readRecord()) != null) {
+            assertEquals("Maria da Silva", record[2]);
+            count++;
+        }
+        assertEquals(rows, count);
+    }
+}
@@ -0,0 +1,85 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import com.draccoapp.basisnordestetest.model.Address;
+import com.draccoapp.basisnordestetest.model.AddressType;
+import com.draccoapp.basisnordestetest.model.Person;
+import com.draccoapp.basisnordestetest.model.PersonType;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PersonImportValidatorTest {
+
+    @Test
+    public void validate_reportsFirstFailingRulePerRecord() {
+        Person badCpf = physical("529.982.247-24");
+        Person badCnpjMissingPhone = legal("11.222.333/0001-82");
+        badCnpjMissingPhone.setPhoneNumber(null);
+        Person missingPhone = physical("529.982.247-25");
+        missingPhone.setPhoneNumber("");
+        Person badEmail = legal("11.222.333/0001-81");
+        badEmail.setEmail("empresa@");
+        Person missingName = physical("529.982.247-25");
+        missingName.setName(null);
+
+        String[] errors = PersonImportValidator.validate(Arrays.asList(
+                physical("529.982.247-25"), badCpf, legal("11222333000181"), badCnpjMissingPhone,
+                missingPhone, badEmail, missingName));
+
+        assertArrayEquals(new String[]{
+                null, "CPF inválido", null, "CNPJ inválido", "Telefone é obrigatório", "Email inválido",
+                "Nome é obrigatório"}, errors);
+    }
+
+    @Test
+    public void validate_checksOnlyTheDocumentOfThePersonType() {
+        // CNPJ inválido numa pessoa física não importa
+        Person person = physical("529.982.247-25");
+        person.setCnpj("123");
+
+        assertArrayEquals(new String[]{null}, PersonImportValidator.validate(Collections.singletonList(person)));
+    }
+
+    @Test
+    public void validate_defaultsMissingAddressType() {
+        Person person = physical("529.982.247-25");
+        Address address = new Address();
+        person.getAddresses().add(address);
+        Address invalid = new Address();
+        invalid.setAddressType("OUTRO");
+        Person other = physical("529.982.247-25");
+        other.getAddresses().add(invalid);
+
+        String[] errors = PersonImportValidator.validate(Arrays.asList(person, other));
+
+        assertNull(errors[0]);
+        assertEquals(AddressType.RESIDENTIAL.name(), address.getAddressType());
+        assertEquals("Tipo de endereço inválido: OUTRO", errors[1]);
+    }
+
+    private static Person physical(String cpf) {
+        Person person = new Person();
+        person.setPersonType(PersonType.PHYSICAL.name());
+        person.setName("Maria da Silva");
+        person.setCpf(cpf);
+        person.setPhoneNumber("(83) 99876-5432");
+        person.setEmail("maria@exemplo.com.br");
+        return person;
+    }
+
+    private static Person legal(String cnpj) {
+        Person person = new Person();
+        person.setPersonType(PersonType.LEGAL.name());
+        person.setCompanyName("Empresa Ltda");
+        person.setCnpj(cnpj);
+        person.setPhoneNumber("8332214455");
+        person.setEmail("contato@empresa.com.br");
+        return person;
+    }
+}
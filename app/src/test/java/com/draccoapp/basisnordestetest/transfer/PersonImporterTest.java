@@ -0,0 +1,53 @@
+package com.draccoapp.basisnordestetest.transfer;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PersonImporterTest {
+
+    private static final String CSV = "id,nome\n1,Maria da Silva\n2,João Araújo\n";
+
+    @Test
+    public void openInput_decompressesGzip() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertRecords(PersonImporter.openInput(new ByteArrayInputStream(compressed.toByteArray())));
+    }
+
+    @Test
+    public void openInput_passesPlainTextThrough() throws IOException {
+        assertRecords(PersonImporter.openInput(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void openInput_handlesInputShorterThanGzipHeader() throws IOException {
+        InputStream input = PersonImporter.openInput(new ByteArrayInputStream(new byte[]{0x1f}));
+        assertEquals(0x1f, input.read());
+        assertEquals(-1, input.read());
+
+        assertEquals(-1, PersonImporter.openInput(new ByteArrayInputStream(new byte[0])).read());
+    }
+
+    private static void assertRecords(InputStream input) throws IOException {
+        CsvReader csv = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        assertArrayEquals(new String[]{"id", "nome"}, csv.readRecord());
+        assertArrayEquals(new String[]{"1", "Maria da Silva"}, csv.readRecord());
+        assertArrayEquals(new String[]{"2", "João Araújo"}, csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+}
@@ -0,0 +1,109 @@
+package com.draccoapp.basisnordestetest.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BatchValidatorTest {
+
+    @Test
+    public void validate_reportsBitsAndReasons() {
+        BatchValidator.Result result = BatchValidator.validate(BatchValidator.Kind.CPF, new CharSequence[]{
+                "529.982.247-25", null, "111.111.111-11", "529.982.247-24", "5299822472", "52998224725"
+        });
+
+        assertEquals(6, result.size());
+        assertTrue(result.isValid(0));
+        assertEquals(ValidationReason.EMPTY, result.reason(1));
+        assertEquals(ValidationReason.REPEATED_DIGITS, result.reason(2));
+        assertEquals(ValidationReason.CHECK_DIGIT, result.reason(3));
+        assertEquals(ValidationReason.WRONG_LENGTH, result.reason(4));
+        assertTrue(result.isValid(5));
+        assertEquals(2, result.validCount());
+        assertEquals(1, result.nextInvalid(0));
+        assertEquals(-1, result.nextInvalid(5));
+    }
+
+    @Test
+    public void validate_readsConcatenatedColumn() {
+        String column = "(83) 99876-5432" + "" + "3221-4455" + "8332214455";
+        int[] offsets = {0, 15, 15, 24, 34};
+
+        BatchValidator.Result result = BatchValidator.validate(BatchValidator.Kind.PHONE, column, offsets);
+
+        assertEquals(4, result.size());
+        assertTrue(result.isValid(0));
+        assertEquals(ValidationReason.EMPTY, result.reason(1));
+        assertEquals(ValidationReason.WRONG_LENGTH, result.reason(2));
+        assertTrue(result.isValid(3));
+    }
+
+    @Test
+    public void validate_parallelMatchesSingleValues() {
+        int size = BatchValidator.PARALLEL_THRESHOLD * 4 + 37;
+        CharSequence[] values = randomCnpjs(new Random(3), size);
+
+        BatchValidator.Result result = BatchValidator.validate(BatchValidator.Kind.CNPJ, values);
+
+        int valid = 0;
+        for (int i = 0; i < size; i++) {
+            boolean expected = ValidationUtil.isValidCnpj(values[i]);
+            assertEquals(String.valueOf(values[i]), expected, result.isValid(i));
+            assertEquals(expected, result.reason(i) == ValidationReason.VALID);
+            if (expected) {
+                valid++;
+            }
+        }
+        assertEquals(valid, result.validCount());
+        assertTrue(valid > 0);
+        assertFalse(valid == size);
+    }
+
+    @Test
+    public void nextInvalid_walksAcrossWords() {
+        CharSequence[] values = new CharSequence[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i == 70 || i == 199 ? "1" : "8332214455";
+        }
+
+        BatchValidator.Result result = BatchValidator.validate(BatchValidator.Kind.PHONE, values);
+
+        assertEquals(70, result.nextInvalid(0));
+        assertEquals(199, result.nextInvalid(71));
+        assertEquals(-1, result.nextInvalid(200));
+    }
+
+    private static CharSequence[] randomCnpjs(Random random, int size) {
+        CharSequence[] values = new CharSequence[size];
+        for (int i = 0; i < size; i++) {
+            int[] digits = new int[14];
+            for (int j = 0; j < 12; j++) {
+                digits[j] = random.nextInt(10);
+            }
+            digits[12] = checkDigit(digits, 12, new int[]{5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2});
+            digits[13] = checkDigit(digits, 13, new int[]{6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2});
+            if (random.nextInt(4) == 0) {
+                digits[13] = (digits[13] + 1) % 10;
+            }
+            StringBuilder builder = new StringBuilder();
+            for (int j = 0; j < 14; j++) {
+                builder.append(digits[j]);
+            }
+            values[i] = builder;
+        }
+        return values;
+    }
+
+    private static int checkDigit(int[] digits, int count, int[] weights) {
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += digits[i] * weights[i];
+        }
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+}
@@ -0,0 +1,92 @@
+package com.draccoapp.basisnordestetest.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+public class EmailValidatorTest {
+
+    // Cópia de android.util.Patterns.EMAIL_ADDRESS, que não roda nos testes da JVM
+    private static final Pattern EMAIL_ADDRESS = Pattern.compile(
+            "[a-zA-Z0-9\\+\\.\\_\\%\\-\\+]{1,256}" +
+            "\\@" +
+            "[a-zA-Z0-9][a-zA-Z0-9\\-]{0,64}" +
+            "(" +
+                "\\." +
+                "[a-zA-Z0-9][a-zA-Z0-9\\-]{0,25}" +
+            ")+"
+    );
+
+    private static final String[] CORPUS = {
+            "joao@exemplo.com", "maria.silva@empresa.com.br", "a@b.c", "nome+tag@dominio.org",
+            "x_y%z-w@sub-dominio.exemplo.net", "1@2.3", ".comeca@ponto.com", "termina.@ponto.com",
+            "dois..pontos@ok.com", "", "@", "semarroba", "sem@dominio", "sem@.com", "sem@dominio.",
+            "duas@@arrobas.com", "a@b@c.com", "espaco @x.com", "a@-hifen.com", "a@hifen-.com",
+            "a@x.-y", "a@x.y-", "a@x..y", "a@x.y.", "a!b@x.com", "a@x_y.com", "a@x.y_z",
+            "a@" + repeat('d', 65) + ".com", "a@" + repeat('d', 66) + ".com",
+            "a@x." + repeat('t', 26), "a@x." + repeat('t', 27),
+            repeat('l', 256) + "@x.com", repeat('l', 257) + "@x.com",
+            "MAIUSCULO@EXEMPLO.COM.BR", "a@1.2.3.4", "a@x.y\n", "\ta@x.y"
+    };
+
+    @Test
+    public void fastPath_agreesWithPatternsOnCorpus() {
+        for (String email : CORPUS) {
+            assertAgrees(email);
+        }
+    }
+
+    @Test
+    public void fastPath_agreesWithPatternsOnRandomInputs() {
+        Random random = new Random(5);
+        String alphabet = "abcXYZ019.-_+%@!# ";
+        for (int i = 0; i < 300_000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(16);
+            for (int j = 0; j < length; j++) {
+                builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            // Metade com a forma usual, para exercitar também o caminho válido
+            if (i % 2 == 0) {
+                builder.insert(random.nextInt(builder.length() + 1), "a@b.").append("c");
+            }
+            assertAgrees(builder.toString());
+        }
+    }
+
+    @Test
+    public void nonAscii_isMalformed() {
+        String[] emails = {"joão@exemplo.com", "joao@exemplo.com.bř", "a b@exemplo.çom"};
+        for (String email : emails) {
+            assertEquals(email, ValidationReason.MALFORMED, check(email));
+            assertAgrees(email);
+        }
+    }
+
+    @Test
+    public void checkEmail_usesRange() {
+        String column = "xx joao@exemplo.com yy";
+        assertEquals(ValidationReason.VALID, ValidationUtil.checkEmail(column, 3, 19));
+        assertEquals(ValidationReason.EMPTY, ValidationUtil.checkEmail(column, 3, 3));
+    }
+
+    private static void assertAgrees(String email) {
+        int reason = check(email);
+        assertEquals(email, EMAIL_ADDRESS.matcher(email).matches(), reason == ValidationReason.VALID);
+    }
+
+    private static int check(String email) {
+        return EmailValidator.check(email, 0, email.length());
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
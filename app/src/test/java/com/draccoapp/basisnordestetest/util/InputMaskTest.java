@@ -0,0 +1,60 @@
+package com.draccoapp.basisnordestetest.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class InputMaskTest {
+
+    @Test
+    public void format_insertsSeparatorsOnlyBeforeDigits() {
+        assertEquals("", InputMask.CPF.format(""));
+        assertEquals("123", InputMask.CPF.format("123"));
+        assertEquals("123.4", InputMask.CPF.format("1234"));
+        assertEquals("529.982.247-25", InputMask.CPF.format("52998224725"));
+        assertEquals("11.222.333/0001-81", InputMask.CNPJ.format("11222333000181"));
+        assertEquals("58038-000", InputMask.ZIP_CODE.format("58038000"));
+    }
+
+    @Test
+    public void format_reformatsAlreadyMaskedText() {
+        assertEquals("529.982.247-25", InputMask.CPF.format("529.98224.7-25"));
+        assertEquals("529.982.2", InputMask.CPF.format("529.982.2"));
+    }
+
+    @Test
+    public void format_dropsDigitsBeyondCapacity() {
+        assertEquals("58038-000", InputMask.ZIP_CODE.format("580380001"));
+        assertEquals(11, InputMask.PHONE.getMaxDigits());
+    }
+
+    @Test
+    public void format_switchesPhonePatternByDigitCount() {
+        assertEquals("(83) 3221-4455", InputMask.PHONE.format("8332214455"));
+        assertEquals("(83) 99876-5432", InputMask.PHONE.format("83998765432"));
+        assertEquals("(83) 9", InputMask.PHONE.format("839"));
+    }
+
+    @Test
+    public void format_reusesBuffer() {
+        StringBuilder buffer = new StringBuilder("lixo");
+        InputMask.ZIP_CODE.format("580", buffer);
+        assertEquals("580", buffer.toString());
+        InputMask.ZIP_CODE.format("580380", buffer);
+        assertEquals("58038-0", buffer.toString());
+    }
+
+    @Test
+    public void positionAfterDigits_keepsCursorWithTheDigits() {
+        assertEquals(0, InputMask.positionAfterDigits("529.982", 0));
+        assertEquals(3, InputMask.positionAfterDigits("529.982", 3));
+        assertEquals(5, InputMask.positionAfterDigits("529.982", 4));
+        assertEquals(7, InputMask.positionAfterDigits("529.982", 9));
+        assertEquals(2, InputMask.countDigits("(83) 9", 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsUnorderedPatterns() {
+        new InputMask("#####-####", "####-####");
+    }
+}
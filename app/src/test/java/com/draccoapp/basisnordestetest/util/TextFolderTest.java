@@ -0,0 +1,88 @@
+package com.draccoapp.basisnordestetest.util;
+
+import org.junit.Test;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TextFolderTest {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final String[] SAMPLES = {
+            "João da Silva", "Maria Conceição", "ÁGUA LTDA", "José Antônio Araújo",
+            "comercio de alimentos", "Distribuidora Nordeste ME", "Ânderson Gonçalves", "IRMÃOS PEÇANHA"
+    };
+
+    @Test
+    public void fold_removesAccentsAndCase() {
+        assertEquals("joao", TextFolder.fold("João"));
+        assertEquals("conceicao", TextFolder.fold("Conceição"));
+        assertEquals("agua ltda", TextFolder.fold("ÁGUA LTDA"));
+        assertEquals("irmaos pecanha", TextFolder.fold("IRMÃOS PEÇANHA"));
+        assertEquals("aeiou", TextFolder.fold("àéîõü"));
+    }
+
+    @Test
+    public void fold_dropsCombiningMarks() {
+        String decomposed = Normalizer.normalize("Conceição", Normalizer.Form.NFD);
+        assertEquals("conceicao", TextFolder.fold(decomposed));
+    }
+
+    @Test
+    public void fold_returnsSameInstanceWhenAlreadyFolded() {
+        String folded = "maria silva 123";
+        assertSame(folded, TextFolder.fold(folded));
+    }
+
+    @Test
+    public void fold_handlesNull() {
+        assertNull(TextFolder.fold(null));
+    }
+
+    @Test
+    public void fold_appendsToBuilder() {
+        StringBuilder out = new StringBuilder("x:");
+        TextFolder.fold("Ação", out);
+        assertEquals("x:acao", out.toString());
+    }
+
+    @Test
+    public void fold_matchesNormalizerForPortugueseText() {
+        for (String sample : SAMPLES) {
+            assertEquals(sample, referenceFold(sample), TextFolder.fold(sample));
+        }
+    }
+
+    @Test
+    public void fold_expandsLigaturesToTwoLetters() {
+        assertEquals("strasse", TextFolder.fold("Straße"));
+        assertEquals("strasse", TextFolder.fold("STRAẞE"));
+        assertEquals("aesir", TextFolder.fold("Æsir"));
+        assertEquals("caesar", TextFolder.fold("cæsar"));
+        assertEquals("oeuvre", TextFolder.fold("Œuvre"));
+        assertEquals("coeur", TextFolder.fold("cœur"));
+    }
+
+    @Test
+    public void fold_expandsLigaturesWhenAppendingToBuilder() {
+        StringBuilder out = new StringBuilder();
+        TextFolder.fold("Großmann", out);
+        assertEquals("grossmann", out.toString());
+    }
+
+    @Test
+    public void fold_growsBufferForManyExpansions() {
+        assertEquals("ssssssssssssaeaeaeoeoeoe", TextFolder.fold("ßßßßßßÆæǼŒœŒ"));
+    }
+
+    private static String referenceFold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,190 @@
+package com.draccoapp.basisnordestetest.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ValidationUtilTest {
+
+    @Test
+    public void isValidCpf_acceptsFormattedAndRaw() {
+        assertTrue(ValidationUtil.isValidCpf("529.982.247-25"));
+        assertTrue(ValidationUtil.isValidCpf("52998224725"));
+        assertTrue(ValidationUtil.isValidCpf(new StringBuilder("111.444.777-35")));
+        assertFalse(ValidationUtil.isValidCpf("529.982.247-24"));
+        assertFalse(ValidationUtil.isValidCpf("111.111.111-11"));
+        assertFalse(ValidationUtil.isValidCpf("5299822472"));
+        assertFalse(ValidationUtil.isValidCpf("529982247250"));
+        assertFalse(ValidationUtil.isValidCpf(""));
+        assertFalse(ValidationUtil.isValidCpf(null));
+    }
+
+    @Test
+    public void isValidCnpj_acceptsFormattedAndRaw() {
+        assertTrue(ValidationUtil.isValidCnpj("11.222.333/0001-81"));
+        assertTrue(ValidationUtil.isValidCnpj("11222333000181"));
+        assertFalse(ValidationUtil.isValidCnpj("11.222.333/0001-82"));
+        assertFalse(ValidationUtil.isValidCnpj("00.000.000/0000-00"));
+        assertFalse(ValidationUtil.isValidCnpj("112223330001810"));
+        assertFalse(ValidationUtil.isValidCnpj(null));
+    }
+
+    @Test
+    public void isValidPhone_countsDigitsOnly() {
+        assertTrue(ValidationUtil.isValidPhone("(83) 99876-5432"));
+        assertTrue(ValidationUtil.isValidPhone("8332214455"));
+        assertFalse(ValidationUtil.isValidPhone("3221-4455"));
+        assertFalse(ValidationUtil.isValidPhone("+55 (83) 99876-5432"));
+        assertFalse(ValidationUtil.isValidPhone(null));
+    }
+
+    @Test
+    public void singlePassValidation_matchesRegexImplementation() {
+        Random random = new Random(7);
+        String alphabet = "0123456789.-/() x";
+        for (int i = 0; i < 200_000; i++) {
+            String input;
+            if (i % 2 == 0) {
+                input = i % 4 == 0 ? randomCpf(random) : randomCnpj(random);
+            } else {
+                StringBuilder builder = new StringBuilder();
+                int length = random.nextInt(20);
+                for (int j = 0; j < length; j++) {
+                    builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                input = builder.toString();
+            }
+            assertEquals(input, legacyIsValidCpf(input), ValidationUtil.isValidCpf(input));
+            assertEquals(input, legacyIsValidCnpj(input), ValidationUtil.isValidCnpj(input));
+            assertEquals(input, legacyIsValidPhone(input), ValidationUtil.isValidPhone(input));
+        }
+    }
+
+    // Documentos com dígitos verificadores corretos, em parte formatados, para exercitar o caminho válido
+    private static String randomCpf(Random random) {
+        int[] digits = new int[11];
+        for (int i = 0; i < 9; i++) {
+            digits[i] = random.nextInt(10);
+        }
+        digits[9] = legacyCheckDigit(digits, 9, 10);
+        digits[10] = legacyCheckDigit(digits, 10, 11);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 11; i++) {
+            if (random.nextBoolean() && (i == 3 || i == 6)) {
+                builder.append('.');
+            } else if (random.nextBoolean() && i == 9) {
+                builder.append('-');
+            }
+            builder.append(random.nextInt(20) == 0 ? (digits[i] + 1) % 10 : digits[i]);
+        }
+        return builder.toString();
+    }
+
+    private static String randomCnpj(Random random) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 14; i++) {
+            if (i == 8) {
+                builder.append('/');
+            }
+            builder.append(random.nextInt(10));
+        }
+        return builder.toString();
+    }
+
+    private static int legacyCheckDigit(int[] digits, int count, int firstWeight) {
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += digits[i] * (firstWeight - i);
+        }
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    // Implementações anteriores, com replaceAll, usadas como referência
+
+    private static boolean legacyIsValidCpf(String cpf) {
+        if (cpf == null || cpf.isEmpty()) {
+            return false;
+        }
+        cpf = cpf.replaceAll("[^0-9]", "");
+        if (cpf.length() != 11) {
+            return false;
+        }
+        boolean allDigitsEqual = true;
+        for (int i = 1; i < cpf.length(); i++) {
+            if (cpf.charAt(i) != cpf.charAt(0)) {
+                allDigitsEqual = false;
+                break;
+            }
+        }
+        if (allDigitsEqual) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += (cpf.charAt(i) - '0') * (10 - i);
+        }
+        int remainder = sum % 11;
+        int digit1 = remainder < 2 ? 0 : 11 - remainder;
+        if (digit1 != (cpf.charAt(9) - '0')) {
+            return false;
+        }
+        sum = 0;
+        for (int i = 0; i < 10; i++) {
+            sum += (cpf.charAt(i) - '0') * (11 - i);
+        }
+        remainder = sum % 11;
+        int digit2 = remainder < 2 ? 0 : 11 - remainder;
+        return digit2 == (cpf.charAt(10) - '0');
+    }
+
+    private static boolean legacyIsValidCnpj(String cnpj) {
+        if (cnpj == null || cnpj.isEmpty()) {
+            return false;
+        }
+        cnpj = cnpj.replaceAll("[^0-9]", "");
+        if (cnpj.length() != 14) {
+            return false;
+        }
+        boolean allDigitsEqual = true;
+        for (int i = 1; i < cnpj.length(); i++) {
+            if (cnpj.charAt(i) != cnpj.charAt(0)) {
+                allDigitsEqual = false;
+                break;
+            }
+        }
+        if (allDigitsEqual) {
+            return false;
+        }
+        int[] multipliers1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (cnpj.charAt(i) - '0') * multipliers1[i];
+        }
+        int remainder = sum % 11;
+        int digit1 = remainder < 2 ? 0 : 11 - remainder;
+        if (digit1 != (cnpj.charAt(12) - '0')) {
+            return false;
+        }
+        int[] multipliers2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+        sum = 0;
+        for (int i = 0; i < 13; i++) {
+            sum += (cnpj.charAt(i) - '0') * multipliers2[i];
+        }
+        remainder = sum % 11;
+        int digit2 = remainder < 2 ? 0 : 11 - remainder;
+        return digit2 == (cnpj.charAt(13) - '0');
+    }
+
+    private static boolean legacyIsValidPhone(String phone) {
+        if (phone == null || phone.isEmpty()) {
+            return false;
+        }
+        phone = phone.replaceAll("[^0-9]", "");
+        return phone.length() == 10 || phone.length() == 11;
+    }
+}
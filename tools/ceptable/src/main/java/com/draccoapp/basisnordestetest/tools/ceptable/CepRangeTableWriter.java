@@ -0,0 +1,154 @@
+package com.draccoapp.basisnordestetest.tools.ceptable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gera o arquivo lido pelo CepRangeTable do app a partir de uma lista de faixas, por exemplo
+ * exportada da base de CEPs dos Correios. Cidades e logradouros repetidos são gravados uma única
+ * vez no dicionário.
+ *
+ * As constantes do formato repetem as do CepRangeTable; o CepRangeTableTest do app lê com ele as
+ * tabelas gravadas aqui.
+ */
+public class CepRangeTableWriter {
+    static final int MAGIC = 0x43455054; // "CEPT"
+    static final int VERSION = 1;
+    static final int NO_STREET = -1;
+
+    private static final class Range {
+        final int start;
+        final int end;
+        final int city;
+        final int state;
+        final int street;
+
+        Range(int start, int end, int city, int state, int street) {
+            this.start = start;
+            this.end = end;
+            this.city = city;
+            this.state = state;
+            this.street = street;
+        }
+    }
+
+    private final List<Range> ranges = new ArrayList<>();
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * Adiciona uma faixa de CEPs, inclusive nas duas pontas.
+     * @param street Logradouro, para faixas de um único logradouro; null caso contrário
+     */
+    public CepRangeTableWriter add(int start, int end, String city, String state, String street) {
+        if (start > end) {
+            throw new IllegalArgumentException("Invalid CEP range " + start + "-" + end);
+        }
+        if (state.length() != 2 || state.charAt(0) > 0x7f || state.charAt(1) > 0x7f) {
+            throw new IllegalArgumentException("Invalid state " + state);
+        }
+        // A UF tem sempre duas letras e vai direto no registro, sem passar pelo dicionário
+        int packedState = state.charAt(0) << 8 | state.charAt(1);
+        ranges.add(new Range(start, end, intern(city), packedState,
+                street == null || street.isEmpty() ? NO_STREET : intern(street)));
+        return this;
+    }
+
+    /**
+     * Grava a tabela. As faixas podem ter sido adicionadas em qualquer ordem e podem estar contidas
+     * umas nas outras, como as faixas de logradouro dentro da faixa da cidade na base dos Correios:
+     * a faixa mais interna prevalece. Faixas que se cruzam sem uma conter a outra são rejeitadas.
+     */
+    public void write(File target) throws IOException {
+        List<Range> flat = flatten();
+
+        ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+        int[] offsets = new int[strings.size() + 1];
+        for (int i = 0; i < strings.size(); i++) {
+            offsets[i] = stringData.size();
+            byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            stringData.write(bytes, 0, bytes.length);
+        }
+        offsets[strings.size()] = stringData.size();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(target)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(flat.size());
+            out.writeInt(strings.size());
+            for (Range range : flat) {
+                out.writeInt(range.start);
+                out.writeInt(range.end);
+                out.writeInt(range.city);
+                out.writeInt(range.street);
+                out.writeShort(range.state);
+                out.writeShort(0);
+            }
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            stringData.writeTo(out);
+        }
+    }
+
+    // Divide as faixas aninhadas em trechos disjuntos, ordenados pelo início
+    private List<Range> flatten() {
+        // Pelo início e, no mesmo início, a faixa mais larga primeiro, para que fique por fora
+        Collections.sort(ranges, (a, b) -> a.start != b.start
+                ? Integer.compare(a.start, b.start)
+                : Integer.compare(b.end, a.end));
+        List<Range> flat = new ArrayList<>();
+        Deque<Range> open = new ArrayDeque<>();
+        int cursor = 0; // Primeiro CEP ainda não emitido da faixa do topo
+        for (Range range : ranges) {
+            while (!open.isEmpty() && open.peek().end < range.start) {
+                Range closed = open.pop();
+                emit(flat, closed, cursor, closed.end);
+                cursor = closed.end + 1;
+            }
+            if (!open.isEmpty()) {
+                Range outer = open.peek();
+                if (range.end > outer.end || (range.start == outer.start && range.end == outer.end)) {
+                    throw new IllegalArgumentException("Overlapping CEP ranges at " + range.start);
+                }
+                emit(flat, outer, cursor, range.start - 1);
+            }
+            cursor = range.start;
+            open.push(range);
+        }
+        while (!open.isEmpty()) {
+            Range closed = open.pop();
+            emit(flat, closed, cursor, closed.end);
+            cursor = closed.end + 1;
+        }
+        return flat;
+    }
+
+    private static void emit(List<Range> flat, Range range, int start, int end) {
+        if (start <= end) {
+            flat.add(new Range(start, end, range.city, range.state, range.street));
+        }
+    }
+
+    private int intern(String value) {
+        Integer index = dictionary.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            dictionary.put(value, index);
+        }
+        return index;
+    }
+}
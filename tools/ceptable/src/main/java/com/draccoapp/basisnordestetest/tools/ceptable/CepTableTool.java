@@ -0,0 +1,70 @@
+package com.draccoapp.basisnordestetest.tools.ceptable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Gera a tabela de faixas de CEP a partir de um CSV com as colunas
+ * {@code inicio,fim,cidade,uf,logradouro}; o logradouro pode ficar vazio. Linhas em branco e
+ * linhas começando com # são ignoradas, e a primeira linha é o cabeçalho.
+ *
+ * Uso: {@code ./gradlew :tools:ceptable:generateCepTable}, que lê data/cep_ranges.csv e grava o
+ * asset do app, ou {@code CepTableTool <csv> <saída>}.
+ */
+public final class CepTableTool {
+
+    private CepTableTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CepTableTool <ranges.csv> <cep_ranges.bin>");
+            System.exit(2);
+        }
+        File target = new File(args[1]);
+        CepRangeTableWriter writer = new CepRangeTableWriter();
+        int count = read(new File(args[0]), writer);
+        writer.write(target);
+        System.out.println("Wrote " + count + " CEP ranges to " + target);
+    }
+
+    /**
+     * Adiciona ao writer as faixas do CSV.
+     * @return Quantidade de faixas lidas
+     */
+    static int read(File csv, CepRangeTableWriter writer) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csv.toPath(), StandardCharsets.UTF_8)) {
+            reader.readLine(); // Cabeçalho
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",", -1);
+                if (columns.length != 5) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected 5 columns");
+                }
+                String street = columns[4].trim();
+                writer.add(parseCep(columns[0], lineNumber), parseCep(columns[1], lineNumber),
+                        columns[2].trim(), columns[3].trim(), street.isEmpty() ? null : street);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Aceita o CEP com ou sem hífen
+    private static int parseCep(String value, int lineNumber) {
+        String digits = value.trim().replace("-", "");
+        if (digits.length() != 8) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": invalid CEP " + value);
+        }
+        return Integer.parseInt(digits);
+    }
+}